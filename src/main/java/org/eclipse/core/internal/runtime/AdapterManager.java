@@ -14,6 +14,7 @@ package org.eclipse.core.internal.runtime;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -40,17 +41,28 @@ import org.eclipse.core.runtime.IAdapterManager;
  * returned by <code>getInterfaces</code> (in the example, X's superinterfaces
  * then Y's superinterfaces)</li>
  * </ul>
+ * Since GWT does not emulate <code>Class.getInterfaces()</code>, the
+ * interfaces are not part of the search order of this port: factories must be
+ * registered for the adaptable classes or their superclasses.
+ * <p>
+ * The resolution is memoised: the first lookup for an adaptable class
+ * computes the table of the factories of all its adapter types, and later
+ * lookups for that class, including those for adapter types no factory
+ * provides, are a single table access. The tables are discarded whenever a
+ * factory is registered or unregistered.
+ * </p>
  * 
  * @see IAdapterFactory
  * @see IAdapterManager
  */
 public final class AdapterManager implements IAdapterManager {
 	/**
-	 * Cache of adapters for a given adaptable class. Maps String -> Map
-	 * (adaptable class name -> (adapter class name -> factory instance)) Thread
-	 * safety note: The outer map is synchronized using a synchronized map
-	 * wrapper class. The inner map is not synchronized, but it is immutable so
-	 * synchronization is not necessary.
+	 * Cache of adapters for a given adaptable class. Maps Class -> Map
+	 * (adaptable class -> (adapter class name -> factory instance)). An
+	 * adaptable class without any factory maps to the shared empty map, so
+	 * that the common case of a missing adapter is cached as well. Thread
+	 * safety note: GWT applications are single-threaded, so the maps are not
+	 * synchronized. The inner maps are never modified once cached.
 	 */
 	private Map adapterLookup;
 
@@ -171,6 +183,16 @@ public final class AdapterManager implements IAdapterManager {
 			if (factory instanceof IAdapterFactoryExt)
 				factory = ((IAdapterFactoryExt) factory).loadFactory(false);
 			if (factory != null) {
+				// GWT has no class loaders: the type can only be one of the
+				// classes the factory declares.
+				Class[] adapterList = factory.getAdapterList();
+				for (int i = 0; i < adapterList.length; i++) {
+					if (adapterList[i].getName().equals(typeName)) {
+						clazz = adapterList[i];
+						cacheClassLookup(factory, clazz);
+						break;
+					}
+				}
 				// try {
 				// clazz = factory.getClass().getClassLoader()
 				// .loadClass(typeName);
@@ -218,22 +240,22 @@ public final class AdapterManager implements IAdapterManager {
 	 */
 	private Map getFactories(Class adaptable) {
 		// cache reference to lookup to protect against concurrent flush
-		// Map lookup = adapterLookup;
-		// if (lookup == null)
-		// adapterLookup = lookup = Collections
-		// .synchronizedMap(new HashMap(30));
-		// Map table = (Map) lookup.get(adaptable.getName());
-		// if (table == null) {
-		// // calculate adapters for the class
-		// table = new HashMap(4);
-		// Class[] classes = computeClassOrder(adaptable);
-		// for (int i = 0; i < classes.length; i++)
-		// addFactoriesFor(classes[i].getName(), table);
-		// // cache the table
-		// lookup.put(adaptable.getName(), table);
-		// }
-		// return table;
-		return null;
+		Map lookup = adapterLookup;
+		if (lookup == null)
+			adapterLookup = lookup = new HashMap(30);
+		Map table = (Map) lookup.get(adaptable);
+		if (table == null) {
+			// calculate adapters for the class
+			table = new HashMap(4);
+			Class[] classes = computeClassOrder(adaptable);
+			for (int i = 0; i < classes.length; i++)
+				addFactoriesFor(classes[i].getName(), table);
+			if (table.isEmpty())
+				table = Collections.EMPTY_MAP;
+			// cache the table
+			lookup.put(adaptable, table);
+		}
+		return table;
 	}
 
 	/**
@@ -252,7 +274,7 @@ public final class AdapterManager implements IAdapterManager {
 			classes = (Class[]) lookup.get(adaptable);
 		// compute class order only if it hasn't been cached before
 		if (classes == null) {
-			// classes = doComputeClassOrder(adaptable);
+			classes = doComputeClassOrder(adaptable);
 			lookup.put(adaptable, classes);
 		}
 		return classes;
@@ -260,8 +282,17 @@ public final class AdapterManager implements IAdapterManager {
 
 	/**
 	 * Computes the super-type search order starting with <code>adaptable</code>
-	 * . The search order is defined in this class' comment.
+	 * . The search order is defined in this class' comment, without the
+	 * interfaces.
 	 */
+	private Class[] doComputeClassOrder(Class adaptable) {
+		List classes = new ArrayList();
+		for (Class clazz = adaptable; clazz != null; clazz = clazz
+				.getSuperclass())
+			classes.add(clazz);
+		return (Class[]) classes.toArray(new Class[classes.size()]);
+	}
+
 	// private Class[] doComputeClassOrder(Class adaptable) {
 	// List classes = new ArrayList();
 	// Class clazz = adaptable;
@@ -313,25 +344,30 @@ public final class AdapterManager implements IAdapterManager {
 		classSearchOrderLookup = null;
 	}
 
-	/*
-	 * (non-Javadoc)
+	/**
+	 * Returns an adapter of the given type for the adaptable object, or
+	 * <code>null</code>. If no factory provides an adapter, the adaptable
+	 * object itself is returned if it is an instance of the given type. Since
+	 * GWT does not emulate <code>Class.isInstance()</code>, this port only
+	 * returns the adaptable object if its class is exactly the given type, not
+	 * if the type is a superclass or an interface of it. For example, an edit
+	 * part adapts to its own class without any factory being registered.
 	 * 
-	 * @see
-	 * org.eclipse.core.runtime.IAdapterManager#getAdapter(java.lang.Object,
-	 * java.lang.Class)
+	 * @see org.eclipse.core.runtime.IAdapterManager#getAdapter(java.lang.Object,
+	 *      java.lang.Class)
 	 */
 	public Object getAdapter(Object adaptable, Class adapterType) {
-		// Assert.isNotNull(adaptable);
-		// Assert.isNotNull(adapterType);
-		// IAdapterFactory factory = (IAdapterFactory) getFactories(
-		// adaptable.getClass()).get(adapterType.getName());
-		// Object result = null;
-		// if (factory != null)
-		// result = factory.getAdapter(adaptable, adapterType);
-		// // if (result == null && adapterType.isInstance(adaptable))
-		// // return adaptable;
-		// return result;
-		return null;
+		Assert.isNotNull(adaptable);
+		Assert.isNotNull(adapterType);
+		IAdapterFactory factory = (IAdapterFactory) getFactories(
+				adaptable.getClass()).get(adapterType.getName());
+		Object result = null;
+		if (factory != null)
+			result = factory.getAdapter(adaptable, adapterType);
+		// GWT does not emulate Class.isInstance()
+		if (result == null && adaptable.getClass() == adapterType)
+			return adaptable;
+		return result;
 	}
 
 	/*
@@ -471,13 +507,20 @@ public final class AdapterManager implements IAdapterManager {
 		synchronized (lazyFactoryProviders) {
 			lazyFactoryProviders.add(factoryProvider);
 		}
+		// the cached tables do not include the factories of the provider
+		flushLookup();
 	}
 
 	public boolean unregisterLazyFactoryProvider(
 			IAdapterManagerProvider factoryProvider) {
+		boolean removed;
 		synchronized (lazyFactoryProviders) {
-			return lazyFactoryProviders.remove(factoryProvider);
+			removed = lazyFactoryProviders.remove(factoryProvider);
 		}
+		// the cached tables may include the factories of the provider
+		if (removed)
+			flushLookup();
+		return removed;
 	}
 
 	public HashMap getFactories() {
@@ -15,6 +15,11 @@ class ClickableEventHandler extends MouseMotionListener.Stub implements
 		MouseListener, FigureListener, ChangeListener, KeyListener,
 		FocusListener {
 
+	/**
+	 * The last press or drag, replayed when the clickable moves. Forgotten on
+	 * release and exit, since the dispatcher fills a dragged event again for
+	 * later mouse moves, possibly over other figures.
+	 */
 	private MouseEvent lastEvent;
 
 	public void focusLost(FocusEvent fe) {
@@ -67,6 +72,7 @@ class ClickableEventHandler extends MouseMotionListener.Stub implements
 		Clickable click = (Clickable) me.getSource();
 		click.getModel().setMouseOver(false);
 		click.removeFigureListener(this);
+		lastEvent = null;
 	}
 
 	public void mouseMoved(MouseEvent me) {
@@ -87,6 +93,7 @@ class ClickableEventHandler extends MouseMotionListener.Stub implements
 	public void mouseReleased(MouseEvent me) {
 		if (me.button != 1)
 			return;
+		lastEvent = null;
 		ButtonModel model = ((Clickable) me.getSource()).getModel();
 		if (!model.isPressed())
 			return;
@@ -184,6 +184,7 @@ public class DeferredUpdateManager extends UpdateManager {
 		if (isDisposed() || updating)
 			return;
 		updating = true;
+		Profiler.beginFrame();
 		try {
 			performValidation();
 			updateQueued = false;
@@ -197,6 +198,7 @@ public class DeferredUpdateManager extends UpdateManager {
 			}
 		} finally {
 			updating = false;
+			Profiler.endFrame();
 		}
 	}
 
@@ -206,6 +208,7 @@ public class DeferredUpdateManager extends UpdateManager {
 	public synchronized void performValidation() {
 		if (invalidFigures.isEmpty() || validating)
 			return;
+		double start = Profiler.isEnabled() ? Profiler.now() : 0;
 		try {
 			IFigure fig;
 			validating = true;
@@ -218,6 +221,8 @@ public class DeferredUpdateManager extends UpdateManager {
 		} finally {
 			invalidFigures.clear();
 			validating = false;
+			if (start != 0)
+				Profiler.time(Profiler.VALIDATION_TIME, start);
 		}
 	}
 
@@ -306,8 +311,14 @@ public class DeferredUpdateManager extends UpdateManager {
 		if (damage != null && !damage.isEmpty()) {
 			Graphics graphics = getGraphics(damage);
 			if (graphics != null) {
+				double start = Profiler.isEnabled() ? Profiler.now() : 0;
 				root.paint(graphics);
 				releaseGraphics(graphics);
+				if (start != 0) {
+					Profiler.time(Profiler.PAINT_TIME, start);
+					Profiler.count(Profiler.DAMAGE_AREA, damage.width
+							* damage.height);
+				}
 			}
 		}
 		damage = null;
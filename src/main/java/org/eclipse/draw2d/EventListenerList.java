@@ -12,14 +12,30 @@
 package org.eclipse.draw2d;
 
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * This class is intended for internal use only. TODO: If this is for internal
  * use only, we should move it to the internal package.
+ * <P>
+ * The listeners are kept in one array per type, in the order they were added.
+ * The arrays are replaced rather than modified when a listener is added or
+ * removed, so that the array returned by {@link #getListenerArray(Class)} can
+ * be iterated while listeners are added or removed by the notified listeners.
+ * GWT applications are single-threaded, so the list is not synchronized.
  */
 public final class EventListenerList {
 
-	private volatile Object array[];
+	private static final Object[] NO_LISTENERS = new Object[0];
+
+	private static final Class[] NO_TYPES = new Class[0];
+
+	private static final Iterator EMPTY_ITERATOR = new TypeIterator(
+			NO_LISTENERS);
+
+	private Class types[] = NO_TYPES;
+
+	private Object listeners[][];
 
 	/**
 	 * Adds a listener of type <i>c</i> to the list.
@@ -29,17 +45,29 @@ public final class EventListenerList {
 	 * @param listener
 	 *            the listener
 	 */
-	public synchronized void addListener(Class c, Object listener) {
+	public void addListener(Class c, Object listener) {
 		if (listener == null || c == null)
 			throw new IllegalArgumentException();
 
-		int oldSize = (array == null) ? 0 : array.length;
-		Object[] newArray = new Object[oldSize + 2];
-		if (oldSize != 0)
-			System.arraycopy(array, 0, newArray, 0, oldSize);
-		newArray[oldSize++] = c;
-		newArray[oldSize] = listener;
-		array = newArray;
+		int index = indexOf(c);
+		if (index == -1) {
+			index = types.length;
+			Class newTypes[] = new Class[index + 1];
+			Object newListeners[][] = new Object[index + 1][];
+			if (index != 0) {
+				System.arraycopy(types, 0, newTypes, 0, index);
+				System.arraycopy(listeners, 0, newListeners, 0, index);
+			}
+			newTypes[index] = c;
+			newListeners[index] = NO_LISTENERS;
+			types = newTypes;
+			listeners = newListeners;
+		}
+		Object array[] = listeners[index];
+		Object newArray[] = new Object[array.length + 1];
+		System.arraycopy(array, 0, newArray, 0, array.length);
+		newArray[array.length] = listener;
+		listeners[index] = newArray;
 	}
 
 	/**
@@ -50,36 +78,25 @@ public final class EventListenerList {
 	 *            the type
 	 * @return whether this list contains a listener of type <i>c</i>
 	 */
-	public synchronized boolean containsListener(Class c) {
-		if (array == null)
-			return false;
-		for (int i = 0; i < array.length; i += 2)
-			if (array[i] == c)
-				return true;
-		return false;
+	public boolean containsListener(Class c) {
+		return indexOf(c) != -1;
 	}
 
 	static class TypeIterator implements Iterator {
 		private final Object[] items;
-		private final Class type;
 		private int index;
 
-		TypeIterator(Object items[], Class type) {
+		TypeIterator(Object items[]) {
 			this.items = items;
-			this.type = type;
 		}
 
 		public Object next() {
-			Object result = items[index + 1];
-			index += 2;
-			return result;
+			if (index == items.length)
+				throw new NoSuchElementException();
+			return items[index++];
 		}
 
 		public boolean hasNext() {
-			if (items == null)
-				return false;
-			while (index < items.length && items[index] != type)
-				index += 2;
 			return index < items.length;
 		}
 
@@ -89,6 +106,22 @@ public final class EventListenerList {
 		}
 	}
 
+	/**
+	 * Returns the listeners of type <i>c</i>, in the order they were added.
+	 * The returned array must not be modified. It is not affected by later
+	 * additions or removals, and iterating it does not allocate, so it is the
+	 * preferred way of notifying the listeners.
+	 * 
+	 * @param c
+	 *            the type
+	 * @return the listeners of type <i>c</i>, possibly an empty array
+	 * @since 3.7
+	 */
+	public Object[] getListenerArray(Class c) {
+		int index = indexOf(c);
+		return index == -1 ? NO_LISTENERS : listeners[index];
+	}
+
 	/**
 	 * Returns an Iterator of all the listeners of type <i>c</i>.
 	 * 
@@ -96,8 +129,18 @@ public final class EventListenerList {
 	 *            the type
 	 * @return an Iterator of all the listeners of type <i>c</i>
 	 */
-	public synchronized Iterator getListeners(final Class listenerType) {
-		return new TypeIterator(array, listenerType);
+	public Iterator getListeners(final Class listenerType) {
+		int index = indexOf(listenerType);
+		if (index == -1)
+			return EMPTY_ITERATOR;
+		return new TypeIterator(listeners[index]);
+	}
+
+	private int indexOf(Class c) {
+		for (int i = 0; i < types.length; i++)
+			if (types[i] == c)
+				return i;
+		return -1;
 	}
 
 	/**
@@ -108,26 +151,43 @@ public final class EventListenerList {
 	 * @param listener
 	 *            the listener
 	 */
-	public synchronized void removeListener(Class c, Object listener) {
-		if (array == null || array.length == 0)
+	public void removeListener(Class c, Object listener) {
+		if (types.length == 0)
 			return;
 		if (listener == null || c == null)
 			throw new IllegalArgumentException();
 
+		int typeIndex = indexOf(c);
+		if (typeIndex == -1)
+			return;
+		Object array[] = listeners[typeIndex];
 		int index = 0;
-		while (index < array.length) {
-			if (array[index] == c && array[index + 1] == listener)
-				break;
-			index += 2;
-		}
+		while (index < array.length && array[index] != listener)
+			index++;
 		if (index == array.length)
 			return; // listener was not found
 
-		Object newArray[] = new Object[array.length - 2];
-		System.arraycopy(array, 0, newArray, 0, index);
-		System.arraycopy(array, index + 2, newArray, index, array.length
-				- index - 2);
-		array = newArray;
+		if (array.length > 1) {
+			Object newArray[] = new Object[array.length - 1];
+			System.arraycopy(array, 0, newArray, 0, index);
+			System.arraycopy(array, index + 1, newArray, index, array.length
+					- index - 1);
+			listeners[typeIndex] = newArray;
+			return;
+		}
+
+		// the last listener of its type
+		int count = types.length - 1;
+		Class newTypes[] = new Class[count];
+		Object newListeners[][] = new Object[count][];
+		System.arraycopy(types, 0, newTypes, 0, typeIndex);
+		System.arraycopy(types, typeIndex + 1, newTypes, typeIndex, count
+				- typeIndex);
+		System.arraycopy(listeners, 0, newListeners, 0, typeIndex);
+		System.arraycopy(listeners, typeIndex + 1, newListeners, typeIndex,
+				count - typeIndex);
+		types = newTypes;
+		listeners = newListeners;
 	}
 
 }
@@ -120,6 +120,14 @@ public class Figure implements IFigure {
 
 	private AncestorHelper ancestorHelper;
 
+	/**
+	 * The absolute bounds of this Figure, or <code>null</code> if they were not
+	 * calculated since they last changed. They are only cached if those of the
+	 * parent are, so that invalidating the caches stops at figures whose
+	 * caches are already invalid.
+	 */
+	private Rectangle absoluteBounds;
+
 	/**
 	 * Calls {@link #add(IFigure, Object, int)} with -1 as the index.
 	 * 
@@ -153,6 +161,8 @@ public class Figure implements IFigure {
 		else
 			children.add(index, figure);
 		figure.setParent(this);
+		if (figure instanceof Figure)
+			((Figure) figure).invalidateAbsoluteBounds();
 
 		if (layoutManager != null)
 			layoutManager.setConstraint(figure, constraint);
@@ -469,13 +479,11 @@ public class Figure implements IFigure {
 	 * @since 3.1
 	 */
 	protected void fireCoordinateSystemChanged() {
-		if (!eventListeners.containsListener(CoordinateListener.class))
-			return;
-		Iterator figureListeners = eventListeners
-				.getListeners(CoordinateListener.class);
-		while (figureListeners.hasNext())
-			((CoordinateListener) figureListeners.next())
-					.coordinateSystemChanged(this);
+		invalidateAbsoluteBounds();
+		Object listeners[] = eventListeners
+				.getListenerArray(CoordinateListener.class);
+		for (int i = 0; i < listeners.length; i++)
+			((CoordinateListener) listeners[i]).coordinateSystemChanged(this);
 	}
 
 	/**
@@ -485,12 +493,11 @@ public class Figure implements IFigure {
 	 * @since 3.1
 	 */
 	protected void fireFigureMoved() {
-		if (!eventListeners.containsListener(FigureListener.class))
-			return;
-		Iterator figureListeners = eventListeners
-				.getListeners(FigureListener.class);
-		while (figureListeners.hasNext())
-			((FigureListener) figureListeners.next()).figureMoved(this);
+		invalidateAbsoluteBounds();
+		Object listeners[] = eventListeners
+				.getListenerArray(FigureListener.class);
+		for (int i = 0; i < listeners.length; i++)
+			((FigureListener) listeners[i]).figureMoved(this);
 	}
 
 	/**
@@ -524,7 +531,7 @@ public class Figure implements IFigure {
 	 */
 	protected void firePropertyChange(String property, boolean old,
 			boolean current) {
-		if (propertyListeners == null)
+		if (propertyListeners == null || old == current)
 			return;
 		propertyListeners.firePropertyChange(property, old, current);
 	}
@@ -563,11 +570,37 @@ public class Figure implements IFigure {
 	 * @since 2.0
 	 */
 	protected void firePropertyChange(String property, int old, int current) {
-		if (propertyListeners == null)
+		if (propertyListeners == null || old == current)
 			return;
 		propertyListeners.firePropertyChange(property, old, current);
 	}
 
+	/**
+	 * Returns the bounds of this Figure in absolute coordinates, as calculated
+	 * by {@link #translateToAbsolute(Translatable)}. The result is cached
+	 * until this Figure or one of its ancestors moves or changes its
+	 * coordinate system, so callers must not modify the returned Rectangle.
+	 * <P>
+	 * Figures whose {@link #getBounds() bounds} or
+	 * {@link #translateToParent(Translatable) coordinate system} change
+	 * without {@link #fireFigureMoved()} or
+	 * {@link #fireCoordinateSystemChanged()} being called must call
+	 * {@link #invalidateAbsoluteBounds()} themselves.
+	 * 
+	 * @return the absolute bounds
+	 * @since 3.7
+	 */
+	public Rectangle getAbsoluteBounds() {
+		if (absoluteBounds == null) {
+			Rectangle r = getBounds().getCopy();
+			translateToAbsolute(r);
+			if (!isParentCachingBounds())
+				return r;
+			absoluteBounds = r;
+		}
+		return absoluteBounds;
+	}
+
 	/**
 	 * Returns this Figure's background color. If this Figure's background color
 	 * is <code>null</code> and its parent is not <code>null</code>, the
@@ -840,108 +873,118 @@ public class Figure implements IFigure {
 	 * @see IFigure#handleFocusGained(FocusEvent)
 	 */
 	public void handleFocusGained(FocusEvent event) {
-		Iterator iter = eventListeners.getListeners(FocusListener.class);
-		while (iter.hasNext())
-			((FocusListener) iter.next()).focusGained(event);
+		Object listeners[] = eventListeners
+				.getListenerArray(FocusListener.class);
+		for (int i = 0; i < listeners.length; i++)
+			((FocusListener) listeners[i]).focusGained(event);
 	}
 
 	/**
 	 * @see IFigure#handleFocusLost(FocusEvent)
 	 */
 	public void handleFocusLost(FocusEvent event) {
-		Iterator iter = eventListeners.getListeners(FocusListener.class);
-		while (iter.hasNext())
-			((FocusListener) iter.next()).focusLost(event);
+		Object listeners[] = eventListeners
+				.getListenerArray(FocusListener.class);
+		for (int i = 0; i < listeners.length; i++)
+			((FocusListener) listeners[i]).focusLost(event);
 	}
 
 	/**
 	 * @see IFigure#handleKeyPressed(KeyEvent)
 	 */
 	public void handleKeyPressed(KeyEvent event) {
-		Iterator iter = eventListeners.getListeners(KeyListener.class);
-		while (!event.isConsumed() && iter.hasNext())
-			((KeyListener) iter.next()).keyPressed(event);
+		Object listeners[] = eventListeners.getListenerArray(KeyListener.class);
+		for (int i = 0; i < listeners.length && !event.isConsumed(); i++)
+			((KeyListener) listeners[i]).keyPressed(event);
 	}
 
 	/**
 	 * @see IFigure#handleKeyReleased(KeyEvent)
 	 */
 	public void handleKeyReleased(KeyEvent event) {
-		Iterator iter = eventListeners.getListeners(KeyListener.class);
-		while (!event.isConsumed() && iter.hasNext())
-			((KeyListener) iter.next()).keyReleased(event);
+		Object listeners[] = eventListeners.getListenerArray(KeyListener.class);
+		for (int i = 0; i < listeners.length && !event.isConsumed(); i++)
+			((KeyListener) listeners[i]).keyReleased(event);
 	}
 
 	/**
 	 * @see IFigure#handleMouseDoubleClicked(MouseEvent)
 	 */
 	public void handleMouseDoubleClicked(MouseEvent event) {
-		Iterator iter = eventListeners.getListeners(MouseListener.class);
-		while (!event.isConsumed() && iter.hasNext())
-			((MouseListener) iter.next()).mouseDoubleClicked(event);
+		Object listeners[] = eventListeners
+				.getListenerArray(MouseListener.class);
+		for (int i = 0; i < listeners.length && !event.isConsumed(); i++)
+			((MouseListener) listeners[i]).mouseDoubleClicked(event);
 	}
 
 	/**
 	 * @see IFigure#handleMouseDragged(MouseEvent)
 	 */
 	public void handleMouseDragged(MouseEvent event) {
-		Iterator iter = eventListeners.getListeners(MouseMotionListener.class);
-		while (!event.isConsumed() && iter.hasNext())
-			((MouseMotionListener) iter.next()).mouseDragged(event);
+		Object listeners[] = eventListeners
+				.getListenerArray(MouseMotionListener.class);
+		for (int i = 0; i < listeners.length && !event.isConsumed(); i++)
+			((MouseMotionListener) listeners[i]).mouseDragged(event);
 	}
 
 	/**
 	 * @see IFigure#handleMouseEntered(MouseEvent)
 	 */
 	public void handleMouseEntered(MouseEvent event) {
-		Iterator iter = eventListeners.getListeners(MouseMotionListener.class);
-		while (!event.isConsumed() && iter.hasNext())
-			((MouseMotionListener) iter.next()).mouseEntered(event);
+		Object listeners[] = eventListeners
+				.getListenerArray(MouseMotionListener.class);
+		for (int i = 0; i < listeners.length && !event.isConsumed(); i++)
+			((MouseMotionListener) listeners[i]).mouseEntered(event);
 	}
 
 	/**
 	 * @see IFigure#handleMouseExited(MouseEvent)
 	 */
 	public void handleMouseExited(MouseEvent event) {
-		Iterator iter = eventListeners.getListeners(MouseMotionListener.class);
-		while (!event.isConsumed() && iter.hasNext())
-			((MouseMotionListener) iter.next()).mouseExited(event);
+		Object listeners[] = eventListeners
+				.getListenerArray(MouseMotionListener.class);
+		for (int i = 0; i < listeners.length && !event.isConsumed(); i++)
+			((MouseMotionListener) listeners[i]).mouseExited(event);
 	}
 
 	/**
 	 * @see IFigure#handleMouseHover(MouseEvent)
 	 */
 	public void handleMouseHover(MouseEvent event) {
-		Iterator iter = eventListeners.getListeners(MouseMotionListener.class);
-		while (!event.isConsumed() && iter.hasNext())
-			((MouseMotionListener) iter.next()).mouseHover(event);
+		Object listeners[] = eventListeners
+				.getListenerArray(MouseMotionListener.class);
+		for (int i = 0; i < listeners.length && !event.isConsumed(); i++)
+			((MouseMotionListener) listeners[i]).mouseHover(event);
 	}
 
 	/**
 	 * @see IFigure#handleMouseMoved(MouseEvent)
 	 */
 	public void handleMouseMoved(MouseEvent event) {
-		Iterator iter = eventListeners.getListeners(MouseMotionListener.class);
-		while (!event.isConsumed() && iter.hasNext())
-			((MouseMotionListener) iter.next()).mouseMoved(event);
+		Object listeners[] = eventListeners
+				.getListenerArray(MouseMotionListener.class);
+		for (int i = 0; i < listeners.length && !event.isConsumed(); i++)
+			((MouseMotionListener) listeners[i]).mouseMoved(event);
 	}
 
 	/**
 	 * @see IFigure#handleMousePressed(MouseEvent)
 	 */
 	public void handleMousePressed(MouseEvent event) {
-		Iterator iter = eventListeners.getListeners(MouseListener.class);
-		while (!event.isConsumed() && iter.hasNext())
-			((MouseListener) iter.next()).mousePressed(event);
+		Object listeners[] = eventListeners
+				.getListenerArray(MouseListener.class);
+		for (int i = 0; i < listeners.length && !event.isConsumed(); i++)
+			((MouseListener) listeners[i]).mousePressed(event);
 	}
 
 	/**
 	 * @see IFigure#handleMouseReleased(MouseEvent)
 	 */
 	public void handleMouseReleased(MouseEvent event) {
-		Iterator iter = eventListeners.getListeners(MouseListener.class);
-		while (!event.isConsumed() && iter.hasNext())
-			((MouseListener) iter.next()).mouseReleased(event);
+		Object listeners[] = eventListeners
+				.getListenerArray(MouseListener.class);
+		for (int i = 0; i < listeners.length && !event.isConsumed(); i++)
+			((MouseListener) listeners[i]).mouseReleased(event);
 	}
 
 	/**
@@ -970,6 +1013,39 @@ public class Figure implements IFigure {
 		return getBounds().intersects(rect);
 	}
 
+	/**
+	 * Discards the cached absolute bounds of this Figure and its descendants.
+	 * Called when this Figure moves or changes its coordinate system, or is
+	 * added to or removed from a parent.
+	 * 
+	 * @see #getAbsoluteBounds()
+	 * @since 3.7
+	 */
+	protected void invalidateAbsoluteBounds() {
+		if (absoluteBounds == null)
+			// the descendants are not cached either
+			return;
+		absoluteBounds = null;
+		for (int i = 0; i < children.size(); i++)
+			if (children.get(i) instanceof Figure)
+				((Figure) children.get(i)).invalidateAbsoluteBounds();
+	}
+
+	/**
+	 * Returns <code>true</code> if the absolute bounds of the parent, if any,
+	 * are cached, so that those of this Figure may be cached too.
+	 */
+	private boolean isParentCachingBounds() {
+		IFigure parent = getParent();
+		if (parent == null)
+			return true;
+		if (!(parent instanceof Figure))
+			return false;
+		Figure figure = (Figure) parent;
+		figure.getAbsoluteBounds();
+		return figure.absoluteBounds != null;
+	}
+
 	/**
 	 * @see IFigure#invalidate()
 	 */
@@ -1089,7 +1165,14 @@ public class Figure implements IFigure {
 	 * @since 2.0
 	 */
 	protected void layout() {
-		if (layoutManager != null)
+		if (layoutManager == null)
+			return;
+		if (Profiler.isEnabled()) {
+			double start = Profiler.now();
+			layoutManager.layout(this);
+			Profiler.time(Profiler.LAYOUT_TIME, start);
+			Profiler.count(Profiler.LAID_OUT);
+		} else
 			layoutManager.layout(this);
 	}
 
@@ -1110,6 +1193,8 @@ public class Figure implements IFigure {
 		if (font != null)
 			graphics.setFont(font);
 
+		boolean profile = Profiler.isEnabled();
+		double start = profile ? Profiler.beginPaint() : 0;
 		graphics.pushState();
 		try {
 			paintFigure(graphics);
@@ -1118,11 +1203,15 @@ public class Figure implements IFigure {
 			paintBorder(graphics);
 		} finally {
 			graphics.popState();
+			if (profile)
+				Profiler.endPaint(this, start);
 		}
 	}
 
 	/**
-	 * Paints the border associated with this Figure, if one exists.
+	 * Paints the border associated with this Figure, if one exists. Below the
+	 * {@link LevelOfDetail#BORDERS} threshold, only {@link LineBorder}s are
+	 * painted.
 	 * 
 	 * @param graphics
 	 *            The Graphics used to paint
@@ -1130,8 +1219,12 @@ public class Figure implements IFigure {
 	 * @since 2.0
 	 */
 	protected void paintBorder(Graphics graphics) {
-		if (getBorder() != null)
-			getBorder().paint(this, graphics, NO_INSETS);
+		Border border = getBorder();
+		if (border == null)
+			return;
+		if (border instanceof LineBorder
+				|| LevelOfDetail.isShown(graphics, LevelOfDetail.BORDERS))
+			border.paint(this, graphics, NO_INSETS);
 	}
 
 	/**
@@ -1150,7 +1243,7 @@ public class Figure implements IFigure {
 	protected void paintChildren(Graphics graphics) {
 		for (int i = 0; i < children.size(); i++) {
 			IFigure child = (IFigure) children.get(i);
-			if (child.isVisible()) {
+			if (child.isVisible() && isChildPainted(child, graphics)) {
 				// determine clipping areas for child
 				Rectangle[] clipping = null;
 				if (clippingStrategy != null) {
@@ -1166,12 +1259,30 @@ public class Figure implements IFigure {
 						graphics.clipRect(clipping[j]);
 						child.paint(graphics);
 						graphics.restoreState();
-					}
+					} else
+						Profiler.count(Profiler.CULLED);
 				}
 			}
 		}
 	}
 
+	/**
+	 * Returns <code>true</code> if the given visible child is painted by
+	 * {@link #paintChildren(Graphics)}. Subclasses may omit children, for
+	 * example depending on the {@link LevelOfDetail}. The default
+	 * implementation returns <code>true</code>.
+	 * 
+	 * @param child
+	 *            the child
+	 * @param graphics
+	 *            the graphics the children are painted on
+	 * @return whether the child is painted
+	 * @since 3.7
+	 */
+	protected boolean isChildPainted(IFigure child, Graphics graphics) {
+		return true;
+	}
+
 	/**
 	 * Paints this Figure's client area. The client area is typically defined as
 	 * the anything inside the Figure's {@link Border} or {@link Insets}, and by
@@ -1270,6 +1381,8 @@ public class Figure implements IFigure {
 		// done asynchronously, else will result in
 		// incorrect dirty region corrections.
 		figure.erase();
+		if (figure instanceof Figure)
+			((Figure) figure).invalidateAbsoluteBounds();
 		figure.setParent(null);
 		children.remove(figure);
 		revalidate();
@@ -1480,6 +1593,8 @@ public class Figure implements IFigure {
 	 */
 	public void setBorder(Border border) {
 		this.border = border;
+		// the insets translate the children
+		invalidateAbsoluteBounds();
 		revalidate();
 		repaint();
 	}
@@ -1893,6 +2008,7 @@ public class Figure implements IFigure {
 		if (isValid())
 			return;
 		setValid(true);
+		Profiler.count(Profiler.VALIDATED);
 		layout();
 		for (int i = 0; i < children.size(); i++)
 			((IFigure) children.get(i)).validate();
@@ -19,6 +19,8 @@ import org.eclipse.draw2d.geometry.Point;
 import org.eclipse.draw2d.geometry.Rectangle;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.ScrolledComposite;
+import org.eclipse.swt.events.GestureEvent;
+import org.eclipse.swt.events.GestureListener;
 import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.graphics.Font;
@@ -446,6 +448,16 @@ public class FigureCanvas extends Canvas {
 			}
 		});
 
+		addGestureListener(new GestureListener() {
+			public void gesture(GestureEvent event) {
+				if (event.detail == SWT.GESTURE_PAN) {
+					Point location = getViewport().getViewLocation();
+					scrollTo(location.x - event.xDirection, location.y
+							- event.yDirection);
+				}
+			}
+		});
+
 		if (getSimplePanel() != null) {
 			final ScrollPanel sp = (ScrollPanel) getSimplePanel().getParent();
 
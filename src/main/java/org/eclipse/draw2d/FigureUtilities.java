@@ -91,6 +91,7 @@ public class FigureUtilities {
 	protected static org.eclipse.swt.graphics.Point getTextDimension(String s,
 			Font f) {
 		setFont(f);
+		Profiler.count(Profiler.TEXT_MEASUREMENTS);
 		return getGC().textExtent(s);
 	}
 
@@ -122,6 +123,7 @@ public class FigureUtilities {
 	protected static org.eclipse.swt.graphics.Point getStringDimension(
 			String s, Font f) {
 		setFont(f);
+		Profiler.count(Profiler.TEXT_MEASUREMENTS);
 		return getGC().stringExtent(s);
 	}
 
@@ -11,7 +11,11 @@
  *******************************************************************************/
 package org.eclipse.draw2d;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 import org.eclipse.draw2d.geometry.Insets;
 import org.eclipse.draw2d.geometry.Rectangle;
@@ -20,7 +24,44 @@ class FreeformHelper implements FreeformListener {
 
 	class ChildTracker implements FigureListener {
 		public void figureMoved(IFigure source) {
-			invalidate();
+			updateChild(source);
+		}
+	}
+
+	/**
+	 * The coordinates of one edge of the children, counted so that the
+	 * outermost one can be found, and replaced when it is removed, in
+	 * logarithmic time.
+	 */
+	private static class Edge {
+		private final TreeMap counts = new TreeMap();
+
+		void add(int value) {
+			Integer key = new Integer(value);
+			int count[] = (int[]) counts.get(key);
+			if (count == null)
+				counts.put(key, new int[] { 1 });
+			else
+				count[0]++;
+		}
+
+		int first() {
+			return ((Integer) counts.firstKey()).intValue();
+		}
+
+		boolean isEmpty() {
+			return counts.isEmpty();
+		}
+
+		int last() {
+			return ((Integer) counts.lastKey()).intValue();
+		}
+
+		void remove(int value) {
+			Integer key = new Integer(value);
+			int count[] = (int[]) counts.get(key);
+			if (--count[0] == 0)
+				counts.remove(key);
 		}
 	}
 
@@ -28,54 +69,102 @@ class FreeformHelper implements FreeformListener {
 	private Rectangle freeformExtent;
 	private FigureListener figureListener = new ChildTracker();
 
+	/**
+	 * The bounds of the children which are not freeform figures, as last
+	 * added to the edges. Empty bounds are not added to the edges.
+	 */
+	private Map childBounds = new HashMap();
+	private List freeformChildren = new ArrayList();
+	private Edge left = new Edge();
+	private Edge top = new Edge();
+	private Edge right = new Edge();
+	private Edge bottom = new Edge();
+
+	/**
+	 * Whether listeners were notified of a change of the extent which was not
+	 * calculated since. Further changes are not notified until the extent is
+	 * calculated or the update manager completes an update.
+	 */
+	private boolean extentChangePending;
+	private Runnable clearPending = new Runnable() {
+		public void run() {
+			extentChangePending = false;
+		}
+	};
+
 	FreeformHelper(FreeformFigure host) {
 		this.host = host;
 	}
 
-	public Rectangle getFreeformExtent() {
-		if (freeformExtent != null)
-			return freeformExtent;
-		Rectangle r;
-		List children = host.getChildren();
-		for (int i = 0; i < children.size(); i++) {
-			IFigure child = (IFigure) children.get(i);
-			if (child instanceof FreeformFigure)
-				r = ((FreeformFigure) child).getFreeformExtent();
-			else
-				r = child.getBounds();
-			if (freeformExtent == null)
-				freeformExtent = r.getCopy();
+	private void addEdges(Rectangle r) {
+		if (r.isEmpty())
+			return;
+		left.add(r.x);
+		top.add(r.y);
+		right.add(r.right());
+		bottom.add(r.bottom());
+	}
+
+	private Rectangle calculateFreeformExtent() {
+		Rectangle extent = null;
+		if (!left.isEmpty())
+			extent = new Rectangle(left.first(), top.first(), right.last()
+					- left.first(), bottom.last() - top.first());
+		for (int i = 0; i < freeformChildren.size(); i++) {
+			Rectangle r = ((FreeformFigure) freeformChildren.get(i))
+					.getFreeformExtent();
+			if (extent == null)
+				extent = r.getCopy();
 			else
-				freeformExtent.union(r);
+				extent.union(r);
 		}
+		if (extent == null && !host.getChildren().isEmpty())
+			// only children with empty bounds
+			extent = ((IFigure) host.getChildren().get(0)).getBounds()
+					.getCopy();
+
 		Insets insets = host.getInsets();
-		if (freeformExtent == null)
-			freeformExtent = new Rectangle(0, 0, insets.getWidth(),
-					insets.getHeight());
+		if (extent == null)
+			extent = new Rectangle(0, 0, insets.getWidth(), insets.getHeight());
 		else {
-			host.translateToParent(freeformExtent);
-			freeformExtent.expand(insets);
+			host.translateToParent(extent);
+			extent.expand(insets);
+		}
+		return extent;
+	}
+
+	public Rectangle getFreeformExtent() {
+		if (freeformExtent == null) {
+			freeformExtent = calculateFreeformExtent();
+			extentChangePending = false;
 		}
-		// System.out.println("New extent calculated for " + host + " = " +
-		// freeformExtent);
 		return freeformExtent;
 	}
 
 	public void hookChild(IFigure child) {
-		invalidate();
-		if (child instanceof FreeformFigure)
+		if (child instanceof FreeformFigure) {
+			freeformChildren.add(child);
 			((FreeformFigure) child).addFreeformListener(this);
-		else
+		} else {
+			Rectangle bounds = child.getBounds().getCopy();
+			childBounds.put(child, bounds);
+			addEdges(bounds);
 			child.addFigureListener(figureListener);
+		}
+		invalidate();
 	}
 
 	void invalidate() {
 		freeformExtent = null;
+		if (extentChangePending)
+			return;
+		extentChangePending = true;
 		host.fireExtentChanged();
 		if (host.getParent() != null)
 			host.getParent().revalidate();
 		else
 			host.revalidate();
+		host.getUpdateManager().runWithUpdate(clearPending);
 	}
 
 	public void notifyFreeformExtentChanged() {
@@ -84,6 +173,15 @@ class FreeformHelper implements FreeformListener {
 		invalidate();
 	}
 
+	private void removeEdges(Rectangle r) {
+		if (r.isEmpty())
+			return;
+		left.remove(r.x);
+		top.remove(r.y);
+		right.remove(r.right());
+		bottom.remove(r.bottom());
+	}
+
 	public void setFreeformBounds(Rectangle bounds) {
 		host.setBounds(bounds);
 		bounds = bounds.getCopy();
@@ -97,11 +195,32 @@ class FreeformHelper implements FreeformListener {
 	}
 
 	public void unhookChild(IFigure child) {
-		invalidate();
-		if (child instanceof FreeformFigure)
+		if (child instanceof FreeformFigure) {
+			freeformChildren.remove(child);
 			((FreeformFigure) child).removeFreeformListener(this);
-		else
+		} else {
+			Rectangle bounds = (Rectangle) childBounds.remove(child);
+			if (bounds != null)
+				removeEdges(bounds);
 			child.removeFigureListener(figureListener);
+		}
+		invalidate();
+	}
+
+	/**
+	 * Moves the given child's bounds in the edges. Listeners are only notified
+	 * if this changes the calculated extent.
+	 */
+	private void updateChild(IFigure child) {
+		Rectangle bounds = (Rectangle) childBounds.get(child);
+		if (bounds == null || bounds.equals(child.getBounds()))
+			return;
+		removeEdges(bounds);
+		bounds.setBounds(child.getBounds());
+		addEdges(bounds);
+		if (freeformExtent == null
+				|| !freeformExtent.equals(calculateFreeformExtent()))
+			invalidate();
 	}
 
 }
@@ -785,6 +785,19 @@ public abstract class Graphics {
 		return 0;
 	}
 
+	/**
+	 * Returns the thresholds below which figures painting on this Graphics
+	 * paint cheaper representations of their features, or <code>null</code>
+	 * for the default thresholds. The default value is <code>null</code>.
+	 * 
+	 * @see LevelOfDetail#isShown(Graphics, int)
+	 * @return the level of detail or <code>null</code>
+	 * @since 3.7
+	 */
+	public LevelOfDetail getLevelOfDetail() {
+		return null;
+	}
+
 	/**
 	 * Returns the current collection of line attributes.
 	 * 
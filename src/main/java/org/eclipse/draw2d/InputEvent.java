@@ -80,6 +80,21 @@ public abstract class InputEvent extends java.util.EventObject {
 		this.state = state;
 	}
 
+	/**
+	 * Initializes this event again for another source and state, so that it
+	 * can be dispatched again instead of allocating a new one.
+	 * 
+	 * @param source
+	 *            the source of the event
+	 * @param state
+	 *            the state of the keyboard modifier and mouse button mask
+	 */
+	void reset(IFigure source, int state) {
+		this.source = source;
+		this.state = state;
+		consumed = false;
+	}
+
 	/**
 	 * Marks this event as consumed so that it doesn't get passed on to other
 	 * listeners.
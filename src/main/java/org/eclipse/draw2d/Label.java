@@ -495,6 +495,25 @@ public class Label extends Figure implements PositionConstants {
 		return !getSubStringText().equals(getText());
 	}
 
+	/**
+	 * Paints the text as a filled box, a third as high as the text, when it is
+	 * too small to be read.
+	 * 
+	 * @param graphics
+	 *            the graphics, translated to the label's location
+	 * @see LevelOfDetail#TEXT
+	 * @since 3.7
+	 */
+	protected void paintGreekedText(Graphics graphics) {
+		Point location = getTextLocation();
+		Dimension size = getSubStringTextSize();
+		int height = Math.max(1, size.height / 3);
+		graphics.setBackgroundColor(isEnabled() ? graphics
+				.getForegroundColor() : ColorConstants.buttonDarker);
+		graphics.fillRectangle(location.x, location.y
+				+ (size.height - height) / 2, size.width, height);
+	}
+
 	/**
 	 * @see Figure#paintFigure(Graphics)
 	 */
@@ -505,6 +524,12 @@ public class Label extends Figure implements PositionConstants {
 		graphics.translate(bounds.x, bounds.y);
 		if (icon != null)
 			graphics.drawImage(icon, getIconLocation());
+		if (!LevelOfDetail.isShown(graphics, LevelOfDetail.TEXT)) {
+			if (getSubStringText().length() > 0)
+				paintGreekedText(graphics);
+			graphics.translate(-bounds.x, -bounds.y);
+			return;
+		}
 		if (!isEnabled()) {
 			graphics.translate(1, 1);
 			graphics.setForegroundColor(ColorConstants.buttonLightest);
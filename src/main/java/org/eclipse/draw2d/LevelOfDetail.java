@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2012 Gerhardt Informatics Kft. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Gerhardt Informatics Kft. - GEFGWT port
+ *******************************************************************************/
+package org.eclipse.draw2d;
+
+/**
+ * The scales below which figures paint cheaper representations of some of
+ * their features. At low zoom levels text is unreadable and decorations and
+ * borders are a few pixels large, so painting them in full only costs time.
+ * <P>
+ * Figures query {@link #isShown(Graphics, int)} while painting, which compares
+ * the {@link Graphics#getAbsoluteScale() absolute scale} of the graphics, the
+ * product of all zoom levels applied to it, to the threshold of the feature.
+ * The thresholds are those of the {@link Graphics#getLevelOfDetail() level of
+ * detail} of the graphics, which scalable layered panes set on the
+ * {@link ScaledGraphics} they paint their children with. The level of detail is
+ * opt-in: graphics without one, such as those used for printing or exporting,
+ * paint every feature in full. A viewer's thresholds are set through its
+ * <code>ZoomManager.setLevelOfDetail(LevelOfDetail)</code>.
+ * <P>
+ * The features used by draw2d are:
+ * <UL>
+ * <LI>{@link #TEXT}: {@link Label}s paint a filled box in place of their text.
+ * <LI>{@link #DECORATIONS}: {@link PolylineConnection}s omit their source and
+ * target decorations.
+ * <LI>{@link #BORDERS}: figures omit their borders, except for
+ * {@link LineBorder}s, which are as cheap as any simplified outline.
+ * </UL>
+ * Clients may define their own features, numbered from {@link #USER_FEATURE}.
+ *
+ * @since 3.7
+ */
+public class LevelOfDetail {
+
+	/**
+	 * The feature of painting text.
+	 */
+	public static final int TEXT = 0;
+
+	/**
+	 * The feature of painting connection decorations.
+	 */
+	public static final int DECORATIONS = 1;
+
+	/**
+	 * The feature of painting borders.
+	 */
+	public static final int BORDERS = 2;
+
+	/**
+	 * The first feature number available to clients.
+	 */
+	public static final int USER_FEATURE = 8;
+
+	private static final double DEFAULT_THRESHOLD = 0.0;
+
+	private static final LevelOfDetail FULL = new LevelOfDetail(new double[0]);
+
+	private double thresholds[];
+
+	/**
+	 * Creates a level of detail with the recommended thresholds: text is
+	 * replaced below a scale of 0.4, decorations are omitted below 0.25 and
+	 * borders below 0.2.
+	 */
+	public LevelOfDetail() {
+		this(new double[] { 0.4, 0.25, 0.2 });
+	}
+
+	private LevelOfDetail(double thresholds[]) {
+		this.thresholds = thresholds;
+	}
+
+	/**
+	 * Returns the level of detail used by the given graphics. If the graphics
+	 * has none, the result paints every feature in full and must not be
+	 * modified.
+	 *
+	 * @param graphics
+	 *            the graphics
+	 * @return the level of detail
+	 */
+	public static LevelOfDetail getLevelOfDetail(Graphics graphics) {
+		LevelOfDetail levelOfDetail = graphics.getLevelOfDetail();
+		return levelOfDetail == null ? FULL : levelOfDetail;
+	}
+
+	/**
+	 * Returns <code>true</code> if the given feature should be painted in full
+	 * on the given graphics.
+	 *
+	 * @param graphics
+	 *            the graphics being painted on
+	 * @param feature
+	 *            the feature
+	 * @return <code>true</code> if the feature is painted in full
+	 */
+	public static boolean isShown(Graphics graphics, int feature) {
+		return getLevelOfDetail(graphics).isShown(feature,
+				graphics.getAbsoluteScale());
+	}
+
+	/**
+	 * Returns the scale below which the given feature is not painted in full.
+	 * Features without a threshold are always painted in full.
+	 *
+	 * @param feature
+	 *            the feature
+	 * @return the threshold scale
+	 */
+	public double getThreshold(int feature) {
+		if (feature < thresholds.length)
+			return thresholds[feature];
+		return DEFAULT_THRESHOLD;
+	}
+
+	/**
+	 * Returns <code>true</code> if the given feature should be painted in full
+	 * at the given scale.
+	 *
+	 * @param feature
+	 *            the feature
+	 * @param scale
+	 *            the absolute scale
+	 * @return <code>true</code> if the scale is not below the threshold
+	 */
+	public boolean isShown(int feature, double scale) {
+		return scale >= getThreshold(feature);
+	}
+
+	/**
+	 * Sets the scale below which the given feature is not painted in full. A
+	 * threshold of 0 always paints the feature in full.
+	 *
+	 * @param feature
+	 *            the feature
+	 * @param threshold
+	 *            the threshold scale
+	 */
+	public void setThreshold(int feature, double threshold) {
+		if (feature >= thresholds.length) {
+			double grown[] = new double[feature + 1];
+			System.arraycopy(thresholds, 0, grown, 0, thresholds.length);
+			for (int i = thresholds.length; i < feature; i++)
+				grown[i] = DEFAULT_THRESHOLD;
+			thresholds = grown;
+		}
+		thresholds[feature] = threshold;
+	}
+
+}
@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2012 Gerhardt Informatics Kft. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Gerhardt Informatics Kft. - GEFGWT port
+ *******************************************************************************/
+package org.eclipse.draw2d;
+
+/**
+ * Computes line-break opportunities in text. This replaces the
+ * <code>java.text.BreakIterator</code> line instance, which is not available
+ * in the browser, with a simplified version of the Unicode line breaking
+ * algorithm (UAX #14): lines may break after whitespace, after hyphens within
+ * words, after zero width spaces and around ideographic characters, but never
+ * before closing or after opening punctuation.
+ * <P>
+ * Characters outside of the text are treated as letters, so that a break
+ * opportunity is reported at the end of a text ending with whitespace or a
+ * hyphen.
+ *
+ * @since 3.7
+ */
+public final class LineBreaks {
+
+	private LineBreaks() {
+	}
+
+	/**
+	 * Returns <code>true</code> if a line may break after the given character,
+	 * regardless of the character following it.
+	 *
+	 * @param c
+	 *            the character
+	 * @return <code>true</code> if a line may break after the character
+	 */
+	public static boolean canBreakAfter(char c) {
+		return isWhitespace(c) || isHyphen(c) || c == '\u200B'
+				|| isIdeographic(c);
+	}
+
+	/**
+	 * Returns the first line-break opportunity after the given offset, or
+	 * <code>-1</code> if there is none. The end of the text is only reported
+	 * if it is a break opportunity.
+	 *
+	 * @param text
+	 *            the text
+	 * @param offset
+	 *            the offset to search from
+	 * @return the next break opportunity or <code>-1</code>
+	 */
+	public static int following(String text, int offset) {
+		for (int i = offset + 1; i <= text.length(); i++)
+			if (isLineBreak(text, i))
+				return i;
+		return -1;
+	}
+
+	/**
+	 * Returns the last line-break opportunity at or before the given offset,
+	 * and after the start of the text, or <code>0</code> if there is none.
+	 *
+	 * @param text
+	 *            the text
+	 * @param offset
+	 *            the offset to search from
+	 * @return the previous break opportunity or <code>0</code>
+	 */
+	public static int preceding(String text, int offset) {
+		for (int i = offset; i > 0; i--)
+			if (isLineBreak(text, i))
+				return i;
+		return 0;
+	}
+
+	private static boolean isClosing(char c) {
+		switch (c) {
+		case ')':
+		case ']':
+		case '}':
+		case ',':
+		case '.':
+		case ':':
+		case ';':
+		case '!':
+		case '?':
+		case '%':
+		case '\u3001':
+		case '\u3002':
+		case '\u300D':
+		case '\u300F':
+		case '\uFF09':
+		case '\uFF0C':
+		case '\uFF0E':
+			return true;
+		}
+		return false;
+	}
+
+	private static boolean isHyphen(char c) {
+		return c == '-' || c == '\u2010' || c == '\u2013';
+	}
+
+	/**
+	 * Returns <code>true</code> for characters of scripts written without
+	 * spaces between words, where lines may break between any two characters.
+	 */
+	private static boolean isIdeographic(char c) {
+		return (c >= '\u2E80' && c <= '\u9FFF')
+				|| (c >= '\uAC00' && c <= '\uD7AF')
+				|| (c >= '\uF900' && c <= '\uFAFF')
+				|| (c >= '\uFF00' && c <= '\uFFEF');
+	}
+
+	/**
+	 * Returns <code>true</code> if a line may break before the character at
+	 * the given offset. Offset <code>0</code> is never a break opportunity.
+	 *
+	 * @param text
+	 *            the text
+	 * @param offset
+	 *            an offset between <code>0</code> and the length of the text,
+	 *            inclusive
+	 * @return <code>true</code> if a line may break at the offset
+	 */
+	public static boolean isLineBreak(String text, int offset) {
+		if (offset <= 0)
+			return false;
+		char before = text.charAt(offset - 1);
+		char after = offset < text.length() ? text.charAt(offset) : 'a';
+		if (isNewline(before))
+			return true;
+		if (isNewline(after) || isWhitespace(after))
+			return false;
+		if (isWhitespace(before) || before == '\u200B')
+			return true;
+		if (isClosing(after) || isOpening(before))
+			return false;
+		if (isHyphen(before))
+			// not for a leading minus sign
+			return offset >= 2
+					&& Character.isLetterOrDigit(text.charAt(offset - 2))
+					&& Character.isLetterOrDigit(after);
+		return isIdeographic(before) || isIdeographic(after);
+	}
+
+	private static boolean isNewline(char c) {
+		return c == '\n' || c == '\r';
+	}
+
+	private static boolean isOpening(char c) {
+		switch (c) {
+		case '(':
+		case '[':
+		case '{':
+		case '\u300C':
+		case '\u300E':
+		case '\uFF08':
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns <code>true</code> if the character is whitespace other than a
+	 * line delimiter.
+	 *
+	 * @param c
+	 *            the character
+	 * @return <code>true</code> for spaces and tabs
+	 */
+	public static boolean isWhitespace(char c) {
+		switch (c) {
+		case ' ':
+		case '\t':
+		case '\f':
+		case '\u000B':
+		case '\u1680':
+		case '\u3000':
+			return true;
+		}
+		return c >= '\u2000' && c <= '\u200A';
+	}
+
+}
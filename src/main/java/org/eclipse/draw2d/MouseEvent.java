@@ -49,6 +49,25 @@ public class MouseEvent extends InputEvent {
 		this.y = pt.y;
 	}
 
+	/**
+	 * Initializes this event again from another SWT mouse event.
+	 * 
+	 * @param source
+	 *            the source of the event
+	 * @param me
+	 *            an SWT mouse event used to supply the state mask, button and
+	 *            position
+	 */
+	void reset(IFigure source, org.eclipse.swt.events.MouseEvent me) {
+		reset(source, me.stateMask);
+		this.button = me.button;
+		Point pt = Point.SINGLETON;
+		pt.setLocation(me.x, me.y);
+		source.translateToRelative(pt);
+		this.x = pt.x;
+		this.y = pt.y;
+	}
+
 	/**
 	 * Constructor for MouseEvent.
 	 * 
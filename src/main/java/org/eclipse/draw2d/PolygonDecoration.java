@@ -93,6 +93,7 @@ public class PolygonDecoration extends Polygon implements RotatableDecoration {
 		bounds = null;
 		location.setLocation(p);
 		transform.setTranslation(p.x, p.y);
+		invalidateAbsoluteBounds();
 	}
 
 	/**
@@ -127,6 +128,7 @@ public class PolygonDecoration extends Polygon implements RotatableDecoration {
 		points = null;
 		bounds = null;
 		transform.setScale(x, y);
+		invalidateAbsoluteBounds();
 	}
 
 	/**
@@ -154,6 +156,7 @@ public class PolygonDecoration extends Polygon implements RotatableDecoration {
 		points = null;
 		bounds = null;
 		transform.setRotation(angle);
+		invalidateAbsoluteBounds();
 	}
 
 }
@@ -144,6 +144,8 @@ public class Polyline extends AbstractPointListShape {
 
 	public void repaint() {
 		bounds = null;
+		// the bounds are recalculated from the points
+		invalidateAbsoluteBounds();
 		super.repaint();
 	}
 }
\ No newline at end of file
@@ -202,6 +202,18 @@ public class PolylineConnection extends Polyline implements Connection,
 		super.removeNotify();
 	}
 
+	/**
+	 * Omits the source and target decorations below the
+	 * {@link LevelOfDetail#DECORATIONS} threshold.
+	 * 
+	 * @see Figure#isChildPainted(IFigure, Graphics)
+	 */
+	protected boolean isChildPainted(IFigure child, Graphics graphics) {
+		if (child != startArrow && child != endArrow)
+			return true;
+		return LevelOfDetail.isShown(graphics, LevelOfDetail.DECORATIONS);
+	}
+
 	/**
 	 * Removes the first occurence of the given listener.
 	 * 
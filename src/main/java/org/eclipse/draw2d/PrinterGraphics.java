@@ -32,6 +32,9 @@ public class PrinterGraphics extends ScaledGraphics {
 
 	Map imageCache = new HashMap();
 
+	// Printer fonts are disposed with this graphics, so none are evicted
+	FontCache fontCache = new FontCache(Integer.MAX_VALUE);
+
 	Printer printer;
 
 	/**
@@ -51,6 +54,10 @@ public class PrinterGraphics extends ScaledGraphics {
 		return new Font(printer, data);
 	}
 
+	FontCache getFontCache() {
+		return fontCache;
+	}
+
 	private Image printerImage(Image image) {
 		Image result = (Image) imageCache.get(image);
 		if (result != null)
@@ -75,6 +82,9 @@ public class PrinterGraphics extends ScaledGraphics {
 		}
 
 		imageCache.clear();
+
+		// Dispose printer fonts
+		fontCache.disposeAll();
 	}
 
 	/**
@@ -0,0 +1,359 @@
+/*******************************************************************************
+ * Copyright (c) 2012 Gerhardt Informatics Kft. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Gerhardt Informatics Kft. - GEFGWT port
+ *******************************************************************************/
+package org.eclipse.draw2d;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gwt.core.client.Duration;
+
+/**
+ * Records where the time of each update goes: timings of validation, layout
+ * and painting, the painting time of each figure class, and counters of the
+ * work done. An update performed by the {@link DeferredUpdateManager} is a
+ * frame; work done outside of an update is recorded in the next frame.
+ * <P>
+ * The profiler is disabled by default. While disabled, the instrumented code
+ * only tests {@link #isEnabled()}. The recorded frames are passed to the
+ * {@link FrameListener}s and kept in a short history. {@link ProfilerOverlay}
+ * displays them on the canvas.
+ *
+ * @since 3.7
+ */
+public final class Profiler {
+
+	/**
+	 * A recorded frame.
+	 */
+	public static final class Frame {
+		private final double times[] = new double[TIMER_COUNT];
+		private final int counts[] = new int[COUNTER_COUNT];
+		private final Map paintTimes = new HashMap();
+		private double start;
+
+		private Frame() {
+		}
+
+		/**
+		 * Returns the value of a counter.
+		 *
+		 * @param counter
+		 *            the counter, for example {@link Profiler#PAINTED}
+		 * @return the value of the counter
+		 */
+		public int getCount(int counter) {
+			return counts[counter];
+		}
+
+		/**
+		 * Returns the time spent painting figures of each class, excluding
+		 * the time spent painting their children, in milliseconds. The keys
+		 * are the figure classes and the values are {@link Double}s.
+		 *
+		 * @return the painting times by class
+		 */
+		public Map getPaintTimes() {
+			Map result = new HashMap();
+			Iterator iter = paintTimes.entrySet().iterator();
+			while (iter.hasNext()) {
+				Map.Entry entry = (Map.Entry) iter.next();
+				result.put(entry.getKey(), new Double(
+						((double[]) entry.getValue())[0]));
+			}
+			return result;
+		}
+
+		/**
+		 * Returns the value of a timer, in milliseconds.
+		 *
+		 * @param timer
+		 *            the timer, for example {@link Profiler#PAINT_TIME}
+		 * @return the time
+		 */
+		public double getTime(int timer) {
+			return times[timer];
+		}
+	}
+
+	/**
+	 * Receives the frames recorded by the profiler.
+	 */
+	public interface FrameListener {
+		/**
+		 * Called at the end of each frame.
+		 *
+		 * @param frame
+		 *            the frame
+		 */
+		void frameCompleted(Frame frame);
+	}
+
+	/**
+	 * The timer of the whole frame.
+	 */
+	public static final int FRAME_TIME = 0;
+
+	/**
+	 * The timer of {@link UpdateManager#performValidation()}.
+	 */
+	public static final int VALIDATION_TIME = 1;
+
+	/**
+	 * The timer of the {@link LayoutManager#layout(IFigure)} calls.
+	 */
+	public static final int LAYOUT_TIME = 2;
+
+	/**
+	 * The timer of repairing the damage.
+	 */
+	public static final int PAINT_TIME = 3;
+
+	private static final int TIMER_COUNT = 4;
+
+	/**
+	 * The number of figures validated.
+	 */
+	public static final int VALIDATED = 0;
+
+	/**
+	 * The number of figures laid out by a layout manager.
+	 */
+	public static final int LAID_OUT = 1;
+
+	/**
+	 * The number of figures painted.
+	 */
+	public static final int PAINTED = 2;
+
+	/**
+	 * The number of children not painted because they are outside of the
+	 * clip.
+	 */
+	public static final int CULLED = 3;
+
+	/**
+	 * The number of operations sent to the GC by {@link SWTGraphics}, each of
+	 * which results in one or more canvas calls.
+	 */
+	public static final int GC_OPERATIONS = 4;
+
+	/**
+	 * The number of strings measured through {@link FigureUtilities}.
+	 */
+	public static final int TEXT_MEASUREMENTS = 5;
+
+	/**
+	 * The area of the repaired damage, in square pixels.
+	 */
+	public static final int DAMAGE_AREA = 6;
+
+	private static final int COUNTER_COUNT = 7;
+
+	/**
+	 * The number of frames kept in the history.
+	 */
+	public static final int HISTORY_SIZE = 60;
+
+	private static boolean enabled;
+	private static Frame current;
+	private static List history = new ArrayList();
+	private static List listeners = new ArrayList();
+
+	/**
+	 * The time spent painting the children of the figures being painted.
+	 */
+	private static double paintStack[] = new double[32];
+	private static int paintDepth;
+
+	private Profiler() {
+	}
+
+	/**
+	 * Adds a listener notified of each frame.
+	 *
+	 * @param listener
+	 *            the listener
+	 */
+	public static void addFrameListener(FrameListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Starts a frame, unless one is started already.
+	 */
+	public static void beginFrame() {
+		if (!enabled)
+			return;
+		if (current.start == 0)
+			current.start = now();
+	}
+
+	/**
+	 * Starts timing the painting of a figure. Must be followed by
+	 * {@link #endPaint(IFigure, double)}.
+	 *
+	 * @return the start time
+	 */
+	public static double beginPaint() {
+		if (paintDepth == paintStack.length) {
+			double grown[] = new double[paintDepth * 2];
+			System.arraycopy(paintStack, 0, grown, 0, paintDepth);
+			paintStack = grown;
+		}
+		paintStack[paintDepth++] = 0;
+		return now();
+	}
+
+	/**
+	 * Increments a counter by one.
+	 *
+	 * @param counter
+	 *            the counter
+	 */
+	public static void count(int counter) {
+		if (enabled)
+			current.counts[counter]++;
+	}
+
+	/**
+	 * Increments a counter.
+	 *
+	 * @param counter
+	 *            the counter
+	 * @param amount
+	 *            the increment
+	 */
+	public static void count(int counter, int amount) {
+		if (enabled)
+			current.counts[counter] += amount;
+	}
+
+	/**
+	 * Ends the current frame, and notifies the listeners.
+	 */
+	public static void endFrame() {
+		if (!enabled)
+			return;
+		Frame frame = current;
+		current = new Frame();
+		if (frame.start != 0)
+			frame.times[FRAME_TIME] = now() - frame.start;
+		history.add(frame);
+		if (history.size() > HISTORY_SIZE)
+			history.remove(0);
+		Object array[] = listeners.toArray();
+		for (int i = 0; i < array.length; i++)
+			((FrameListener) array[i]).frameCompleted(frame);
+	}
+
+	/**
+	 * Ends timing the painting of a figure, started with
+	 * {@link #beginPaint()}.
+	 *
+	 * @param figure
+	 *            the figure painted
+	 * @param start
+	 *            the start time
+	 */
+	public static void endPaint(IFigure figure, double start) {
+		double elapsed = now() - start;
+		double children = paintStack[--paintDepth];
+		if (paintDepth > 0)
+			paintStack[paintDepth - 1] += elapsed;
+		if (!enabled)
+			return;
+		current.counts[PAINTED]++;
+		double time[] = (double[]) current.paintTimes.get(figure.getClass());
+		if (time == null)
+			current.paintTimes.put(figure.getClass(), time = new double[1]);
+		time[0] += elapsed - children;
+	}
+
+	/**
+	 * Returns the recorded frames, the last one being the most recent.
+	 *
+	 * @return a list of {@link Frame}s
+	 */
+	public static List getFrames() {
+		return new ArrayList(history);
+	}
+
+	/**
+	 * Returns <code>true</code> if the profiler records frames.
+	 *
+	 * @return whether the profiler is enabled
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Returns the current time in milliseconds, with the best precision
+	 * available. The high resolution clock of the browser is used if there is
+	 * one, since the wall clock only has a resolution of a millisecond.
+	 *
+	 * @return the time
+	 */
+	public static double now() {
+		double now = highResolutionNow();
+		return now >= 0 ? now : Duration.currentTimeMillis();
+	}
+
+	/**
+	 * Returns the time of the high resolution clock, or -1 if the browser has
+	 * none.
+	 */
+	private static native double highResolutionNow()/*-{
+		var performance = $wnd.performance;
+		return performance && performance.now ? performance.now() : -1;
+	}-*/;
+
+	/**
+	 * Removes a listener added with {@link #addFrameListener(FrameListener)}.
+	 *
+	 * @param listener
+	 *            the listener
+	 */
+	public static void removeFrameListener(FrameListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Enables or disables the profiler. Disabling it discards the history.
+	 *
+	 * @param value
+	 *            whether to record frames
+	 */
+	public static void setEnabled(boolean value) {
+		if (enabled == value)
+			return;
+		enabled = value;
+		current = value ? new Frame() : null;
+		history.clear();
+	}
+
+	/**
+	 * Adds the time elapsed since the given start time to a timer.
+	 *
+	 * @param timer
+	 *            the timer
+	 * @param start
+	 *            the start time, as returned by {@link #now()}
+	 */
+	public static void time(int timer, double start) {
+		if (enabled)
+			current.times[timer] += now() - start;
+	}
+
+}
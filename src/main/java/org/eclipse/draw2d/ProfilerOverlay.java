@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2012 Gerhardt Informatics Kft. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Gerhardt Informatics Kft. - GEFGWT port
+ *******************************************************************************/
+package org.eclipse.draw2d;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.draw2d.geometry.Dimension;
+import org.eclipse.draw2d.geometry.Point;
+import org.eclipse.draw2d.geometry.Rectangle;
+
+/**
+ * A figure displaying the last frame recorded by the {@link Profiler}: its
+ * timings, its counters and the figure classes that took the longest to
+ * paint. The profiler is enabled while the overlay is showing.
+ * <P>
+ * In a GEF viewer, the overlay is typically added to the feedback layer, so
+ * that it is painted above the diagram:
+ *
+ * <pre>
+ * LayerManager.Helper.find(viewer.getContents())
+ * 		.getLayer(LayerConstants.FEEDBACK_LAYER).add(new ProfilerOverlay());
+ * </pre>
+ *
+ * The overlay sizes itself to its text. Frames which only repaint the overlay
+ * are not displayed.
+ *
+ * @since 3.7
+ */
+public class ProfilerOverlay extends Figure implements Profiler.FrameListener {
+
+	private static final int MARGIN = 4;
+	private static final int SLOWEST_CLASSES = 3;
+
+	private String lines[] = new String[0];
+	private boolean enabledProfiler;
+	private boolean refreshing;
+
+	/**
+	 * Creates an overlay.
+	 */
+	public ProfilerOverlay() {
+		setForegroundColor(ColorConstants.white);
+		setBackgroundColor(ColorConstants.black);
+		setLocation(new Point(MARGIN, MARGIN));
+	}
+
+	/**
+	 * Enables the profiler, if needed, and starts listening to its frames.
+	 *
+	 * @see Figure#addNotify()
+	 */
+	public void addNotify() {
+		super.addNotify();
+		if (!Profiler.isEnabled()) {
+			Profiler.setEnabled(true);
+			enabledProfiler = true;
+		}
+		Profiler.addFrameListener(this);
+	}
+
+	private static String format(double milliseconds) {
+		return (Math.round(milliseconds * 10) / 10.0) + " ms"; //$NON-NLS-1$
+	}
+
+	/**
+	 * Displays the frame, unless it is the one which repainted the overlay.
+	 *
+	 * @see Profiler.FrameListener#frameCompleted(Profiler.Frame)
+	 */
+	public void frameCompleted(Profiler.Frame frame) {
+		if (refreshing) {
+			refreshing = false;
+			return;
+		}
+		lines = getLines(frame);
+		refreshing = true;
+		setSize(getPreferredSize());
+		repaint();
+	}
+
+	/**
+	 * Returns the lines of text describing the given frame.
+	 *
+	 * @param frame
+	 *            the frame
+	 * @return the lines
+	 */
+	protected String[] getLines(Profiler.Frame frame) {
+		List result = new ArrayList();
+		result.add("frame " + format(frame.getTime(Profiler.FRAME_TIME)) //$NON-NLS-1$
+				+ ", validation " //$NON-NLS-1$
+				+ format(frame.getTime(Profiler.VALIDATION_TIME))
+				+ ", layout " + format(frame.getTime(Profiler.LAYOUT_TIME)) //$NON-NLS-1$
+				+ ", paint " + format(frame.getTime(Profiler.PAINT_TIME))); //$NON-NLS-1$
+		result.add("validated " + frame.getCount(Profiler.VALIDATED) //$NON-NLS-1$
+				+ ", laid out " + frame.getCount(Profiler.LAID_OUT) //$NON-NLS-1$
+				+ ", painted " + frame.getCount(Profiler.PAINTED) //$NON-NLS-1$
+				+ ", culled " + frame.getCount(Profiler.CULLED)); //$NON-NLS-1$
+		result.add("GC operations " + frame.getCount(Profiler.GC_OPERATIONS) //$NON-NLS-1$
+				+ ", text measurements " //$NON-NLS-1$
+				+ frame.getCount(Profiler.TEXT_MEASUREMENTS) + ", damage " //$NON-NLS-1$
+				+ frame.getCount(Profiler.DAMAGE_AREA) + " px"); //$NON-NLS-1$
+
+		Map paintTimes = frame.getPaintTimes();
+		for (int i = 0; i < SLOWEST_CLASSES && !paintTimes.isEmpty(); i++) {
+			Map.Entry slowest = null;
+			Iterator iter = paintTimes.entrySet().iterator();
+			while (iter.hasNext()) {
+				Map.Entry entry = (Map.Entry) iter.next();
+				if (slowest == null
+						|| ((Double) entry.getValue()).doubleValue() > ((Double) slowest
+								.getValue()).doubleValue())
+					slowest = entry;
+			}
+			paintTimes.remove(slowest.getKey());
+			String name = ((Class) slowest.getKey()).getName();
+			result.add(name.substring(name.lastIndexOf('.') + 1) + " " //$NON-NLS-1$
+					+ format(((Double) slowest.getValue()).doubleValue()));
+		}
+		return (String[]) result.toArray(new String[result.size()]);
+	}
+
+	/**
+	 * @see Figure#getPreferredSize(int, int)
+	 */
+	public Dimension getPreferredSize(int wHint, int hHint) {
+		Dimension size = new Dimension();
+		for (int i = 0; i < lines.length; i++) {
+			Dimension line = FigureUtilities.getStringExtents(lines[i],
+					getFont());
+			size.width = Math.max(size.width, line.width);
+			size.height += line.height;
+		}
+		return size.expand(2 * MARGIN, 2 * MARGIN);
+	}
+
+	/**
+	 * @see Figure#paintFigure(Graphics)
+	 */
+	protected void paintFigure(Graphics graphics) {
+		Rectangle r = getBounds();
+		graphics.setAlpha(192);
+		graphics.fillRectangle(r);
+		graphics.setAlpha(255);
+		int y = r.y + MARGIN;
+		for (int i = 0; i < lines.length; i++) {
+			graphics.drawString(lines[i], r.x + MARGIN, y);
+			y += FigureUtilities.getStringExtents(lines[i], getFont()).height;
+		}
+	}
+
+	/**
+	 * Stops listening to the profiler, and disables it if it was enabled by
+	 * this overlay.
+	 *
+	 * @see Figure#removeNotify()
+	 */
+	public void removeNotify() {
+		Profiler.removeFrameListener(this);
+		if (enabledProfiler) {
+			Profiler.setEnabled(false);
+			enabledProfiler = false;
+		}
+		super.removeNotify();
+	}
+
+}
@@ -0,0 +1,1185 @@
+/*******************************************************************************
+ * Copyright (c) 2012 Gerhardt Informatics Kft. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Gerhardt Informatics Kft. - GEFGWT port
+ *******************************************************************************/
+package org.eclipse.draw2d;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.draw2d.geometry.PointList;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.FontData;
+import org.eclipse.swt.graphics.FontMetrics;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.LineAttributes;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * A Graphics which writes Scalable Vector Graphics (SVG) markup. Figures are
+ * exported by painting them onto it through the regular
+ * {@link IFigure#paint(Graphics)} path, see {@link #export(IFigure, Output)}.
+ * <P>
+ * The markup is written to an {@link Output} in chunks of
+ * {@link #setChunkSize(int) bounded size} as it is produced, so exporting a
+ * large diagram does not need the whole document in memory. To keep the
+ * document small:
+ * <UL>
+ * <LI>stroke, fill and font attributes are written once as a CSS class, which
+ * is shared by all the elements painted with the same attributes;</LI>
+ * <LI>clipping areas, gradients and images are defined once and referenced;
+ * </LI>
+ * <LI>elements lying entirely outside of the clip are not written, and
+ * elements lying entirely inside of it are written without a clip path.</LI>
+ * </UL>
+ * <P>
+ * Translation and scaling are applied to the written coordinates. XOR mode,
+ * rotation and paths are not supported.
+ *
+ * @since 3.7
+ */
+public class SVGGraphics extends Graphics {
+
+	/**
+	 * Receives the chunks of a document written by {@link SVGGraphics}.
+	 */
+	public interface Output {
+		/**
+		 * Called with the next chunk of the document.
+		 *
+		 * @param chunk
+		 *            the markup
+		 */
+		void write(String chunk);
+	}
+
+	/**
+	 * The default chunk size, in characters.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+	private static class State {
+		Color background;
+		Color foreground;
+		Font font;
+		int alpha = 255;
+		float lineWidth = 1;
+		int lineStyle = SWT.LINE_SOLID;
+		int lineCap = SWT.CAP_FLAT;
+		int lineJoin = SWT.JOIN_MITER;
+		float miterLimit = 10;
+		float dash[];
+		int fillRule = SWT.FILL_EVEN_ODD;
+		int antialias = SWT.DEFAULT;
+		int textAntialias = SWT.DEFAULT;
+		int interpolation = SWT.DEFAULT;
+		boolean xor;
+		double translateX;
+		double translateY;
+		double scale = 1;
+		// the clip, in document coordinates
+		double clipX;
+		double clipY;
+		double clipRight;
+		double clipBottom;
+
+		State copy() {
+			State state = new State();
+			state.copyFrom(this);
+			return state;
+		}
+
+		void copyFrom(State state) {
+			background = state.background;
+			foreground = state.foreground;
+			font = state.font;
+			alpha = state.alpha;
+			lineWidth = state.lineWidth;
+			lineStyle = state.lineStyle;
+			lineCap = state.lineCap;
+			lineJoin = state.lineJoin;
+			miterLimit = state.miterLimit;
+			dash = state.dash;
+			fillRule = state.fillRule;
+			antialias = state.antialias;
+			textAntialias = state.textAntialias;
+			interpolation = state.interpolation;
+			xor = state.xor;
+			translateX = state.translateX;
+			translateY = state.translateY;
+			scale = state.scale;
+			clipX = state.clipX;
+			clipY = state.clipY;
+			clipRight = state.clipRight;
+			clipBottom = state.clipBottom;
+		}
+	}
+
+	private final Output output;
+	private final StringBuilder buffer = new StringBuilder();
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+	private boolean disposed;
+
+	private State state = new State();
+	private final List stack = new ArrayList();
+
+	private final Map styleClasses = new HashMap();
+	private final Map clipPaths = new HashMap();
+	private final Map gradients = new HashMap();
+	private final Map images = new HashMap();
+
+	/**
+	 * Bounds of the element being written, in document coordinates.
+	 */
+	private double left, top, right, bottom;
+
+	/**
+	 * Exports the given figure, painting it and its children, and disposes
+	 * the graphics. For a {@link FreeformFigure}, its freeform extent is
+	 * exported.
+	 *
+	 * @param figure
+	 *            the figure to export
+	 * @param output
+	 *            the output receiving the document
+	 */
+	public static void export(IFigure figure, Output output) {
+		Rectangle area;
+		if (figure instanceof FreeformFigure)
+			area = ((FreeformFigure) figure).getFreeformExtent().getCopy();
+		else
+			area = figure.getBounds().getCopy();
+		SVGGraphics graphics = new SVGGraphics(area, output);
+		try {
+			figure.paint(graphics);
+		} finally {
+			graphics.dispose();
+		}
+	}
+
+	/**
+	 * Starts a document showing the given area and writing to the given
+	 * output. The document is completed by {@link #dispose()}.
+	 *
+	 * @param area
+	 *            the area to export, which is also the initial clip
+	 * @param output
+	 *            the output receiving the document
+	 */
+	public SVGGraphics(Rectangle area, Output output) {
+		this.output = output;
+		state.font = Display.getDefault().getSystemFont();
+		state.foreground = ColorConstants.black;
+		state.background = ColorConstants.white;
+		state.clipX = area.x;
+		state.clipY = area.y;
+		state.clipRight = area.right();
+		state.clipBottom = area.bottom();
+		buffer.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"); //$NON-NLS-1$
+		buffer.append("<svg xmlns=\"http://www.w3.org/2000/svg\"" //$NON-NLS-1$
+				+ " xmlns:xlink=\"http://www.w3.org/1999/xlink\" version=\"1.1\""); //$NON-NLS-1$
+		buffer.append(" width=\"").append(area.width); //$NON-NLS-1$
+		buffer.append("\" height=\"").append(area.height); //$NON-NLS-1$
+		buffer.append("\" viewBox=\"").append(area.x).append(' ') //$NON-NLS-1$
+				.append(area.y).append(' ').append(area.width).append(' ')
+				.append(area.height).append("\">\n"); //$NON-NLS-1$
+	}
+
+	/**
+	 * Sets the number of characters after which the written markup is passed
+	 * on to the output.
+	 *
+	 * @param size
+	 *            the chunk size
+	 */
+	public void setChunkSize(int size) {
+		chunkSize = size;
+	}
+
+	/**
+	 * Passes the markup written so far on to the output.
+	 */
+	public void flush() {
+		if (buffer.length() > 0) {
+			output.write(buffer.toString());
+			buffer.setLength(0);
+		}
+	}
+
+	private void endElement() {
+		buffer.append("/>\n"); //$NON-NLS-1$
+		if (buffer.length() >= chunkSize)
+			flush();
+	}
+
+	/**
+	 * Completes the document and passes the remaining markup on to the output.
+	 *
+	 * @see Graphics#dispose()
+	 */
+	public void dispose() {
+		if (disposed)
+			return;
+		disposed = true;
+		buffer.append("</svg>\n"); //$NON-NLS-1$
+		flush();
+	}
+
+	// ------------------------------------------------------------------
+	// Coordinates
+
+	private double x(double x) {
+		return state.translateX + x * state.scale;
+	}
+
+	private double y(double y) {
+		return state.translateY + y * state.scale;
+	}
+
+	private static String format(double value) {
+		long rounded = Math.round(value * 100);
+		if (rounded % 100 == 0)
+			return String.valueOf(rounded / 100);
+		return String.valueOf(rounded / 100.0);
+	}
+
+	private void attribute(String name, double value) {
+		buffer.append(' ').append(name).append("=\"").append(format(value)) //$NON-NLS-1$
+				.append('"');
+	}
+
+	private void attribute(String name, String value) {
+		buffer.append(' ').append(name).append("=\"").append(value).append('"'); //$NON-NLS-1$
+	}
+
+	private static String escape(String s) {
+		StringBuilder result = null;
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			String entity;
+			switch (c) {
+			case '&':
+				entity = "&amp;"; //$NON-NLS-1$
+				break;
+			case '<':
+				entity = "&lt;"; //$NON-NLS-1$
+				break;
+			case '>':
+				entity = "&gt;"; //$NON-NLS-1$
+				break;
+			case '"':
+				entity = "&quot;"; //$NON-NLS-1$
+				break;
+			default:
+				if (result != null)
+					result.append(c);
+				continue;
+			}
+			if (result == null)
+				result = new StringBuilder(s.substring(0, i));
+			result.append(entity);
+		}
+		return result == null ? s : result.toString();
+	}
+
+	/**
+	 * Sets the bounds of the next element from local coordinates, expanded by
+	 * the given amount on each side, and returns <code>false</code> if it is
+	 * clipped entirely.
+	 */
+	private boolean setElementBounds(int x, int y, int w, int h, double expand) {
+		double ex = expand * state.scale;
+		left = x(x) - ex;
+		top = y(y) - ex;
+		right = x(x + w) + ex;
+		bottom = y(y + h) + ex;
+		return left < state.clipRight && right > state.clipX
+				&& top < state.clipBottom && bottom > state.clipY;
+	}
+
+	private boolean setElementBounds(PointList points, double expand) {
+		Rectangle bounds = points.getBounds();
+		return setElementBounds(bounds.x, bounds.y, bounds.width,
+				bounds.height, expand);
+	}
+
+	// ------------------------------------------------------------------
+	// Shared definitions
+
+	private void beginElement(String name, String style) {
+		String styleClass = (String) styleClasses.get(style);
+		if (styleClass == null) {
+			styleClass = "s" + styleClasses.size(); //$NON-NLS-1$
+			styleClasses.put(style, styleClass);
+			buffer.append("<style type=\"text/css\">.").append(styleClass) //$NON-NLS-1$
+					.append('{').append(style).append("}</style>\n"); //$NON-NLS-1$
+		}
+		String clipPath = getClipPath();
+		buffer.append('<').append(name);
+		attribute("class", styleClass); //$NON-NLS-1$
+		if (clipPath != null)
+			attribute("clip-path", "url(#" + clipPath + ')'); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Returns the id of the clip path for the current element, or
+	 * <code>null</code> if it is entirely inside the clip.
+	 */
+	private String getClipPath() {
+		if (left >= state.clipX && right <= state.clipRight
+				&& top >= state.clipY && bottom <= state.clipBottom)
+			return null;
+		String key = format(state.clipX) + ' ' + format(state.clipY) + ' '
+				+ format(state.clipRight - state.clipX) + ' '
+				+ format(state.clipBottom - state.clipY);
+		String id = (String) clipPaths.get(key);
+		if (id == null) {
+			id = "c" + clipPaths.size(); //$NON-NLS-1$
+			clipPaths.put(key, id);
+			buffer.append("<clipPath id=\"").append(id).append("\"><rect"); //$NON-NLS-1$ //$NON-NLS-2$
+			attribute("x", state.clipX); //$NON-NLS-1$
+			attribute("y", state.clipY); //$NON-NLS-1$
+			attribute("width", state.clipRight - state.clipX); //$NON-NLS-1$
+			attribute("height", state.clipBottom - state.clipY); //$NON-NLS-1$
+			buffer.append("/></clipPath>\n"); //$NON-NLS-1$
+		}
+		return id;
+	}
+
+	private static String toString(Color color) {
+		int rgb = color.getRed() << 16 | color.getGreen() << 8
+				| color.getBlue();
+		String hex = Integer.toHexString(rgb | 0x1000000);
+		return '#' + hex.substring(1);
+	}
+
+	private String getFillStyle() {
+		StringBuilder style = new StringBuilder("stroke:none;fill:"); //$NON-NLS-1$
+		style.append(toString(state.background));
+		if (state.alpha != 255)
+			style.append(";fill-opacity:").append(format(state.alpha / 255.0)); //$NON-NLS-1$
+		if (state.fillRule == SWT.FILL_EVEN_ODD)
+			style.append(";fill-rule:evenodd"); //$NON-NLS-1$
+		return style.toString();
+	}
+
+	private String getStrokeStyle() {
+		StringBuilder style = new StringBuilder("fill:none;stroke:"); //$NON-NLS-1$
+		style.append(toString(state.foreground));
+		double width = Math.max(1, state.lineWidth) * state.scale;
+		style.append(";stroke-width:").append(format(width)); //$NON-NLS-1$
+		if (state.alpha != 255)
+			style.append(";stroke-opacity:").append(format(state.alpha / 255.0)); //$NON-NLS-1$
+		if (state.lineCap == SWT.CAP_ROUND)
+			style.append(";stroke-linecap:round"); //$NON-NLS-1$
+		else if (state.lineCap == SWT.CAP_SQUARE)
+			style.append(";stroke-linecap:square"); //$NON-NLS-1$
+		if (state.lineJoin == SWT.JOIN_ROUND)
+			style.append(";stroke-linejoin:round"); //$NON-NLS-1$
+		else if (state.lineJoin == SWT.JOIN_BEVEL)
+			style.append(";stroke-linejoin:bevel"); //$NON-NLS-1$
+		else if (state.miterLimit != 4)
+			style.append(";stroke-miterlimit:").append(format(state.miterLimit)); //$NON-NLS-1$
+		float dash[] = getDashPattern();
+		if (dash != null) {
+			style.append(";stroke-dasharray:"); //$NON-NLS-1$
+			for (int i = 0; i < dash.length; i++) {
+				if (i > 0)
+					style.append(',');
+				style.append(format(dash[i] * width));
+			}
+		}
+		return style.toString();
+	}
+
+	/**
+	 * Returns the dash pattern in multiples of the line width, or
+	 * <code>null</code> for solid lines.
+	 */
+	private float[] getDashPattern() {
+		switch (state.lineStyle) {
+		case SWT.LINE_DASH:
+			return new float[] { 3, 1 };
+		case SWT.LINE_DOT:
+			return new float[] { 1, 1 };
+		case SWT.LINE_DASHDOT:
+			return new float[] { 3, 1, 1, 1 };
+		case SWT.LINE_DASHDOTDOT:
+			return new float[] { 3, 1, 1, 1, 1, 1 };
+		case SWT.LINE_CUSTOM:
+			if (state.dash == null || state.dash.length == 0)
+				return null;
+			float dash[] = new float[state.dash.length];
+			float width = Math.max(1, state.lineWidth);
+			for (int i = 0; i < dash.length; i++)
+				dash[i] = state.dash[i] / width;
+			return dash;
+		default:
+			return null;
+		}
+	}
+
+	private String getTextStyle() {
+		StringBuilder style = new StringBuilder("fill:"); //$NON-NLS-1$
+		style.append(toString(state.foreground));
+		if (state.alpha != 255)
+			style.append(";fill-opacity:").append(format(state.alpha / 255.0)); //$NON-NLS-1$
+		style.append(";white-space:pre;font:"); //$NON-NLS-1$
+		FontData data = state.font.getFontData()[0];
+		if ((data.getStyle() & SWT.BOLD) != 0)
+			style.append("bold "); //$NON-NLS-1$
+		if ((data.getStyle() & SWT.ITALIC) != 0)
+			style.append("italic "); //$NON-NLS-1$
+		style.append(format(data.getHeight() * state.scale)).append("px "); //$NON-NLS-1$
+		if (data.getName().length() == 0)
+			style.append("sans-serif"); //$NON-NLS-1$
+		else
+			style.append(escape(data.getName().toLowerCase()));
+		return style.toString();
+	}
+
+	private String getGradient(boolean vertical) {
+		String key = toString(state.foreground) + toString(state.background)
+				+ vertical;
+		String id = (String) gradients.get(key);
+		if (id == null) {
+			id = "g" + gradients.size(); //$NON-NLS-1$
+			gradients.put(key, id);
+			buffer.append("<linearGradient id=\"").append(id).append('"'); //$NON-NLS-1$
+			attribute("x2", vertical ? "0" : "1"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			attribute("y2", vertical ? "1" : "0"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			buffer.append("><stop offset=\"0\" stop-color=\"") //$NON-NLS-1$
+					.append(toString(state.foreground))
+					.append("\"/><stop offset=\"1\" stop-color=\"") //$NON-NLS-1$
+					.append(toString(state.background))
+					.append("\"/></linearGradient>\n"); //$NON-NLS-1$
+		}
+		return id;
+	}
+
+	private String getImage(Image image) {
+		String id = (String) images.get(image);
+		if (id == null) {
+			String url = image.getGwtImage() == null ? null : image
+					.getGwtImage().getUrl();
+			if (url == null)
+				return null;
+			id = "i" + images.size(); //$NON-NLS-1$
+			images.put(image, id);
+			org.eclipse.swt.graphics.Rectangle bounds = image.getBounds();
+			buffer.append("<defs><image id=\"").append(id).append('"'); //$NON-NLS-1$
+			attribute("width", bounds.width); //$NON-NLS-1$
+			attribute("height", bounds.height); //$NON-NLS-1$
+			attribute("xlink:href", escape(url)); //$NON-NLS-1$
+			buffer.append("/></defs>\n"); //$NON-NLS-1$
+		}
+		return id;
+	}
+
+	// ------------------------------------------------------------------
+	// Painting
+
+	private void points(PointList points) {
+		buffer.append(" points=\""); //$NON-NLS-1$
+		for (int i = 0; i < points.size(); i++) {
+			if (i > 0)
+				buffer.append(' ');
+			buffer.append(format(x(points.getPoint(i).x))).append(',')
+					.append(format(y(points.getPoint(i).y)));
+		}
+		buffer.append('"');
+	}
+
+	private void arc(int x, int y, int w, int h, int offset, int length,
+			boolean pie) {
+		double rx = w * state.scale / 2, ry = h * state.scale / 2;
+		double cx = x(x) + rx, cy = y(y) + ry;
+		double start = Math.toRadians(offset);
+		double end = Math.toRadians(offset + length);
+		// SWT angles are counter-clockwise, with y pointing down
+		buffer.append(" d=\"M").append(format(cx + rx * Math.cos(start))) //$NON-NLS-1$
+				.append(',').append(format(cy - ry * Math.sin(start)));
+		buffer.append(" A").append(format(rx)).append(',').append(format(ry)) //$NON-NLS-1$
+				.append(" 0 ").append(Math.abs(length) > 180 ? '1' : '0') //$NON-NLS-1$
+				.append(' ').append(length > 0 ? '0' : '1').append(' ')
+				.append(format(cx + rx * Math.cos(end))).append(',')
+				.append(format(cy - ry * Math.sin(end)));
+		if (pie)
+			buffer.append(" L").append(format(cx)).append(',') //$NON-NLS-1$
+					.append(format(cy)).append('Z');
+		buffer.append('"');
+	}
+
+	/**
+	 * @see Graphics#drawArc(int, int, int, int, int, int)
+	 */
+	public void drawArc(int x, int y, int w, int h, int offset, int length) {
+		if (Math.abs(length) >= 360) {
+			drawOval(x, y, w, h);
+			return;
+		}
+		if (length == 0 || !setElementBounds(x, y, w, h, state.lineWidth))
+			return;
+		beginElement("path", getStrokeStyle()); //$NON-NLS-1$
+		arc(x, y, w, h, offset, length, false);
+		endElement();
+	}
+
+	/**
+	 * @see Graphics#drawFocus(int, int, int, int)
+	 */
+	public void drawFocus(int x, int y, int w, int h) {
+		pushState();
+		setLineStyle(SWT.LINE_DOT);
+		setLineWidth(1);
+		drawRectangle(x, y, w, h);
+		popState();
+	}
+
+	/**
+	 * @see Graphics#drawImage(Image, int, int)
+	 */
+	public void drawImage(Image srcImage, int x, int y) {
+		org.eclipse.swt.graphics.Rectangle bounds = srcImage.getBounds();
+		if (!setElementBounds(x, y, bounds.width, bounds.height, 0))
+			return;
+		String id = getImage(srcImage);
+		if (id == null)
+			return;
+		beginElement("use", ""); //$NON-NLS-1$ //$NON-NLS-2$
+		attribute("xlink:href", '#' + id); //$NON-NLS-1$
+		if (state.scale == 1) {
+			attribute("x", left); //$NON-NLS-1$
+			attribute("y", top); //$NON-NLS-1$
+		} else
+			attribute("transform", "translate(" + format(left) + ',' //$NON-NLS-1$ //$NON-NLS-2$
+					+ format(top) + ") scale(" + format(state.scale) + ')'); //$NON-NLS-1$
+		endElement();
+	}
+
+	/**
+	 * @see Graphics#drawImage(Image, int, int, int, int, int, int, int, int)
+	 */
+	public void drawImage(Image srcImage, int x1, int y1, int w1, int h1,
+			int x2, int y2, int w2, int h2) {
+		if (!setElementBounds(x2, y2, w2, h2, 0))
+			return;
+		String id = getImage(srcImage);
+		if (id == null)
+			return;
+		String clipPath = getClipPath();
+		buffer.append("<svg"); //$NON-NLS-1$
+		attribute("x", left); //$NON-NLS-1$
+		attribute("y", top); //$NON-NLS-1$
+		attribute("width", right - left); //$NON-NLS-1$
+		attribute("height", bottom - top); //$NON-NLS-1$
+		attribute("viewBox", x1 + " " + y1 + ' ' + w1 + ' ' + h1); //$NON-NLS-1$ //$NON-NLS-2$
+		attribute("preserveAspectRatio", "none"); //$NON-NLS-1$ //$NON-NLS-2$
+		if (clipPath != null)
+			attribute("clip-path", "url(#" + clipPath + ')'); //$NON-NLS-1$ //$NON-NLS-2$
+		buffer.append("><use"); //$NON-NLS-1$
+		attribute("xlink:href", '#' + id); //$NON-NLS-1$
+		buffer.append("/></svg>\n"); //$NON-NLS-1$
+		if (buffer.length() >= chunkSize)
+			flush();
+	}
+
+	/**
+	 * @see Graphics#drawLine(int, int, int, int)
+	 */
+	public void drawLine(int x1, int y1, int x2, int y2) {
+		if (!setElementBounds(Math.min(x1, x2), Math.min(y1, y2),
+				Math.abs(x2 - x1), Math.abs(y2 - y1), state.lineWidth))
+			return;
+		beginElement("line", getStrokeStyle()); //$NON-NLS-1$
+		attribute("x1", x(x1)); //$NON-NLS-1$
+		attribute("y1", y(y1)); //$NON-NLS-1$
+		attribute("x2", x(x2)); //$NON-NLS-1$
+		attribute("y2", y(y2)); //$NON-NLS-1$
+		endElement();
+	}
+
+	/**
+	 * @see Graphics#drawOval(int, int, int, int)
+	 */
+	public void drawOval(int x, int y, int w, int h) {
+		if (!setElementBounds(x, y, w, h, state.lineWidth))
+			return;
+		beginElement("ellipse", getStrokeStyle()); //$NON-NLS-1$
+		ellipse(x, y, w, h);
+		endElement();
+	}
+
+	private void ellipse(int x, int y, int w, int h) {
+		attribute("cx", x(x + w / 2.0)); //$NON-NLS-1$
+		attribute("cy", y(y + h / 2.0)); //$NON-NLS-1$
+		attribute("rx", w * state.scale / 2); //$NON-NLS-1$
+		attribute("ry", h * state.scale / 2); //$NON-NLS-1$
+	}
+
+	/**
+	 * @see Graphics#drawPolygon(PointList)
+	 */
+	public void drawPolygon(PointList points) {
+		if (!setElementBounds(points, state.lineWidth))
+			return;
+		beginElement("polygon", getStrokeStyle()); //$NON-NLS-1$
+		points(points);
+		endElement();
+	}
+
+	/**
+	 * @see Graphics#drawPolyline(PointList)
+	 */
+	public void drawPolyline(PointList points) {
+		if (!setElementBounds(points, state.lineWidth))
+			return;
+		beginElement("polyline", getStrokeStyle()); //$NON-NLS-1$
+		points(points);
+		endElement();
+	}
+
+	/**
+	 * @see Graphics#drawRectangle(int, int, int, int)
+	 */
+	public void drawRectangle(int x, int y, int width, int height) {
+		if (!setElementBounds(x, y, width, height, state.lineWidth))
+			return;
+		beginElement("rect", getStrokeStyle()); //$NON-NLS-1$
+		rect(x, y, width, height);
+		endElement();
+	}
+
+	private void rect(int x, int y, int width, int height) {
+		attribute("x", x(x)); //$NON-NLS-1$
+		attribute("y", y(y)); //$NON-NLS-1$
+		attribute("width", width * state.scale); //$NON-NLS-1$
+		attribute("height", height * state.scale); //$NON-NLS-1$
+	}
+
+	/**
+	 * @see Graphics#drawRoundRectangle(Rectangle, int, int)
+	 */
+	public void drawRoundRectangle(Rectangle r, int arcWidth, int arcHeight) {
+		if (!setElementBounds(r.x, r.y, r.width, r.height, state.lineWidth))
+			return;
+		beginElement("rect", getStrokeStyle()); //$NON-NLS-1$
+		rect(r.x, r.y, r.width, r.height);
+		attribute("rx", arcWidth * state.scale / 2); //$NON-NLS-1$
+		attribute("ry", arcHeight * state.scale / 2); //$NON-NLS-1$
+		endElement();
+	}
+
+	/**
+	 * @see Graphics#drawString(String, int, int)
+	 */
+	public void drawString(String s, int x, int y) {
+		text(s, x, y, false, false);
+	}
+
+	/**
+	 * @see Graphics#drawText(String, int, int)
+	 */
+	public void drawText(String s, int x, int y) {
+		text(s, x, y, true, false);
+	}
+
+	private void text(String s, int x, int y, boolean expand, boolean fill) {
+		if (s.length() == 0)
+			return;
+		String lines[];
+		if (expand) {
+			s = s.replace("\r\n", "\n").replace('\r', '\n') //$NON-NLS-1$ //$NON-NLS-2$
+					.replace("\t", "        "); //$NON-NLS-1$ //$NON-NLS-2$
+			lines = s.split("\n", -1); //$NON-NLS-1$
+		} else
+			lines = new String[] { s };
+		int lineHeight = getFontMetrics().getHeight();
+		int height = state.font.getFontData()[0].getHeight();
+		for (int i = 0; i < lines.length; i++) {
+			String line = lines[i];
+			int lineY = y + i * lineHeight;
+			if (line.length() == 0)
+				continue;
+			int width = FigureUtilities.getStringExtents(line, state.font).width;
+			if (!setElementBounds(x, lineY, width, lineHeight, 0))
+				continue;
+			if (fill) {
+				beginElement("rect", getFillStyle()); //$NON-NLS-1$
+				rect(x, lineY, width, lineHeight);
+				endElement();
+			}
+			beginElement("text", getTextStyle()); //$NON-NLS-1$
+			attribute("x", x(x)); //$NON-NLS-1$
+			// matches the baseline used by GC#drawText
+			attribute("y", y(lineY + height - 2)); //$NON-NLS-1$
+			buffer.append('>').append(escape(line)).append("</text>\n"); //$NON-NLS-1$
+			if (buffer.length() >= chunkSize)
+				flush();
+		}
+	}
+
+	/**
+	 * @see Graphics#fillArc(int, int, int, int, int, int)
+	 */
+	public void fillArc(int x, int y, int w, int h, int offset, int length) {
+		if (Math.abs(length) >= 360) {
+			fillOval(x, y, w, h);
+			return;
+		}
+		if (length == 0 || !setElementBounds(x, y, w, h, 0))
+			return;
+		beginElement("path", getFillStyle()); //$NON-NLS-1$
+		arc(x, y, w, h, offset, length, true);
+		endElement();
+	}
+
+	/**
+	 * @see Graphics#fillGradient(int, int, int, int, boolean)
+	 */
+	public void fillGradient(int x, int y, int w, int h, boolean vertical) {
+		if (!setElementBounds(x, y, w, h, 0))
+			return;
+		String gradient = getGradient(vertical);
+		beginElement("rect", "stroke:none"); //$NON-NLS-1$ //$NON-NLS-2$
+		attribute("fill", "url(#" + gradient + ')'); //$NON-NLS-1$ //$NON-NLS-2$
+		rect(x, y, w, h);
+		endElement();
+	}
+
+	/**
+	 * @see Graphics#fillOval(int, int, int, int)
+	 */
+	public void fillOval(int x, int y, int w, int h) {
+		if (!setElementBounds(x, y, w, h, 0))
+			return;
+		beginElement("ellipse", getFillStyle()); //$NON-NLS-1$
+		ellipse(x, y, w, h);
+		endElement();
+	}
+
+	/**
+	 * @see Graphics#fillPolygon(PointList)
+	 */
+	public void fillPolygon(PointList points) {
+		if (!setElementBounds(points, 0))
+			return;
+		beginElement("polygon", getFillStyle()); //$NON-NLS-1$
+		points(points);
+		endElement();
+	}
+
+	/**
+	 * @see Graphics#fillRectangle(int, int, int, int)
+	 */
+	public void fillRectangle(int x, int y, int width, int height) {
+		if (!setElementBounds(x, y, width, height, 0))
+			return;
+		beginElement("rect", getFillStyle()); //$NON-NLS-1$
+		rect(x, y, width, height);
+		endElement();
+	}
+
+	/**
+	 * @see Graphics#fillRoundRectangle(Rectangle, int, int)
+	 */
+	public void fillRoundRectangle(Rectangle r, int arcWidth, int arcHeight) {
+		if (!setElementBounds(r.x, r.y, r.width, r.height, 0))
+			return;
+		beginElement("rect", getFillStyle()); //$NON-NLS-1$
+		rect(r.x, r.y, r.width, r.height);
+		attribute("rx", arcWidth * state.scale / 2); //$NON-NLS-1$
+		attribute("ry", arcHeight * state.scale / 2); //$NON-NLS-1$
+		endElement();
+	}
+
+	/**
+	 * @see Graphics#fillString(String, int, int)
+	 */
+	public void fillString(String s, int x, int y) {
+		text(s, x, y, false, true);
+	}
+
+	/**
+	 * @see Graphics#fillText(String, int, int)
+	 */
+	public void fillText(String s, int x, int y) {
+		text(s, x, y, true, true);
+	}
+
+	// ------------------------------------------------------------------
+	// State
+
+	/**
+	 * @see Graphics#clipRect(Rectangle)
+	 */
+	public void clipRect(Rectangle r) {
+		state.clipX = Math.max(state.clipX, x(r.x));
+		state.clipY = Math.max(state.clipY, y(r.y));
+		state.clipRight = Math.max(state.clipX,
+				Math.min(state.clipRight, x(r.right())));
+		state.clipBottom = Math.max(state.clipY,
+				Math.min(state.clipBottom, y(r.bottom())));
+	}
+
+	/**
+	 * @see Graphics#getAbsoluteScale()
+	 */
+	public double getAbsoluteScale() {
+		return state.scale;
+	}
+
+	/**
+	 * @see Graphics#getAdvanced()
+	 */
+	public boolean getAdvanced() {
+		return true;
+	}
+
+	/**
+	 * @see Graphics#getAlpha()
+	 */
+	public int getAlpha() {
+		return state.alpha;
+	}
+
+	/**
+	 * @see Graphics#getAntialias()
+	 */
+	public int getAntialias() {
+		return state.antialias;
+	}
+
+	/**
+	 * @see Graphics#getBackgroundColor()
+	 */
+	public Color getBackgroundColor() {
+		return state.background;
+	}
+
+	/**
+	 * @see Graphics#getClip(Rectangle)
+	 */
+	public Rectangle getClip(Rectangle rect) {
+		double x = (state.clipX - state.translateX) / state.scale;
+		double y = (state.clipY - state.translateY) / state.scale;
+		double r = (state.clipRight - state.translateX) / state.scale;
+		double b = (state.clipBottom - state.translateY) / state.scale;
+		rect.x = (int) Math.floor(x);
+		rect.y = (int) Math.floor(y);
+		rect.width = (int) Math.ceil(r) - rect.x;
+		rect.height = (int) Math.ceil(b) - rect.y;
+		return rect;
+	}
+
+	/**
+	 * @see Graphics#getFillRule()
+	 */
+	public int getFillRule() {
+		return state.fillRule;
+	}
+
+	/**
+	 * @see Graphics#getFont()
+	 */
+	public Font getFont() {
+		return state.font;
+	}
+
+	/**
+	 * @see Graphics#getFontMetrics()
+	 */
+	public FontMetrics getFontMetrics() {
+		return FigureUtilities.getFontMetrics(state.font);
+	}
+
+	/**
+	 * @see Graphics#getForegroundColor()
+	 */
+	public Color getForegroundColor() {
+		return state.foreground;
+	}
+
+	/**
+	 * @see Graphics#getInterpolation()
+	 */
+	public int getInterpolation() {
+		return state.interpolation;
+	}
+
+	/**
+	 * @see Graphics#getLineAttributes()
+	 */
+	public LineAttributes getLineAttributes() {
+		return new LineAttributes(state.lineWidth, state.lineCap,
+				state.lineJoin, state.lineStyle, state.dash, 0,
+				state.miterLimit);
+	}
+
+	/**
+	 * @see Graphics#getLineCap()
+	 */
+	public int getLineCap() {
+		return state.lineCap;
+	}
+
+	/**
+	 * @see Graphics#getLineJoin()
+	 */
+	public int getLineJoin() {
+		return state.lineJoin;
+	}
+
+	/**
+	 * @see Graphics#getLineMiterLimit()
+	 */
+	public float getLineMiterLimit() {
+		return state.miterLimit;
+	}
+
+	/**
+	 * @see Graphics#getLineStyle()
+	 */
+	public int getLineStyle() {
+		return state.lineStyle;
+	}
+
+	/**
+	 * @see Graphics#getLineWidth()
+	 */
+	public int getLineWidth() {
+		return (int) state.lineWidth;
+	}
+
+	/**
+	 * @see Graphics#getLineWidthFloat()
+	 */
+	public float getLineWidthFloat() {
+		return state.lineWidth;
+	}
+
+	/**
+	 * @see Graphics#getTextAntialias()
+	 */
+	public int getTextAntialias() {
+		return state.textAntialias;
+	}
+
+	/**
+	 * @see Graphics#getXORMode()
+	 */
+	public boolean getXORMode() {
+		return state.xor;
+	}
+
+	/**
+	 * @see Graphics#popState()
+	 */
+	public void popState() {
+		state = (State) stack.remove(stack.size() - 1);
+	}
+
+	/**
+	 * @see Graphics#pushState()
+	 */
+	public void pushState() {
+		stack.add(state.copy());
+	}
+
+	/**
+	 * @see Graphics#restoreState()
+	 */
+	public void restoreState() {
+		state.copyFrom((State) stack.get(stack.size() - 1));
+	}
+
+	/**
+	 * @see Graphics#scale(double)
+	 */
+	public void scale(double amount) {
+		state.scale *= amount;
+	}
+
+	/**
+	 * @see Graphics#setAdvanced(boolean)
+	 */
+	public void setAdvanced(boolean advanced) {
+	}
+
+	/**
+	 * @see Graphics#setAlpha(int)
+	 */
+	public void setAlpha(int alpha) {
+		state.alpha = alpha;
+	}
+
+	/**
+	 * @see Graphics#setAntialias(int)
+	 */
+	public void setAntialias(int value) {
+		state.antialias = value;
+	}
+
+	/**
+	 * @see Graphics#setBackgroundColor(Color)
+	 */
+	public void setBackgroundColor(Color rgb) {
+		state.background = rgb;
+	}
+
+	/**
+	 * @see Graphics#setClip(Rectangle)
+	 */
+	public void setClip(Rectangle r) {
+		state.clipX = x(r.x);
+		state.clipY = y(r.y);
+		state.clipRight = x(r.right());
+		state.clipBottom = y(r.bottom());
+	}
+
+	/**
+	 * @see Graphics#setFillRule(int)
+	 */
+	public void setFillRule(int rule) {
+		state.fillRule = rule;
+	}
+
+	/**
+	 * @see Graphics#setFont(Font)
+	 */
+	public void setFont(Font f) {
+		state.font = f;
+	}
+
+	/**
+	 * @see Graphics#setForegroundColor(Color)
+	 */
+	public void setForegroundColor(Color rgb) {
+		state.foreground = rgb;
+	}
+
+	/**
+	 * @see Graphics#setInterpolation(int)
+	 */
+	public void setInterpolation(int interpolation) {
+		state.interpolation = interpolation;
+	}
+
+	/**
+	 * @see Graphics#setLineAttributes(LineAttributes)
+	 */
+	public void setLineAttributes(LineAttributes attributes) {
+		state.lineWidth = attributes.width;
+		state.lineStyle = attributes.style;
+		state.lineCap = attributes.cap;
+		state.lineJoin = attributes.join;
+		state.dash = attributes.dash;
+		state.miterLimit = attributes.miterLimit;
+	}
+
+	/**
+	 * @see Graphics#setLineCap(int)
+	 */
+	public void setLineCap(int cap) {
+		state.lineCap = cap;
+	}
+
+	/**
+	 * @see Graphics#setLineDash(int[])
+	 */
+	public void setLineDash(int[] dash) {
+		float value[] = null;
+		if (dash != null) {
+			value = new float[dash.length];
+			for (int i = 0; i < dash.length; i++)
+				value[i] = dash[i];
+		}
+		setLineDash(value);
+	}
+
+	/**
+	 * @see Graphics#setLineDash(float[])
+	 */
+	public void setLineDash(float[] value) {
+		state.dash = value;
+		state.lineStyle = value == null ? SWT.LINE_SOLID : SWT.LINE_CUSTOM;
+	}
+
+	/**
+	 * @see Graphics#setLineJoin(int)
+	 */
+	public void setLineJoin(int join) {
+		state.lineJoin = join;
+	}
+
+	/**
+	 * @see Graphics#setLineMiterLimit(float)
+	 */
+	public void setLineMiterLimit(float miterLimit) {
+		state.miterLimit = miterLimit;
+	}
+
+	/**
+	 * @see Graphics#setLineStyle(int)
+	 */
+	public void setLineStyle(int style) {
+		state.lineStyle = style;
+	}
+
+	/**
+	 * @see Graphics#setLineWidth(int)
+	 */
+	public void setLineWidth(int width) {
+		state.lineWidth = width;
+	}
+
+	/**
+	 * @see Graphics#setLineWidthFloat(float)
+	 */
+	public void setLineWidthFloat(float width) {
+		state.lineWidth = width;
+	}
+
+	/**
+	 * @see Graphics#setTextAntialias(int)
+	 */
+	public void setTextAntialias(int value) {
+		state.textAntialias = value;
+	}
+
+	/**
+	 * Ignored, XOR mode is not supported.
+	 *
+	 * @see Graphics#setXORMode(boolean)
+	 */
+	public void setXORMode(boolean b) {
+		state.xor = b;
+	}
+
+	/**
+	 * @see Graphics#translate(int, int)
+	 */
+	public void translate(int dx, int dy) {
+		translate((float) dx, (float) dy);
+	}
+
+	/**
+	 * @see Graphics#translate(float, float)
+	 */
+	public void translate(float dx, float dy) {
+		state.translateX += dx * state.scale;
+		state.translateY += dy * state.scale;
+	}
+
+}
@@ -47,6 +47,7 @@ public class SWTEventDispatcher extends EventDispatcher {
 	private IFigure hoverSource;
 
 	private MouseEvent currentEvent;
+	private MouseEvent moveEvent;
 	private Cursor cursor;
 	/** The control this dispatcher is listening to. */
 	protected org.eclipse.swt.widgets.Control control;
@@ -250,7 +251,7 @@ public class SWTEventDispatcher extends EventDispatcher {
 	 * @see EventDispatcher#dispatchMouseMoved(org.eclipse.swt.events.MouseEvent)
 	 */
 	public void dispatchMouseMoved(org.eclipse.swt.events.MouseEvent me) {
-		receive(me);
+		receive(me, true);
 		if (mouseTarget != null) {
 			if ((me.stateMask & SWT.BUTTON_MASK) != 0)
 				mouseTarget.handleMouseDragged(currentEvent);
@@ -364,16 +365,27 @@ public class SWTEventDispatcher extends EventDispatcher {
 	}
 
 	private void receive(org.eclipse.swt.events.MouseEvent me) {
+		receive(me, false);
+	}
+
+	/**
+	 * Updates the mouse target and the current event. If <i>reuse</i> is
+	 * <code>true</code>, the event for a target which did not change is the
+	 * same one each time, filled again from the SWT event. This avoids an
+	 * allocation for each mouse move; listeners may not keep such an event
+	 * beyond the next mouse move.
+	 */
+	private void receive(org.eclipse.swt.events.MouseEvent me, boolean reuse) {
 		currentEvent = null;
 		updateFigureUnderCursor(me);
 		if (captured) {
 			if (mouseTarget != null)
-				currentEvent = new MouseEvent(this, mouseTarget, me);
+				currentEvent = createMouseEvent(me, reuse);
 		} else {
 			IFigure f = root.findMouseEventTargetAt(me.x, me.y);
 			if (f == mouseTarget) {
 				if (mouseTarget != null)
-					currentEvent = new MouseEvent(this, mouseTarget, me);
+					currentEvent = createMouseEvent(me, reuse);
 				return;
 			}
 			if (mouseTarget != null) {
@@ -388,6 +400,17 @@ public class SWTEventDispatcher extends EventDispatcher {
 		}
 	}
 
+	private MouseEvent createMouseEvent(org.eclipse.swt.events.MouseEvent me,
+			boolean reuse) {
+		if (!reuse)
+			return new MouseEvent(this, mouseTarget, me);
+		if (moveEvent == null)
+			moveEvent = new MouseEvent(this, mouseTarget, me);
+		else
+			moveEvent.reset(mouseTarget, me);
+		return moveEvent;
+	}
+
 	/**
 	 * @see EventDispatcher#releaseCapture()
 	 */
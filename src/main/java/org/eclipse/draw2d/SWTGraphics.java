@@ -335,6 +335,7 @@ public class SWTGraphics extends Graphics {
 	 * line style, fill rule, interpolation, and other settings.
 	 */
 	protected final void checkGC() {
+		Profiler.count(Profiler.GC_OPERATIONS);
 		if (appliedState.relativeClip != currentState.relativeClip) {
 			appliedState.relativeClip = currentState.relativeClip;
 			currentState.relativeClip.setOn(gc, translateX, translateY);
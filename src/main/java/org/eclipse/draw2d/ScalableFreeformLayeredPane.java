@@ -22,6 +22,7 @@ public class ScalableFreeformLayeredPane extends FreeformLayeredPane implements
 		ScalableFigure {
 
 	private double scale = 1.0;
+	private LevelOfDetail levelOfDetail;
 
 	/**
 	 * @see org.eclipse.draw2d.Figure#getClientArea()
@@ -51,6 +52,17 @@ public class ScalableFreeformLayeredPane extends FreeformLayeredPane implements
 		return true;
 	}
 
+	/**
+	 * Returns the level of detail of the children, or <code>null</code> if
+	 * they paint all their features in full.
+	 * 
+	 * @return the level of detail or <code>null</code>
+	 * @since 3.7
+	 */
+	public LevelOfDetail getLevelOfDetail() {
+		return levelOfDetail;
+	}
+
 	/**
 	 * @see org.eclipse.draw2d.Figure#paintClientArea(Graphics)
 	 */
@@ -61,6 +73,7 @@ public class ScalableFreeformLayeredPane extends FreeformLayeredPane implements
 			super.paintClientArea(graphics);
 		} else {
 			ScaledGraphics g = new ScaledGraphics(graphics);
+			g.setLevelOfDetail(levelOfDetail);
 			boolean optimizeClip = getBorder() == null
 					|| getBorder().isOpaque();
 			if (!optimizeClip)
@@ -73,6 +86,21 @@ public class ScalableFreeformLayeredPane extends FreeformLayeredPane implements
 		}
 	}
 
+	/**
+	 * Sets the thresholds below which the children paint cheaper
+	 * representations of their features, or <code>null</code> to paint all
+	 * their features in full, which is the default. The thresholds only take
+	 * effect while the scale is not 1.0.
+	 * 
+	 * @param levelOfDetail
+	 *            the level of detail or <code>null</code>
+	 * @since 3.7
+	 */
+	public void setLevelOfDetail(LevelOfDetail levelOfDetail) {
+		this.levelOfDetail = levelOfDetail;
+		repaint();
+	}
+
 	/**
 	 * Sets the zoom level
 	 * 
@@ -25,6 +25,7 @@ import org.eclipse.swt.SWT;
 public class ScalableLayeredPane extends LayeredPane implements ScalableFigure {
 
 	private double scale = 1.0;
+	private LevelOfDetail levelOfDetail;
 
 	/**
 	 * @see IFigure#getClientArea(Rectangle)
@@ -68,6 +69,17 @@ public class ScalableLayeredPane extends LayeredPane implements ScalableFigure {
 		return d.getExpanded(-w, -h).scale(scale).expand(w, h);
 	}
 
+	/**
+	 * Returns the level of detail of the children, or <code>null</code> if
+	 * they paint all their features in full.
+	 * 
+	 * @return the level of detail or <code>null</code>
+	 * @since 3.7
+	 */
+	public LevelOfDetail getLevelOfDetail() {
+		return levelOfDetail;
+	}
+
 	/**
 	 * Returns the scale level, default is 1.0.
 	 * 
@@ -94,6 +106,7 @@ public class ScalableLayeredPane extends LayeredPane implements ScalableFigure {
 			super.paintClientArea(graphics);
 		} else {
 			ScaledGraphics g = new ScaledGraphics(graphics);
+			g.setLevelOfDetail(levelOfDetail);
 			boolean optimizeClip = getBorder() == null
 					|| getBorder().isOpaque();
 			if (!optimizeClip)
@@ -106,6 +119,21 @@ public class ScalableLayeredPane extends LayeredPane implements ScalableFigure {
 		}
 	}
 
+	/**
+	 * Sets the thresholds below which the children paint cheaper
+	 * representations of their features, or <code>null</code> to paint all
+	 * their features in full, which is the default. The thresholds only take
+	 * effect while the scale is not 1.0.
+	 * 
+	 * @param levelOfDetail
+	 *            the level of detail or <code>null</code>
+	 * @since 3.7
+	 */
+	public void setLevelOfDetail(LevelOfDetail levelOfDetail) {
+		this.levelOfDetail = levelOfDetail;
+		repaint();
+	}
+
 	/**
 	 * Sets the zoom level
 	 * 
@@ -12,8 +12,8 @@
 package org.eclipse.draw2d;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -45,32 +45,77 @@ public class ScaledGraphics extends Graphics {
 		int height;
 	}
 
-	static class FontKey {
-		Font font;
-		int height;
+	/**
+	 * A bounded cache of values, evicting the least recently used ones.
+	 */
+	static class LRUCache extends LinkedHashMap {
+		private final int capacity;
 
-		protected FontKey() {
+		LRUCache(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
 		}
 
-		protected FontKey(Font font, int height) {
-			this.font = font;
-			this.height = height;
+		protected boolean removeEldestEntry(Map.Entry eldest) {
+			return size() > capacity;
 		}
+	}
 
-		public boolean equals(Object obj) {
-			return (((FontKey) obj).font.equals(font) && ((FontKey) obj).height == height);
+	/**
+	 * The zoomed fonts, keyed by their font data. Evicted fonts are not
+	 * disposed, since a scaled graphics may still be using them or restore them
+	 * from a saved state; they are released once no longer referenced.
+	 */
+	static class FontCache extends LRUCache {
+		FontCache(int capacity) {
+			super(capacity);
 		}
 
-		public int hashCode() {
-			return font.hashCode() ^ height;
+		/**
+		 * Disposes all the fonts and clears the cache.
+		 */
+		void disposeAll() {
+			Iterator iter = values().iterator();
+			while (iter.hasNext())
+				((ZoomedFont) iter.next()).font.dispose();
+			clear();
 		}
+	}
 
-		protected void setValues(Font font, int height) {
+	/**
+	 * A zoomed font, its font data and its ascent, which is measured when
+	 * first needed.
+	 */
+	static class ZoomedFont {
+		final Font font;
+		final FontData data;
+		int ascent = -1;
+
+		ZoomedFont(Font font, FontData data) {
 			this.font = font;
-			this.height = height;
+			this.data = data;
 		}
 	}
 
+	/**
+	 * The maximum number of zoomed fonts kept by the shared font cache.
+	 */
+	static final int FONT_CACHE_SIZE = 64;
+
+	/**
+	 * The zoomed fonts of all scaled graphics painting on the display. Since
+	 * font heights are whole points, zooming continuously maps onto a single
+	 * font per zoomed point size, and the same fonts are reused by every
+	 * paint.
+	 */
+	private static final FontCache displayFonts = new FontCache(
+			FONT_CACHE_SIZE);
+
+	/**
+	 * The ascents of unzoomed fonts, keyed by their font data.
+	 */
+	private static final LRUCache ascents = new LRUCache(FONT_CACHE_SIZE);
+
 	/**
 	 * The internal state of the scaled graphics.
 	 */
@@ -189,15 +234,16 @@ public class ScaledGraphics extends Graphics {
 
 	private boolean allowText = true;
 	// private static final Point PT = new Point();
-	private Map fontCache = new HashMap();
-	private Map fontDataCache = new HashMap();
-	private FontKey fontKey = new FontKey();
+	private Font cachedFont;
+	private FontData cachedFontData;
+	private ZoomedFont zoomedFont;
 	private double fractionalX;
 	private double fractionalY;
 	private Graphics graphics;
 	private FontHeightCache localCache = new FontHeightCache();
 	private Font localFont;
 	private float localLineWidth;
+	private LevelOfDetail levelOfDetail;
 	private List stack = new ArrayList();
 	private int stackPointer = 0;
 	private FontHeightCache targetCache = new FontHeightCache();
@@ -276,14 +322,7 @@ public class ScaledGraphics extends Graphics {
 		while (stackPointer > 0) {
 			popState();
 		}
-
-		// Dispose fonts
-		Iterator iter = fontCache.values().iterator();
-		while (iter.hasNext()) {
-			Font font = ((Font) iter.next());
-			font.dispose();
-		}
-
+		// Zoomed fonts are shared by all scaled graphics and never disposed
 	}
 
 	/** @see Graphics#drawArc(int, int, int, int, int, int) */
@@ -514,26 +553,22 @@ public class ScaledGraphics extends Graphics {
 		return graphics.getBackgroundColor();
 	}
 
-	Font getCachedFont(FontKey key) {
-		Font font = (Font) fontCache.get(key);
-		if (font != null) {
-			return font;
+	ZoomedFont getCachedFont(FontData data) {
+		FontCache cache = getFontCache();
+		ZoomedFont font = (ZoomedFont) cache.get(data);
+		if (font == null) {
+			font = new ZoomedFont(createFont(data), data);
+			cache.put(data, font);
 		}
-		key = new FontKey(key.font, key.height);
-		FontData data = key.font.getFontData()[0];
-		data.setHeight(key.height);
-		Font zoomedFont = createFont(data);
-		fontCache.put(key, zoomedFont);
-		return zoomedFont;
+		return font;
 	}
 
 	FontData getCachedFontData(Font f) {
-		FontData data = (FontData) fontDataCache.get(f);
-		if (data == null) {
-			data = getLocalFont().getFontData()[0];
-			fontDataCache.put(f, data);
+		if (f != cachedFont) {
+			cachedFontData = f.getFontData()[0];
+			cachedFont = f;
 		}
-		return data;
+		return cachedFontData;
 	}
 
 	/** @see Graphics#getClip(Rectangle) */
@@ -569,6 +604,15 @@ public class ScaledGraphics extends Graphics {
 		return graphics.getFillRule();
 	}
 
+	/**
+	 * Returns the cache of the zoomed fonts created by {@link #createFont}.
+	 * 
+	 * @return the font cache
+	 */
+	FontCache getFontCache() {
+		return displayFonts;
+	}
+
 	/** @see Graphics#getFont() */
 	public Font getFont() {
 		return getLocalFont();
@@ -591,6 +635,19 @@ public class ScaledGraphics extends Graphics {
 		return graphics.getInterpolation();
 	}
 
+	/**
+	 * Returns the level of detail set on this graphics, or else that of the
+	 * underlying graphics.
+	 * 
+	 * @see Graphics#getLevelOfDetail()
+	 * @since 3.7
+	 */
+	public LevelOfDetail getLevelOfDetail() {
+		if (levelOfDetail != null)
+			return levelOfDetail;
+		return graphics.getLevelOfDetail();
+	}
+
 	/**
 	 * @see Graphics#getLineCap()
 	 */
@@ -836,6 +893,19 @@ public class ScaledGraphics extends Graphics {
 		setLocalLineWidth(attributes.width);
 	}
 
+	/**
+	 * Sets the thresholds below which figures painting on this graphics paint
+	 * cheaper representations of their features. If <code>null</code>, those
+	 * of the underlying graphics are used.
+	 * 
+	 * @param levelOfDetail
+	 *            the level of detail or <code>null</code>
+	 * @since 3.7
+	 */
+	public void setLevelOfDetail(LevelOfDetail levelOfDetail) {
+		this.levelOfDetail = levelOfDetail;
+	}
+
 	private void setLocalFont(Font f) {
 		localFont = f;
 		graphics.setFont(zoomFont(f));
@@ -920,8 +990,21 @@ public class ScaledGraphics extends Graphics {
 		FontData data = getCachedFontData(f);
 		int zoomedFontHeight = zoomFontHeight(data.getHeight());
 		allowText = zoomedFontHeight > 0;
-		fontKey.setValues(f, zoomedFontHeight);
-		return getCachedFont(fontKey);
+		if (zoomedFont == null
+				|| !isZoomedFont(zoomedFont, data, zoomedFontHeight)) {
+			FontData zoomedData = new FontData(data.getName(),
+					zoomedFontHeight, data.getStyle());
+			zoomedFont = getCachedFont(zoomedData);
+		}
+		return zoomedFont.font;
+	}
+
+	private static boolean isZoomedFont(ZoomedFont zoomed, FontData data,
+			int height) {
+		FontData zoomedData = zoomed.data;
+		return zoomedData.getHeight() == height
+				&& zoomedData.getStyle() == data.getStyle()
+				&& zoomedData.getName().equals(data.getName());
 	}
 
 	int zoomFontHeight(int height) {
@@ -1023,17 +1106,34 @@ public class ScaledGraphics extends Graphics {
 		return zoomed;
 	}
 
+	private int getAscent(Font font) {
+		FontData data = getCachedFontData(font);
+		Integer ascent = (Integer) ascents.get(data);
+		if (ascent == null) {
+			ascent = new Integer(getAscent(FigureUtilities.getFontMetrics(font)));
+			ascents.put(data, ascent);
+		}
+		return ascent.intValue();
+	}
+
+	private static int getAscent(FontMetrics metrics) {
+		return metrics.getHeight() - metrics.getDescent();
+	}
+
 	private Point zoomTextPoint(int x, int y) {
 		if (localCache.font != localFont) {
-			// Font is different, re-calculate its height
-			FontMetrics metric = FigureUtilities.getFontMetrics(localFont);
-			localCache.height = metric.getHeight() - metric.getDescent();
+			// Font is different, look up its height
+			localCache.height = getAscent(localFont);
 			localCache.font = localFont;
 		}
 		if (targetCache.font != graphics.getFont()) {
-			FontMetrics metric = graphics.getFontMetrics();
 			targetCache.font = graphics.getFont();
-			targetCache.height = metric.getHeight() - metric.getDescent();
+			if (zoomedFont != null && zoomedFont.font == targetCache.font) {
+				if (zoomedFont.ascent < 0)
+					zoomedFont.ascent = getAscent(graphics.getFontMetrics());
+				targetCache.height = zoomedFont.ascent;
+			} else
+				targetCache.height = getAscent(graphics.getFontMetrics());
 		}
 		return new Point(((int) (Math.floor((x * zoom) + fractionalX))),
 				(int) (Math.floor((y + localCache.height - 1) * zoom
@@ -0,0 +1,228 @@
+/*******************************************************************************
+ * Copyright (c) 2012 Gerhardt Informatics Kft. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Gerhardt Informatics Kft. - GEFGWT port
+ *******************************************************************************/
+package org.eclipse.draw2d;
+
+import java.util.Arrays;
+
+import org.eclipse.swt.graphics.Font;
+
+/**
+ * The measured advances of a string of text in a given font. The text is split
+ * into segments at {@link LineBreaks line-break opportunities} and line
+ * delimiters, and each segment is measured once into an array of cumulative
+ * widths. Segments are found and measured lazily, from the start of the text,
+ * only as far as the offsets and widths asked for, so fitting the first line
+ * of a long text does not measure the rest of it. Widths of prefixes ending
+ * inside a segment are measured the first time they are needed, and kept in
+ * the same array.
+ * <P>
+ * This allows answering "how many characters fit in a given width" with a
+ * binary search over the array instead of re-measuring ever longer substrings.
+ * Since segments are measured separately, widths are exact at segment
+ * boundaries only up to kerning between segments.
+ * <P>
+ * Instances are obtained from {@link TextUtilities#getTextRun(String, Font)}.
+ *
+ * @since 3.7
+ */
+public class TextRun {
+
+	private final String text;
+	private final Font font;
+	private final TextUtilities utilities;
+
+	/**
+	 * The width of the prefix of each length, or -1 if not measured yet. The
+	 * array only covers the text up to the last boundary found.
+	 */
+	private int widths[] = { 0 };
+
+	/**
+	 * The sorted segment boundaries found so far, starting with 0. The text up
+	 * to the last boundary found is measured.
+	 */
+	private int boundaries[] = new int[8];
+	private int boundaryCount = 1;
+
+	/**
+	 * Creates a run for the given text. No text is measured until needed.
+	 *
+	 * @param text
+	 *            the text
+	 * @param font
+	 *            the font
+	 * @param utilities
+	 *            the text utilities used for measuring
+	 */
+	protected TextRun(String text, Font font, TextUtilities utilities) {
+		this.text = text;
+		this.font = font;
+		this.utilities = utilities;
+	}
+
+	/**
+	 * Finds and measures the segment following the last boundary found.
+	 */
+	private void addSegment() {
+		int start = boundaries[boundaryCount - 1];
+		int end = start + 1;
+		while (end < text.length() && !isBoundary(end))
+			end++;
+		if (boundaryCount == boundaries.length) {
+			int grown[] = new int[boundaryCount * 2];
+			System.arraycopy(boundaries, 0, grown, 0, boundaryCount);
+			boundaries = grown;
+		}
+		boundaries[boundaryCount++] = end;
+		if (end >= widths.length) {
+			int grown[] = new int[Math.min(Math.max(end + 1,
+					widths.length * 2), text.length() + 1)];
+			System.arraycopy(widths, 0, grown, 0, widths.length);
+			Arrays.fill(grown, widths.length, grown.length, -1);
+			widths = grown;
+		}
+		widths[end] = widths[start] + measure(start, end);
+	}
+
+	/**
+	 * Returns the index of the last boundary found which is not after the
+	 * given offset.
+	 */
+	private int findSegment(int offset) {
+		int low = 0, high = boundaryCount - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (boundaries[mid] <= offset)
+				low = mid;
+			else
+				high = mid - 1;
+		}
+		return low;
+	}
+
+	private int lastBoundary() {
+		return boundaries[boundaryCount - 1];
+	}
+
+	/**
+	 * Returns the font in which the text was measured.
+	 *
+	 * @return the font
+	 */
+	public Font getFont() {
+		return font;
+	}
+
+	/**
+	 * Returns the largest offset between <code>start</code> and
+	 * <code>end</code>, inclusive, such that the text between
+	 * <code>start</code> and that offset is not wider than the given width.
+	 *
+	 * @param start
+	 *            the start offset
+	 * @param end
+	 *            the maximum offset
+	 * @param width
+	 *            the available width
+	 * @return the largest offset fitting in the width
+	 */
+	public int getLargestOffsetConfinedTo(int start, int end, int width) {
+		int limit = getWidth(start) + width;
+		// measure the segments up to the end or to the first crossing the limit
+		while (lastBoundary() < end && widths[lastBoundary()] <= limit)
+			addSegment();
+		if (lastBoundary() >= end && getWidth(end) <= limit)
+			return end;
+
+		// bisect the segment boundaries
+		int low = findSegment(start);
+		int high = boundaryCount - 1;
+		while (high - low > 1) {
+			int mid = (low + high) >>> 1;
+			if (boundaries[mid] <= end && widths[boundaries[mid]] <= limit)
+				low = mid;
+			else
+				high = mid;
+		}
+
+		// bisect the characters of the segment crossing the limit
+		int min = Math.max(start, boundaries[low]);
+		int max = Math.min(end, boundaries[high]);
+		while (max - min > 1) {
+			int mid = (min + max) >>> 1;
+			if (getWidth(mid) <= limit)
+				min = mid;
+			else
+				max = mid;
+		}
+		return min;
+	}
+
+	/**
+	 * Returns the length of the measured text.
+	 *
+	 * @return the length
+	 */
+	public int length() {
+		return text.length();
+	}
+
+	/**
+	 * Returns the measured text.
+	 *
+	 * @return the text
+	 */
+	public String getText() {
+		return text;
+	}
+
+	/**
+	 * Returns the width of the text from the start to the given offset.
+	 *
+	 * @param offset
+	 *            the end offset
+	 * @return the width of the prefix
+	 */
+	public int getWidth(int offset) {
+		while (lastBoundary() < offset)
+			addSegment();
+		if (widths[offset] < 0) {
+			int start = boundaries[findSegment(offset)];
+			widths[offset] = widths[start] + measure(start, offset);
+		}
+		return widths[offset];
+	}
+
+	/**
+	 * Returns the width of the text between the given offsets.
+	 *
+	 * @param start
+	 *            the start offset
+	 * @param end
+	 *            the end offset
+	 * @return the width of the text between the offsets
+	 */
+	public int getWidth(int start, int end) {
+		return getWidth(end) - getWidth(start);
+	}
+
+	private boolean isBoundary(int offset) {
+		char c = text.charAt(offset);
+		char previous = text.charAt(offset - 1);
+		return c == '\n' || c == '\r' || previous == '\n' || previous == '\r'
+				|| LineBreaks.isLineBreak(text, offset);
+	}
+
+	private int measure(int start, int end) {
+		return utilities.getTextExtents(text.substring(start, end), font).width;
+	}
+
+}
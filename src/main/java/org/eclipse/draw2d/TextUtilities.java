@@ -92,35 +92,24 @@ public class TextUtilities {
 	 */
 	public int getLargestSubstringConfinedTo(String s, Font f,
 			int availableWidth) {
-		FontMetrics metrics = FigureUtilities.getFontMetrics(f);
-		int min, max;
-		float avg = metrics.getAverageCharWidth();
-		min = 0;
-		max = s.length() + 1;
-
-		// The size of the current guess
-		int guess = 0, guessSize = 0;
-		while ((max - min) > 1) {
-			// Pick a new guess size
-			// New guess is the last guess plus the missing width in pixels
-			// divided by the average character size in pixels
-			guess = guess + (int) ((availableWidth - guessSize) / avg);
-
-			if (guess >= max)
-				guess = max - 1;
-			if (guess <= min)
-				guess = min + 1;
-
-			// Measure the current guess
-			guessSize = getTextExtents(s.substring(0, guess), f).width;
+		// the substring must be narrower than the available width
+		return getTextRun(s, f).getLargestOffsetConfinedTo(0, s.length(),
+				availableWidth - 1);
+	}
 
-			if (guessSize < availableWidth)
-				// We did not use the available width
-				min = guess;
-			else
-				// We exceeded the available width
-				max = guess;
-		}
-		return min;
+	/**
+	 * Returns the measured advances of <i>s</i> in Font <i>f</i>. The text is
+	 * measured lazily, as far as the run is queried, so callers should keep
+	 * the run for as long as they query the same text.
+	 * 
+	 * @param s
+	 *            the string
+	 * @param f
+	 *            the font
+	 * @return the text run
+	 * @since 3.7
+	 */
+	public TextRun getTextRun(String s, Font f) {
+		return new TextRun(s, f, this);
 	}
 }
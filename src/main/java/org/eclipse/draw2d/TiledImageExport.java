@@ -0,0 +1,405 @@
+/*******************************************************************************
+ * Copyright (c) 2012 Gerhardt Informatics Kft. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Gerhardt Informatics Kft. - GEFGWT port
+ *******************************************************************************/
+package org.eclipse.draw2d;
+
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.GCData;
+import org.eclipse.swt.graphics.GWTDrawable;
+
+import com.google.gwt.canvas.client.Canvas;
+import com.google.gwt.canvas.dom.client.Context2d;
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.core.client.Scheduler.RepeatingCommand;
+
+/**
+ * Exports a figure and its children as PNG images, at any scale, by painting
+ * it tile by tile into an offscreen canvas of bounded size. This allows
+ * exporting diagrams that are larger than the largest canvas supported by the
+ * browser.
+ * <P>
+ * Each tile is passed on to the {@link Listener} as soon as it is painted. If
+ * the whole image is not larger than the {@link #setMaximumImageArea(int)
+ * maximum image area}, the tiles are also assembled into a single image,
+ * which is passed on when the export completes.
+ * <P>
+ * Figures are painted through {@link IFigure#paint(Graphics)} using an
+ * {@link SWTGraphics}, wrapped in a {@link ScaledGraphics} when the scale is
+ * not 1.
+ *
+ * @since 3.7
+ */
+public class TiledImageExport {
+
+	/**
+	 * Receives the images and the progress of an export.
+	 */
+	public interface Listener {
+		/**
+		 * Called when a tile was painted.
+		 *
+		 * @param export
+		 *            the export
+		 * @param column
+		 *            the column of the tile
+		 * @param row
+		 *            the row of the tile
+		 * @param area
+		 *            the area of the tile in the exported image, in pixels
+		 * @param dataUrl
+		 *            the tile as a PNG data URL
+		 */
+		void tileExported(TiledImageExport export, int column, int row,
+				Rectangle area, String dataUrl);
+
+		/**
+		 * Called after each tile.
+		 *
+		 * @param export
+		 *            the export
+		 * @param done
+		 *            the number of tiles painted
+		 * @param total
+		 *            the total number of tiles
+		 */
+		void progressChanged(TiledImageExport export, int done, int total);
+
+		/**
+		 * Called when all tiles were painted.
+		 *
+		 * @param export
+		 *            the export
+		 * @param dataUrl
+		 *            the assembled image as a PNG data URL, or
+		 *            <code>null</code> if the image is too large to be
+		 *            assembled or the browser failed to encode it
+		 */
+		void exportCompleted(TiledImageExport export, String dataUrl);
+	}
+
+	/**
+	 * The default tile size, in pixels.
+	 */
+	public static final int DEFAULT_TILE_SIZE = 2048;
+
+	/**
+	 * The default maximum area of an assembled image, in pixels. It stays
+	 * within the smallest canvas area supported by the browsers, which is
+	 * 16,777,216 pixels on iOS Safari.
+	 */
+	public static final int DEFAULT_MAXIMUM_IMAGE_AREA = 4096 * 4096;
+
+	/**
+	 * The largest width or height of a canvas supported by the browsers,
+	 * whatever its area.
+	 */
+	private static final int MAXIMUM_CANVAS_SIZE = 32767;
+
+	private static final String PNG = "image/png"; //$NON-NLS-1$
+
+	/**
+	 * The prefix of the data URL of a PNG image. A browser returns an empty
+	 * data URL instead if the canvas is too large to be encoded.
+	 */
+	private static final String PNG_DATA_URL = "data:image/png"; //$NON-NLS-1$
+
+	private final IFigure figure;
+	private final Rectangle area;
+	private final double scale;
+	private final Listener listener;
+
+	private int tileSize = DEFAULT_TILE_SIZE;
+	private int maximumImageArea = DEFAULT_MAXIMUM_IMAGE_AREA;
+	private Color background = ColorConstants.white;
+
+	private Canvas tile;
+	private Canvas image;
+	private int next;
+	private boolean cancelled;
+
+	/**
+	 * Creates an export of the given figure. For a {@link FreeformFigure}, its
+	 * freeform extent is exported, otherwise its bounds.
+	 *
+	 * @param figure
+	 *            the figure to export
+	 * @param scale
+	 *            the scale of the exported image
+	 * @param listener
+	 *            the listener receiving the images
+	 */
+	public TiledImageExport(IFigure figure, double scale, Listener listener) {
+		this(figure,
+				figure instanceof FreeformFigure ? ((FreeformFigure) figure)
+						.getFreeformExtent() : figure.getBounds(), scale,
+				listener);
+	}
+
+	/**
+	 * Creates an export of the given area of a figure.
+	 *
+	 * @param figure
+	 *            the figure to export
+	 * @param area
+	 *            the area to export, in the figure's coordinates
+	 * @param scale
+	 *            the scale of the exported image
+	 * @param listener
+	 *            the listener receiving the images
+	 */
+	public TiledImageExport(IFigure figure, Rectangle area, double scale,
+			Listener listener) {
+		this.figure = figure;
+		this.area = area.getCopy();
+		this.scale = scale;
+		this.listener = listener;
+	}
+
+	/**
+	 * Stops an export started with {@link #start()}. No further tiles are
+	 * painted, and the export is not completed.
+	 */
+	public void cancel() {
+		cancelled = true;
+		dispose();
+	}
+
+	/**
+	 * Creates the canvas the tiles are painted on, and the one they are
+	 * assembled on if the image is small enough.
+	 */
+	private void createCanvases() {
+		tile = createCanvas();
+		int width = getImageWidth();
+		int height = getImageHeight();
+		if ((long) width * height <= maximumImageArea
+				&& width <= MAXIMUM_CANVAS_SIZE
+				&& height <= MAXIMUM_CANVAS_SIZE) {
+			image = createCanvas();
+			image.setCoordinateSpaceWidth(width);
+			image.setCoordinateSpaceHeight(height);
+		}
+	}
+
+	private static Canvas createCanvas() {
+		Canvas canvas = Canvas.createIfSupported();
+		if (canvas == null)
+			throw new UnsupportedOperationException(
+					"The browser does not support the canvas element"); //$NON-NLS-1$
+		return canvas;
+	}
+
+	private void dispose() {
+		tile = null;
+		image = null;
+	}
+
+	/**
+	 * Returns the number of columns of tiles.
+	 *
+	 * @return the number of columns
+	 */
+	public int getColumns() {
+		return (getImageWidth() + tileSize - 1) / tileSize;
+	}
+
+	/**
+	 * Returns the height of the exported image, in pixels.
+	 *
+	 * @return the image height
+	 */
+	public int getImageHeight() {
+		return (int) Math.ceil(area.height * scale);
+	}
+
+	/**
+	 * Returns the width of the exported image, in pixels.
+	 *
+	 * @return the image width
+	 */
+	public int getImageWidth() {
+		return (int) Math.ceil(area.width * scale);
+	}
+
+	/**
+	 * Returns the number of rows of tiles.
+	 *
+	 * @return the number of rows
+	 */
+	public int getRows() {
+		return (getImageHeight() + tileSize - 1) / tileSize;
+	}
+
+	/**
+	 * Returns <code>true</code> if all tiles were painted, or the export was
+	 * cancelled.
+	 *
+	 * @return <code>true</code> if the export is over
+	 */
+	public boolean isDone() {
+		return cancelled || next >= getColumns() * getRows();
+	}
+
+	private boolean isEmpty() {
+		return getImageWidth() <= 0 || getImageHeight() <= 0;
+	}
+
+	/**
+	 * Paints the next tile and notifies the listener, completing the export
+	 * after the last tile.
+	 */
+	private void exportNextTile() {
+		int columns = getColumns();
+		int total = columns * getRows();
+		int column = next % columns;
+		int row = next / columns;
+		Rectangle tileArea = new Rectangle(column * tileSize, row * tileSize,
+				tileSize, tileSize);
+		tileArea.intersect(new Rectangle(0, 0, getImageWidth(),
+				getImageHeight()));
+
+		// resizing the canvas also clears it
+		tile.setCoordinateSpaceWidth(tileArea.width);
+		tile.setCoordinateSpaceHeight(tileArea.height);
+		paintTile(tile.getContext2d(), tileArea);
+
+		next++;
+		listener.tileExported(this, column, row, tileArea,
+				tile.toDataUrl(PNG));
+		if (image != null)
+			image.getContext2d().drawImage(tile.getCanvasElement(),
+					tileArea.x, tileArea.y);
+		listener.progressChanged(this, next, total);
+
+		if (next == total) {
+			String dataUrl = image == null ? null : image.toDataUrl(PNG);
+			if (dataUrl != null && !dataUrl.startsWith(PNG_DATA_URL))
+				dataUrl = null;
+			dispose();
+			listener.exportCompleted(this, dataUrl);
+		}
+	}
+
+	private void paintTile(final Context2d context, Rectangle tileArea) {
+		GC gc = new GC(new GWTDrawable() {
+			public long internal_new_GC(GCData data) {
+				return 0;
+			}
+
+			public void internal_dispose_GC(long handle, GCData data) {
+			}
+
+			public Context2d internal_getContext() {
+				return context;
+			}
+		});
+		SWTGraphics swtGraphics = new SWTGraphics(gc);
+		Graphics graphics = swtGraphics;
+		try {
+			swtGraphics.setClip(new Rectangle(0, 0, tileArea.width,
+					tileArea.height));
+			if (background != null) {
+				swtGraphics.setBackgroundColor(background);
+				swtGraphics.fillRectangle(0, 0, tileArea.width,
+						tileArea.height);
+			}
+			swtGraphics.translate(-tileArea.x, -tileArea.y);
+			if (scale != 1) {
+				graphics = new ScaledGraphics(swtGraphics);
+				graphics.scale(scale);
+			}
+			graphics.translate(-area.x, -area.y);
+			figure.paint(graphics);
+		} finally {
+			if (graphics != swtGraphics)
+				graphics.dispose();
+			swtGraphics.dispose();
+			gc.dispose();
+		}
+	}
+
+	/**
+	 * Paints all the remaining tiles before returning.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             if the browser does not support the canvas element
+	 */
+	public void run() {
+		if (isEmpty()) {
+			listener.exportCompleted(this, null);
+			return;
+		}
+		if (tile == null && !isDone())
+			createCanvases();
+		while (!isDone())
+			exportNextTile();
+	}
+
+	/**
+	 * Sets the background painted below the figure, or <code>null</code> for
+	 * a transparent background. The default is white.
+	 *
+	 * @param color
+	 *            the background color or <code>null</code>
+	 */
+	public void setBackground(Color color) {
+		background = color;
+	}
+
+	/**
+	 * Sets the maximum area, that is width times height, of an image assembled
+	 * from the tiles. Browsers limit the area of a canvas rather than its
+	 * sides, so a long and narrow image can be assembled as well as a square
+	 * one of the same area. Larger images are only exported as tiles.
+	 *
+	 * @param pixels
+	 *            the maximum image area in pixels
+	 */
+	public void setMaximumImageArea(int pixels) {
+		maximumImageArea = pixels;
+	}
+
+	/**
+	 * Sets the width and height of the tiles. Must be called before the export
+	 * is started.
+	 *
+	 * @param size
+	 *            the tile size in pixels
+	 */
+	public void setTileSize(int size) {
+		tileSize = size;
+	}
+
+	/**
+	 * Paints the tiles one by one, as scheduled incremental commands, so that
+	 * the browser stays responsive during the export.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             if the browser does not support the canvas element
+	 */
+	public void start() {
+		if (isEmpty()) {
+			listener.exportCompleted(this, null);
+			return;
+		}
+		createCanvases();
+		Scheduler.get().scheduleIncremental(new RepeatingCommand() {
+			public boolean execute() {
+				if (isDone())
+					return false;
+				exportNextTile();
+				return !isDone();
+			}
+		});
+	}
+
+}
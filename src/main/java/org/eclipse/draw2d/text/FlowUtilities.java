@@ -12,6 +12,8 @@
 package org.eclipse.draw2d.text;
 
 import org.eclipse.draw2d.FigureUtilities;
+import org.eclipse.draw2d.LineBreaks;
+import org.eclipse.draw2d.TextRun;
 import org.eclipse.draw2d.TextUtilities;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Font;
@@ -36,25 +38,28 @@ public class FlowUtilities {
 	 */
 	public static FlowUtilities INSTANCE = new FlowUtilities();
 
-	// TODO: GEFGWT commented out
-	// private static final BreakIterator INTERNAL_LINE_BREAK = BreakIterator
-	// .getLineInstance();
 	private static TextLayout layout;
 
-	// static final BreakIterator LINE_BREAK = BreakIterator.getLineInstance();
+	/**
+	 * The run measured for the text being wrapped. Successive calls to
+	 * {@link #wrapFragmentInContext} receive the remainder of the same text, so
+	 * the run is reused as long as it ends with the given string. The string
+	 * last compared is kept, since each wrap measures the same string many
+	 * times.
+	 */
+	private TextRun run;
+	private int runOffset;
+	private String runString;
+
+	/**
+	 * The end of the characters of the string read or measured by the last
+	 * call to {@link #wrapFragmentInContext}. The wrap does not depend on the
+	 * characters after it, other than through the lookahead.
+	 */
+	int wrapReach;
 
 	static boolean canBreakAfter(char c) {
-		// boolean result = Character.isWhitespace(c) || c == '-';
-		// if (!result && (c < 'a' || c > 'z')) {
-		// chinese characters and such would be caught in here
-		// LINE_BREAK is used here because INTERNAL_LINE_BREAK might be in
-		// use
-		// TODO: GEFGWT commented out
-		//			LINE_BREAK.setText(c + "a"); //$NON-NLS-1$
-		// result = LINE_BREAK.isBoundary(1);
-		// }
-		// return result;
-		return false;
+		return LineBreaks.canBreakAfter(c);
 	}
 
 	private static int findFirstDelimeter(String string) {
@@ -69,6 +74,35 @@ public class FlowUtilities {
 		return Math.min(macNL, unixNL);
 	}
 
+	/**
+	 * Returns the length of the longest common prefix of the given strings.
+	 */
+	static int getCommonPrefixLength(String a, String b) {
+		int length = Math.min(a.length(), b.length());
+		int i = 0;
+		while (i < length && a.charAt(i) == b.charAt(i))
+			i++;
+		return i;
+	}
+
+	/**
+	 * Returns the length of the longest common suffix of the given strings
+	 * which does not overlap their common prefix.
+	 */
+	static int getCommonSuffixLength(String a, String b, int prefix) {
+		int length = Math.min(a.length(), b.length()) - prefix;
+		int i = 0;
+		while (i < length
+				&& a.charAt(a.length() - 1 - i) == b.charAt(b.length() - 1 - i))
+			i++;
+		return i;
+	}
+
+	private static int findNextBreak(String string, int offset) {
+		int next = LineBreaks.following(string, offset);
+		return next == -1 ? string.length() : next;
+	}
+
 	/**
 	 * Gets the average character width.
 	 * 
@@ -151,14 +185,36 @@ public class FlowUtilities {
 
 	private int measureString(TextFragmentBox frag, String string, int guess,
 			Font font) {
+		reach(guess);
 		if (frag.requiresBidi()) {
 			// The text and/or could have changed if the lookAhead was invoked.
 			// This will
 			// happen at most once.
 			return getTextLayoutBounds(string, font, 0, guess - 1).width;
 		} else
-			return getTextUtilities().getTextExtents(
-					string.substring(0, guess), font).width;
+			return getTextRun(string, font).getWidth(runOffset,
+					runOffset + guess);
+	}
+
+	/**
+	 * Records that the wrapped string was read up to the given end.
+	 */
+	private void reach(int end) {
+		if (end > wrapReach)
+			wrapReach = end;
+	}
+
+	private TextRun getTextRun(String string, Font font) {
+		if (string == runString && run.getFont() == font)
+			return run;
+		if (run == null || run.getFont() != font
+				|| !run.getText().endsWith(string)) {
+			run = getTextUtilities().getTextRun(string, font);
+			runOffset = 0;
+		} else
+			runOffset = run.length() - string.length();
+		runString = string;
+		return run;
 	}
 
 	/**
@@ -181,8 +237,7 @@ public class FlowUtilities {
 				width = getTextLayoutBounds(string, font, 0,
 						fragment.length - 1).width;
 			} else
-				width = getTextUtilities().getTextExtents(
-						string.substring(0, fragment.length), font).width;
+				width = measureString(fragment, string, fragment.length, font);
 			if (fragment.isTruncated())
 				width += getEllipsisWidth(font);
 			fragment.setWidth(width);
@@ -213,6 +268,7 @@ public class FlowUtilities {
 			String string, FlowContext context, LookAhead lookahead, Font font,
 			int wrapping) {
 		frag.setTruncated(false);
+		wrapReach = 0;
 		int strLen = string.length();
 		if (strLen == 0) {
 			frag.setWidth(-1);
@@ -221,9 +277,6 @@ public class FlowUtilities {
 			context.addToCurrentLine(frag);
 			return 0;
 		}
-		// TODO: GEFGWT commented out
-		// INTERNAL_LINE_BREAK.setText(string);
-
 		initBidi(frag, string, font);
 		float avgCharWidth = getAverageCharWidth(frag, font);
 		frag.setWidth(-1);
@@ -234,12 +287,12 @@ public class FlowUtilities {
 		int absoluteMin = 0;
 		int max, min = 1;
 		if (wrapping == ParagraphTextLayout.WORD_WRAP_HARD) {
-			// TODO: GEFGWT commented out
-			// absoluteMin = INTERNAL_LINE_BREAK.next();
-			// while (absoluteMin > 0
-			// && Character.isWhitespace(string.charAt(absoluteMin - 1)))
-			// absoluteMin--;
-			// min = Math.max(absoluteMin, 1);
+			absoluteMin = findNextBreak(string, 0);
+			reach(Math.min(absoluteMin + 1, strLen));
+			while (absoluteMin > 0
+					&& LineBreaks.isWhitespace(string.charAt(absoluteMin - 1)))
+				absoluteMin--;
+			min = Math.max(absoluteMin, 1);
 		}
 		int firstDelimiter = findFirstDelimeter(string);
 		if (firstDelimiter == 0)
@@ -297,6 +350,8 @@ public class FlowUtilities {
 
 		int result = min;
 		boolean continueOnLine = false;
+		// the character at min decides where to break
+		reach(Math.min(min + 1, strLen));
 		if (min == strLen) {
 			// Everything fits
 			if (string.charAt(strLen - 1) == ' ') {
@@ -316,6 +371,7 @@ public class FlowUtilities {
 		} else if (min == firstDelimiter) {
 			// move result past the delimiter
 			frag.length = result;
+			reach(Math.min(min + 2, strLen));
 			if (string.charAt(min) == '\r') {
 				result++;
 				if (++min < strLen && string.charAt(min) == '\n')
@@ -324,10 +380,7 @@ public class FlowUtilities {
 				result++;
 		} else if (string.charAt(min) == ' '
 				|| canBreakAfter(string.charAt(min - 1))
-		// TODO: GEFGWT commented out
-		) {
-			// || INTERNAL_LINE_BREAK.isBoundary(min)) {
-			// GEFGWT commented out
+				|| LineBreaks.isLineBreak(string, min)) {
 			frag.length = min;
 			if (string.charAt(min) == ' ')
 				result++;
@@ -338,29 +391,34 @@ public class FlowUtilities {
 		} else
 			out: {
 				// In the middle of an unbreakable offset
-				// TODO: GEFGWT commented out
-				// result = INTERNAL_LINE_BREAK.preceding(min);
+				result = LineBreaks.preceding(string, min);
 				if (result == 0) {
 					switch (wrapping) {
 					case ParagraphTextLayout.WORD_WRAP_TRUNCATE:
 						int truncatedWidth = availableWidth
 								- getEllipsisWidth(font);
 						if (truncatedWidth > 0) {
-							// $TODO this is very slow. It should be using
-							// avgCharWidth to go faster
-							while (min > 0) {
-								guessSize = measureString(frag, string, min,
-										font);
-								if (guessSize <= truncatedWidth)
-									break;
-								min--;
+							if (frag.requiresBidi()) {
+								while (min > 0) {
+									guessSize = measureString(frag, string,
+											min, font);
+									if (guessSize <= truncatedWidth)
+										break;
+									min--;
+								}
+							} else {
+								TextRun textRun = getTextRun(string, font);
+								min = textRun.getLargestOffsetConfinedTo(
+										runOffset, runOffset + min,
+										truncatedWidth)
+										- runOffset;
 							}
 							frag.length = min;
 						} else
 							frag.length = 0;
 						frag.setTruncated(true);
-						// TODO: GEFGWT commented out
-						// result = INTERNAL_LINE_BREAK.following(max - 1);
+						result = findNextBreak(string, max - 1);
+						reach(Math.min(result + 1, strLen));
 						break out;
 
 					default:
@@ -150,9 +150,12 @@ public class InlineFlow extends FlowFigure {
 	}
 
 	/**
-	 * @see FlowFigure#postValidate()
+	 * Returns the smallest rectangle enclosing the fragments of this figure and
+	 * the visible extent of their lines.
+	 * 
+	 * @return the bounds of the fragments
 	 */
-	public void postValidate() {
+	Rectangle getFragmentBounds() {
 		List list = getFragments();
 		FlowBox box;
 		int left = Integer.MAX_VALUE, top = left;
@@ -166,9 +169,16 @@ public class InlineFlow extends FlowFigure {
 			bottom = Math.max(bottom, box.getLineRoot().getVisibleBottom());
 		}
 
-		setBounds(new Rectangle(left, top, right - left, bottom - top));
+		return new Rectangle(left, top, right - left, bottom - top);
+	}
+
+	/**
+	 * @see FlowFigure#postValidate()
+	 */
+	public void postValidate() {
+		setBounds(getFragmentBounds());
 		repaint();
-		list = getChildren();
+		List list = getChildren();
 		for (int i = 0; i < list.size(); i++)
 			((FlowFigure) list.get(i)).postValidate();
 	}
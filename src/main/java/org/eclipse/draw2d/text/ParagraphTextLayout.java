@@ -11,6 +11,8 @@
  *******************************************************************************/
 package org.eclipse.draw2d.text;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.eclipse.swt.graphics.Font;
@@ -44,6 +46,80 @@ public class ParagraphTextLayout extends TextLayout {
 
 	private int wrappingStyle = WORD_WRAP_HARD;
 
+	/**
+	 * The outcome of wrapping a single fragment, along with the state of the
+	 * context in which it was wrapped.
+	 */
+	private static class Wrap {
+		int offset;
+		int advance;
+		int length;
+		int width;
+		boolean truncated;
+		int available;
+		boolean occupied;
+		boolean continued;
+		boolean endedLine;
+		boolean lookedAhead;
+		/** The end of the characters read to wrap the fragment. */
+		int reach;
+	}
+
+	/**
+	 * Forwards to the layout's context, counting the lines ended while a
+	 * fragment is wrapped.
+	 */
+	private static class LineCounter implements FlowContext {
+		FlowContext context;
+		int endedLines;
+
+		public void addToCurrentLine(FlowBox box) {
+			context.addToCurrentLine(box);
+		}
+
+		public void addLine(CompositeBox box) {
+			endedLines++;
+			context.addLine(box);
+		}
+
+		public void endLine() {
+			endedLines++;
+			context.endLine();
+		}
+
+		public int getRemainingLineWidth() {
+			return context.getRemainingLineWidth();
+		}
+
+		public boolean getContinueOnSameLine() {
+			return context.getContinueOnSameLine();
+		}
+
+		public void getWidthLookahead(FlowFigure child, int[] width) {
+			context.getWidthLookahead(child, width);
+		}
+
+		public boolean isCurrentLineOccupied() {
+			return context.isCurrentLineOccupied();
+		}
+
+		public void setContinueOnSameLine(boolean value) {
+			context.setContinueOnSameLine(value);
+		}
+	}
+
+	private final LineCounter counter = new LineCounter();
+
+	/**
+	 * The wraps of the previous layout, which are reused for the parts of the
+	 * text that have not changed since, as long as the context is in the same
+	 * state when they are reached.
+	 */
+	private List previousWraps = Collections.EMPTY_LIST;
+	private String previousText;
+	private Font previousFont;
+	private FlowUtilities previousUtilities;
+
 	/**
 	 * Constructs a new ParagraphTextLayout on the specified TextFlow.
 	 * 
@@ -108,6 +184,7 @@ public class ParagraphTextLayout extends TextLayout {
 		private String segs[];
 		private int[] width;
 		private final int trailingBorderSize;
+		boolean consulted;
 
 		SegmentLookahead(String segs[], int trailingBorderSize) {
 			this.segs = segs;
@@ -115,6 +192,7 @@ public class ParagraphTextLayout extends TextLayout {
 		}
 
 		public int getWidth() {
+			consulted = true;
 			if (width == null) {
 				width = new int[1];
 				int startingIndex = seg + 1;
@@ -142,6 +220,42 @@ public class ParagraphTextLayout extends TextLayout {
 		}
 	}
 
+	/**
+	 * Returns the wrap of the previous layout which can be reused for the
+	 * fragment starting at the given offset, or <code>null</code>. A wrap only
+	 * depends on the characters it read and the state of the context, unless
+	 * it reached the end of the text or consulted the lookahead, where the
+	 * width of the following figures is taken into account. The characters
+	 * read may extend past the ones consumed, up to the guesses that did not
+	 * fit and the characters examined for a line break.
+	 */
+	private Wrap findReusableWrap(String text, int offset, int prefix,
+			int suffix, int[] index) {
+		int previousLength = previousText.length();
+		int old;
+		if (offset < prefix)
+			old = offset;
+		else if (offset >= text.length() - suffix)
+			old = offset - text.length() + previousLength;
+		else
+			return null;
+
+		int i = index[0];
+		while (i < previousWraps.size()
+				&& ((Wrap) previousWraps.get(i)).offset < old)
+			i++;
+		index[0] = i;
+		if (i == previousWraps.size())
+			return null;
+		Wrap wrap = (Wrap) previousWraps.get(i);
+		if (wrap.offset != old || wrap.endedLine || wrap.lookedAhead
+				|| wrap.offset + wrap.advance >= previousLength)
+			return null;
+		if (wrap.reach <= prefix || old >= previousLength - suffix)
+			return wrap;
+		return null;
+	}
+
 	/**
 	 * @see org.eclipse.draw2d.text.FlowFigureLayout#layout()
 	 */
@@ -182,6 +296,20 @@ public class ParagraphTextLayout extends TextLayout {
 		}
 
 		FlowUtilities flowUtilities = textFlow.getFlowUtilities();
+		String text = textFlow.getText();
+		boolean incremental = textFlow.getBidiInfo() == null
+				&& previousText != null && previousFont == font
+				&& previousUtilities == flowUtilities;
+		int prefix = 0, suffix = 0;
+		if (incremental) {
+			prefix = FlowUtilities.getCommonPrefixLength(previousText, text);
+			suffix = FlowUtilities.getCommonSuffixLength(previousText, text,
+					prefix);
+		}
+		int wrapIndex[] = new int[1];
+		List wraps = new ArrayList();
+		counter.context = context;
+
 		for (seg = 0; seg < segments.length; seg++) {
 			segment = segments[seg];
 			lookahead.setIndex(seg);
@@ -192,8 +320,38 @@ public class ParagraphTextLayout extends TextLayout {
 				fragment.offset = offset;
 				fragment.setBidiLevel(levelInfo[seg * 2]);
 
-				advance = flowUtilities.wrapFragmentInContext(fragment,
-						segment, context, lookahead, font, wrappingStyle);
+				Wrap previous = incremental ? findReusableWrap(text, offset,
+						prefix, suffix, wrapIndex) : null;
+				Wrap wrap = new Wrap();
+				wrap.offset = offset;
+				wrap.available = context.getRemainingLineWidth();
+				wrap.occupied = context.isCurrentLineOccupied();
+				wrap.continued = context.getContinueOnSameLine();
+				if (previous != null && previous.available == wrap.available
+						&& previous.occupied == wrap.occupied
+						&& previous.continued == wrap.continued) {
+					fragment.length = previous.length;
+					fragment.setWidth(previous.width);
+					fragment.setTruncated(previous.truncated);
+					context.addToCurrentLine(fragment);
+					context.setContinueOnSameLine(false);
+					advance = previous.advance;
+					wrap.reach = previous.reach + offset - previous.offset;
+				} else {
+					counter.endedLines = 0;
+					lookahead.consulted = false;
+					advance = flowUtilities.wrapFragmentInContext(fragment,
+							segment, counter, lookahead, font, wrappingStyle);
+					wrap.endedLine = counter.endedLines > 0;
+					wrap.lookedAhead = lookahead.consulted;
+					wrap.reach = offset + flowUtilities.wrapReach;
+				}
+				wrap.advance = advance;
+				wrap.length = fragment.length;
+				wrap.width = fragment.getWidth();
+				wrap.truncated = fragment.isTruncated();
+				wraps.add(wrap);
+
 				segment = segment.substring(advance);
 				offset += advance;
 				if ((segment.length() > 0 || fragment.length < advance)
@@ -216,6 +374,17 @@ public class ParagraphTextLayout extends TextLayout {
 		// Remove the remaining unused fragments.
 		while (fragIndex < fragments.size())
 			fragments.remove(fragments.size() - 1);
+
+		counter.context = null;
+		if (textFlow.getBidiInfo() == null) {
+			previousWraps = wraps;
+			previousText = text;
+			previousFont = font;
+			previousUtilities = flowUtilities;
+		} else {
+			previousWraps = Collections.EMPTY_LIST;
+			previousText = null;
+		}
 	}
 
 }
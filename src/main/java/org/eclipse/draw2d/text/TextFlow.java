@@ -11,10 +11,12 @@
  *******************************************************************************/
 package org.eclipse.draw2d.text;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.draw2d.ColorConstants;
 import org.eclipse.draw2d.Graphics;
+import org.eclipse.draw2d.LineBreaks;
 import org.eclipse.draw2d.TextUtilities;
 import org.eclipse.draw2d.geometry.Dimension;
 import org.eclipse.draw2d.geometry.Point;
@@ -41,6 +43,35 @@ public class TextFlow extends InlineFlow {
 	private int selectionEnd = -1;
 	private String text;
 
+	/**
+	 * The text and fragments as of the last validation, used to repaint only
+	 * the fragments which changed when the text is edited. They are recorded
+	 * when the text is first changed after a validation.
+	 */
+	private String validatedText;
+	private List validatedFragments;
+	private boolean validated;
+
+	private static class ValidatedFragment {
+		final int offset;
+		final int length;
+		final boolean truncated;
+		final Rectangle bounds;
+
+		ValidatedFragment(TextFragmentBox box) {
+			offset = box.offset;
+			length = box.length;
+			truncated = box.isTruncated();
+			bounds = getBounds(box);
+		}
+
+		static Rectangle getBounds(TextFragmentBox box) {
+			int top = box.getLineRoot().getVisibleTop();
+			return new Rectangle(box.getX(), top, box.getWidth(), box
+					.getLineRoot().getVisibleBottom() - top);
+		}
+	}
+
 	/**
 	 * Constructs a new TextFlow with the empty String.
 	 * 
@@ -85,21 +116,20 @@ public class TextFlow extends InlineFlow {
 	boolean addLeadingWordWidth(String text, int[] width) {
 		if (text.length() == 0)
 			return false;
-		// if (Character.isWhitespace(text.charAt(0)))
-		// return true;
+		if (LineBreaks.isWhitespace(text.charAt(0)))
+			return true;
 
 		text = 'a' + text + 'a';
-		// TODO: GEFGWT commented out
-		// FlowUtilities.LINE_BREAK.setText(text);
-		// int index = FlowUtilities.LINE_BREAK.next() - 1;
-		int index = 0;
-		// GEFGWT commented out
+		int index = LineBreaks.following(text, 0);
+		if (index == -1)
+			index = text.length();
+		index--;
 
 		if (index == 0)
 			return true;
-		// while (Character.isWhitespace(text.charAt(index)))
-		// index--;
-		// boolean result = index < text.length() - 1;
+		while (LineBreaks.isWhitespace(text.charAt(index)))
+			index--;
+		boolean result = index < text.length() - 1;
 		// index should point to the end of the actual text (not including the
 		// 'a' that was
 		// appended), if there were no breaks
@@ -115,7 +145,7 @@ public class TextFlow extends InlineFlow {
 			textLayout.setText(text);
 			width[0] += textLayout.getBounds().width;
 		}
-		return true;
+		return result;
 	}
 
 	/**
@@ -509,6 +539,60 @@ public class TextFlow extends InlineFlow {
 		return text;
 	}
 
+	/**
+	 * Returns the region to repaint after the text was changed, which covers
+	 * the old and new positions of the fragments that do not display the same
+	 * characters at the same location as before, or <code>null</code> if the
+	 * whole figure must be repainted.
+	 */
+	private Rectangle getTextDamage() {
+		if (validatedFragments == null || bidiInfo != null
+				|| selectionStart != -1 || getBorder() != null)
+			return null;
+		int prefix = FlowUtilities.getCommonPrefixLength(validatedText, text);
+		int suffix = FlowUtilities.getCommonSuffixLength(validatedText, text,
+				prefix);
+		int shift = text.length() - validatedText.length();
+
+		Rectangle damage = null;
+		List fragments = getFragments();
+		boolean matched[] = new boolean[validatedFragments.size()];
+		int j = 0;
+		for (int i = 0; i < fragments.size(); i++) {
+			TextFragmentBox box = (TextFragmentBox) fragments.get(i);
+			Rectangle bounds = ValidatedFragment.getBounds(box);
+			int old = -1;
+			if (box.offset + box.length <= prefix)
+				old = box.offset;
+			else if (box.offset >= text.length() - suffix)
+				old = box.offset - shift;
+			if (old != -1) {
+				while (j < matched.length
+						&& ((ValidatedFragment) validatedFragments.get(j)).offset < old)
+					j++;
+				if (j < matched.length) {
+					ValidatedFragment frag = (ValidatedFragment) validatedFragments
+							.get(j);
+					if (frag.offset == old && frag.length == box.length
+							&& frag.truncated == box.isTruncated()
+							&& frag.bounds.equals(bounds)) {
+						matched[j] = true;
+						continue;
+					}
+				}
+			}
+			damage = damage == null ? bounds : damage.union(bounds);
+		}
+		for (int i = 0; i < matched.length; i++)
+			if (!matched[i]) {
+				Rectangle bounds = ((ValidatedFragment) validatedFragments
+						.get(i)).bounds;
+				damage = damage == null ? bounds.getCopy() : damage
+						.union(bounds);
+			}
+		return damage == null ? new Rectangle() : damage;
+	}
+
 	int getVisibleAscent() {
 		if (getBorder() instanceof FlowBorder) {
 			FlowBorder border = (FlowBorder) getBorder();
@@ -646,6 +730,24 @@ public class TextFlow extends InlineFlow {
 		}
 	}
 
+	/**
+	 * Overridden to repaint only the fragments affected by a change of text,
+	 * when the bounds of this figure did not change.
+	 * 
+	 * @see org.eclipse.draw2d.text.InlineFlow#postValidate()
+	 */
+	public void postValidate() {
+		Rectangle damage = validatedFragments != null ? getTextDamage() : null;
+		validatedFragments = null;
+		validatedText = null;
+		validated = true;
+		if (damage != null && getFragmentBounds().equals(getBounds())) {
+			if (!damage.isEmpty())
+				repaint(damage);
+		} else
+			super.postValidate();
+	}
+
 	/**
 	 * @see org.eclipse.draw2d.text.FlowFigure#setBidiInfo(org.eclipse.draw2d.text.BidiInfo)
 	 */
@@ -687,9 +789,19 @@ public class TextFlow extends InlineFlow {
 	 */
 	public void setText(String s) {
 		if (s != null && !s.equals(text)) {
+			if (validated && validatedFragments == null) {
+				// the changed fragments are repainted once validated
+				List fragments = getFragments();
+				validatedFragments = new ArrayList(fragments.size());
+				for (int i = 0; i < fragments.size(); i++)
+					validatedFragments.add(new ValidatedFragment(
+							(TextFragmentBox) fragments.get(i)));
+				validatedText = text;
+			}
 			text = s;
 			revalidateBidi(this);
-			repaint();
+			if (!validated)
+				repaint();
 		}
 	}
 
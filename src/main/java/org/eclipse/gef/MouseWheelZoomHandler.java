@@ -21,6 +21,10 @@ import org.eclipse.swt.widgets.Event;
  * graphicalViewer.setProperty(MouseWheelHandler.KeyGenerator.getKey(SWT.MOD1), 
  *         MouseWheelZoomHandler.SINGLETON);
  * </code>
+ * <P>
+ * If the viewer's {@link ZoomManager} has a
+ * {@link ZoomManager#setZoomPreviewDelay(int) zoom preview delay}, the zoom
+ * levels are previewed while the wheel is turning, and applied once it stops.
  * 
  * @author Pratik Shah
  * @since 3.1
@@ -45,9 +49,11 @@ public final class MouseWheelZoomHandler implements MouseWheelHandler {
 				.getProperty(ZoomManager.class.toString());
 		if (zoomMgr != null) {
 			if (event.count > 0)
-				zoomMgr.zoomIn();
+				zoomMgr.previewZoom(zoomMgr.getNextZoomLevel(),
+						viewer.getControl());
 			else
-				zoomMgr.zoomOut();
+				zoomMgr.previewZoom(zoomMgr.getPreviousZoomLevel(),
+						viewer.getControl());
 			event.doit = false;
 		}
 	}
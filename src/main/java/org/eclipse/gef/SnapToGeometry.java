@@ -12,10 +12,13 @@
 package org.eclipse.gef;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.Iterator;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.draw2d.IFigure;
 import org.eclipse.draw2d.geometry.PrecisionRectangle;
@@ -137,6 +140,12 @@ public class SnapToGeometry extends SnapToHelper {
 		}
 	}
 
+	private static final Comparator LOCATION_COMPARATOR = new Comparator() {
+		public int compare(Object o1, Object o2) {
+			return ((Entry) o1).location - ((Entry) o2).location;
+		}
+	};
+
 	/**
 	 * The sensitivity of the snapping. Corrections greater than this value will
 	 * not occur.
@@ -163,6 +172,13 @@ public class SnapToGeometry extends SnapToHelper {
 	 */
 	protected GraphicalEditPart container;
 
+	/**
+	 * The arrays sorted by location in {@link #populateRowsAndCols(List)}.
+	 * Entries passed to {@link #getCorrectionFor(Entry[], Map, boolean,
+	 * double, int)} are only searched by bisection when they are one of these.
+	 */
+	private Entry sortedRows[], sortedCols[];
+
 	/**
 	 * Constructs a helper that will use the given part as its basis for
 	 * snapping. The part's contents pane will provide the coordinate system and
@@ -211,18 +227,16 @@ public class SnapToGeometry extends SnapToHelper {
 	 */
 	protected List generateSnapPartsList(List exclusions) {
 		// Don't snap to any figure that is being dragged
-		List children = new ArrayList(container.getChildren());
-		children.removeAll(exclusions);
-
-		// Don't snap to hidden figures
-		List hiddenChildren = new ArrayList();
-		for (Iterator iter = children.iterator(); iter.hasNext();) {
-			GraphicalEditPart child = (GraphicalEditPart) iter.next();
-			if (!child.getFigure().isVisible())
-				hiddenChildren.add(child);
+		Set excluded = exclusions.isEmpty() ? Collections.EMPTY_SET
+				: new HashSet(exclusions);
+		List allChildren = container.getChildren();
+		List children = new ArrayList(allChildren.size());
+		for (int i = 0; i < allChildren.size(); i++) {
+			GraphicalEditPart child = (GraphicalEditPart) allChildren.get(i);
+			// Don't snap to hidden figures
+			if (!excluded.contains(child) && child.getFigure().isVisible())
+				children.add(child);
 		}
-		children.removeAll(hiddenChildren);
-
 		return children;
 	}
 
@@ -290,7 +304,15 @@ public class SnapToGeometry extends SnapToHelper {
 		else
 			property = vert ? KEY_EAST_ANCHOR : KEY_SOUTH_ANCHOR;
 
-		for (int i = 0; i < entries.length; i++) {
+		// Entries sorted by populateRowsAndCols() only need to be visited
+		// within the threshold around the value
+		int start = 0, end = entries.length;
+		if (entries == sortedRows || entries == sortedCols) {
+			start = indexOf(entries, value - resultMag);
+			end = indexOf(entries, value + resultMag + 1);
+		}
+
+		for (int i = start; i < end; i++) {
 			Entry entry = entries[i];
 			double magnitude;
 
@@ -337,7 +359,25 @@ public class SnapToGeometry extends SnapToHelper {
 	}
 
 	/**
-	 * Updates the cached row and column Entries using the provided parts.
+	 * Returns the index of the first entry whose location is not less than the
+	 * given location, in entries sorted by location.
+	 */
+	private static int indexOf(Entry entries[], double location) {
+		int low = 0, high = entries.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (entries[mid].location < location)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
+	}
+
+	/**
+	 * Updates the cached row and column Entries using the provided parts. The
+	 * entries are sorted by location so that corrections can be looked up by
+	 * bisection rather than by scanning every entry on each mouse move.
 	 * 
 	 * @since 3.0
 	 * @param parts
@@ -356,6 +396,10 @@ public class SnapToGeometry extends SnapToHelper {
 			cols[i * 3 + 2] = new Entry(1, bounds.right() - 1);
 			rows[i * 3 + 2] = new Entry(1, bounds.bottom() - 1);
 		}
+		Arrays.sort(rows, LOCATION_COMPARATOR);
+		Arrays.sort(cols, LOCATION_COMPARATOR);
+		sortedRows = rows;
+		sortedCols = cols;
 	}
 
 	/**
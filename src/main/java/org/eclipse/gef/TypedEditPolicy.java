@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (c) 2012 Gerhardt Informatics Kft. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Gerhardt Informatics Kft. - GEFGWT port
+ *******************************************************************************/
+package org.eclipse.gef;
+
+/**
+ * An {@link EditPolicy} which declares the types of the requests it handles.
+ * <P>
+ * An {@link org.eclipse.gef.editparts.AbstractEditPart} only passes the
+ * requests of the declared types to the policy, when computing commands,
+ * target editparts and feedback, and when asked whether it understands a
+ * request. The other policies are passed every request. Since these requests
+ * are sent for every mouse move during a drag, declaring the types saves
+ * calling policies which ignore them.
+ * <P>
+ * A subclass handling additional types of requests must extend
+ * {@link #getRequestTypes()} accordingly.
+ *
+ * @since 3.7
+ */
+public interface TypedEditPolicy extends EditPolicy {
+
+	/**
+	 * Returns the types of the requests this policy handles, compared to
+	 * {@link Request#getType()} with <code>equals</code>, or
+	 * <code>null</code> if the policy handles requests of any type. The types
+	 * are read once, when the policy is first consulted for a request type
+	 * after being installed.
+	 *
+	 * @return the request types, or <code>null</code>
+	 */
+	Object[] getRequestTypes();
+
+}
@@ -81,6 +81,39 @@ public abstract class Command {
 		return result;
 	}
 
+	/**
+	 * Returns <code>true</code> if this command can absorb the given command,
+	 * which is about to be executed immediately after it. This is used by the
+	 * {@link CommandStack} to coalesce high-frequency edits, such as keyboard
+	 * nudges or typing, into a single undoable operation. The default
+	 * implementation returns <code>false</code>.
+	 * 
+	 * @param next
+	 *            the command that will be executed after this one
+	 * @return <code>true</code> if {@link #mergeWith(Command)} may be called
+	 *         with the given command
+	 * @see CommandStack#setMergeWindow(int)
+	 * @since 3.7
+	 */
+	public boolean canMergeWith(Command next) {
+		return false;
+	}
+
+	/**
+	 * Absorbs the given command, which has just been executed, into this
+	 * command. After this call, undoing this command must also undo the
+	 * changes made by <code>next</code>, and redoing it must redo them. The
+	 * stack no longer references <code>next</code> and will not dispose it;
+	 * this command becomes responsible for it. This method is only called
+	 * when {@link #canMergeWith(Command)} returned <code>true</code>.
+	 * 
+	 * @param next
+	 *            the executed command being absorbed
+	 * @since 3.7
+	 */
+	public void mergeWith(Command next) {
+	}
+
 	/**
 	 * This is called to indicate that the <code>Command</code> will not be used
 	 * again. The Command may be in any state (executed, undone or redone) when
@@ -16,6 +16,8 @@ import java.util.EventObject;
 import java.util.List;
 import java.util.Stack;
 
+import org.eclipse.swt.widgets.Display;
+
 /**
  * An implementation of a command stack. A stack manages the executing, undoing,
  * and redoing of {@link Command Commands}. Executed commands are pushed onto a
@@ -27,6 +29,12 @@ import java.util.Stack;
  * the last executed or redone command is different than the command that was at
  * the top of the undo stack when {@link #markSaveLocation()} was last called.
  * Initially, the undo stack is empty, and not dirty.
+ * <P>
+ * A CommandStack can coalesce high-frequency edits. When a merge window is
+ * set, a command executed shortly after the previous one may be absorbed by
+ * it (see {@link Command#canMergeWith(Command)}), so that both are undone in a
+ * single step. With batched notifications enabled, listeners are only
+ * notified once per coalesced edit.
  * 
  * @author hudsonr
  */
@@ -102,6 +110,8 @@ public class CommandStack {
 	public static final int PRE_MASK = new Integer(PRE_EXECUTE | PRE_UNDO
 			| PRE_REDO).intValue();
 
+	private boolean batchNotifications = false;
+
 	private List eventListeners = new ArrayList();
 
 	/**
@@ -112,6 +122,24 @@ public class CommandStack {
 	 */
 	protected List listeners = new ArrayList();
 
+	private long lastExecuteTime;
+
+	private boolean mergeOpen = false;
+
+	/**
+	 * Whether commands were absorbed without notifying the listeners, which
+	 * are then notified when the merge window closes.
+	 */
+	private boolean mergePending = false;
+
+	private final Runnable mergeExpiry = new Runnable() {
+		public void run() {
+			closeMergeWindow();
+		}
+	};
+
+	private int mergeWindow = 0;
+
 	private Stack redoable = new Stack();
 
 	private int saveLocation = 0;
@@ -166,11 +194,37 @@ public class CommandStack {
 		return ((Command) undoable.lastElement()).canUndo();
 	}
 
+	/**
+	 * Ends the current coalesced edit. The next executed command will not be
+	 * merged into the command at the top of the undo stack, regardless of the
+	 * merge window. Editors should call this when an edit must not be
+	 * coalesced with the following ones, e.g. when direct edit is committed.
+	 * Otherwise {@link Command#canMergeWith(Command)} decides.
+	 * <P>
+	 * If commands were absorbed without notification,
+	 * {@link CommandStackListener}s are notified that the stack changed. No
+	 * further {@link #POST_EXECUTE} event is sent, since the top command
+	 * already had its pair of events when it was executed. This also happens
+	 * when the merge window expires.
+	 * 
+	 * @since 3.7
+	 */
+	public void closeMergeWindow() {
+		mergeOpen = false;
+		if (!mergePending)
+			return;
+		mergePending = false;
+		scheduleMergeExpiry(-1);
+		notifyListeners();
+	}
+
 	/**
 	 * This will <code>dispose()</code> all the commands in both the undo and
 	 * redo stack. Both stacks will be empty afterwards.
 	 */
 	public void dispose() {
+		mergeOpen = mergePending = false;
+		scheduleMergeExpiry(-1);
 		flushUndo();
 		flushRedo();
 	}
@@ -186,14 +240,27 @@ public class CommandStack {
 	 * <P>
 	 * If the command is <code>null</code> or cannot be executed, nothing
 	 * happens.
+	 * <P>
+	 * If the command is executed within the merge window of the command at the
+	 * top of the undo stack, and that command can merge with it, the command is
+	 * absorbed by the top command instead of being pushed. In this case, when
+	 * batched notifications are enabled, listeners are only notified once the
+	 * merge window closes.
 	 * 
 	 * @param command
 	 *            the Command to execute
 	 * @see CommandStackEventListener
+	 * @see #setMergeWindow(int)
 	 */
 	public void execute(Command command) {
 		if (command == null || !command.canExecute())
 			return;
+		Command target = getMergeTarget(command);
+		if (target != null) {
+			executeMerged(target, command);
+			return;
+		}
+		closeMergeWindow();
 		flushRedo();
 		notifyListeners(command, PRE_EXECUTE);
 		try {
@@ -209,17 +276,39 @@ public class CommandStack {
 				saveLocation = -1; // The save point was somewhere in the redo
 									// stack
 			undoable.push(command);
+			openMergeWindow();
 			notifyListeners();
 		} finally {
 			notifyListeners(command, POST_EXECUTE);
 		}
 	}
 
+	private void executeMerged(Command target, Command command) {
+		boolean notify = !isBatchNotifications();
+		if (notify)
+			notifyListeners(command, PRE_EXECUTE);
+		try {
+			command.execute();
+			target.mergeWith(command);
+			openMergeWindow();
+			if (notify)
+				notifyListeners();
+			else {
+				mergePending = true;
+				scheduleMergeExpiry(mergeWindow);
+			}
+		} finally {
+			if (notify)
+				notifyListeners(command, POST_EXECUTE);
+		}
+	}
+
 	/**
 	 * Flushes the entire stack and resets the save location to zero. This
 	 * method might be called when performing "revert to saved".
 	 */
 	public void flush() {
+		closeMergeWindow();
 		flushRedo();
 		flushUndo();
 		saveLocation = 0;
@@ -247,6 +336,33 @@ public class CommandStack {
 		return commands.toArray();
 	}
 
+	/**
+	 * Returns the command at the top of the undo stack if it can absorb the
+	 * given command, or <code>null</code>. Merging is refused when the redo
+	 * stack is not empty, or when the top command is the save location, since
+	 * absorbing would then change the model without changing the dirty state.
+	 */
+	private Command getMergeTarget(Command command) {
+		if (!mergeOpen || mergeWindow <= 0 || undoable.isEmpty()
+				|| !redoable.isEmpty() || saveLocation == undoable.size())
+			return null;
+		if (System.currentTimeMillis() - lastExecuteTime > mergeWindow)
+			return null;
+		Command top = (Command) undoable.peek();
+		return top.canMergeWith(command) ? top : null;
+	}
+
+	/**
+	 * Returns the merge window in milliseconds. <code>0</code> indicates that
+	 * commands are never merged.
+	 * 
+	 * @return the merge window
+	 * @since 3.7
+	 */
+	public int getMergeWindow() {
+		return mergeWindow;
+	}
+
 	/**
 	 * Peeks at the top of the <i>redo</i> stack. This is useful for describing
 	 * to the User what will be redone. The returned <code>Command</code> has a
@@ -280,6 +396,17 @@ public class CommandStack {
 		return undoLimit;
 	}
 
+	/**
+	 * Returns <code>true</code> if listeners are only notified once per
+	 * coalesced edit.
+	 * 
+	 * @return <code>true</code> if notifications are batched
+	 * @since 3.7
+	 */
+	public boolean isBatchNotifications() {
+		return batchNotifications;
+	}
+
 	/**
 	 * Returns true if the stack is dirty. The stack is dirty whenever the last
 	 * executed or redone command is different than the command that was at the
@@ -301,6 +428,21 @@ public class CommandStack {
 		notifyListeners();
 	}
 
+	private void openMergeWindow() {
+		mergeOpen = true;
+		lastExecuteTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * Closes the merge window after the given delay, or never if it is
+	 * negative.
+	 */
+	private void scheduleMergeExpiry(int delay) {
+		Display display = Display.getCurrent();
+		if (display != null)
+			display.timerExec(delay, mergeExpiry);
+	}
+
 	/**
 	 * Sends notification to all {@link CommandStackListener}s.
 	 * 
@@ -339,6 +481,7 @@ public class CommandStack {
 		// Assert.isTrue(canRedo())
 		if (!canRedo())
 			return;
+		closeMergeWindow();
 		Command command = (Command) redoable.pop();
 		notifyListeners(command, PRE_REDO);
 		try {
@@ -371,6 +514,38 @@ public class CommandStack {
 		listeners.remove(listener);
 	}
 
+	/**
+	 * Sets whether listeners are notified for commands absorbed into a
+	 * coalesced edit. When enabled, only the first command of a coalesced edit
+	 * fires {@link #PRE_EXECUTE}, {@link #POST_EXECUTE} and
+	 * {@link CommandStackListener} notifications; absorbed commands execute
+	 * silently, since they do not change the shape of the undo stack. The
+	 * listeners are notified once more when the merge window closes, so that
+	 * they see the final state of the coalesced edit.
+	 * 
+	 * @see #closeMergeWindow()
+	 * 
+	 * @param value
+	 *            <code>true</code> to batch notifications
+	 * @since 3.7
+	 */
+	public void setBatchNotifications(boolean value) {
+		batchNotifications = value;
+	}
+
+	/**
+	 * Sets the merge window. A command executed within this many milliseconds
+	 * of the previous execution may be absorbed by the command at the top of
+	 * the undo stack. <code>0</code>, the default, disables merging.
+	 * 
+	 * @param millis
+	 *            the merge window in milliseconds
+	 * @since 3.7
+	 */
+	public void setMergeWindow(int millis) {
+		mergeWindow = millis;
+	}
+
 	/**
 	 * Sets the undo limit. The undo limit is the maximum number of atomic
 	 * operations that the User can undo. <code>-1</code> is used to indicate no
@@ -390,6 +565,7 @@ public class CommandStack {
 	 */
 	public void undo() {
 		// Assert.isTrue(canUndo());
+		closeMergeWindow();
 		Command command = (Command) undoable.pop();
 		notifyListeners(command, PRE_UNDO);
 		try {
@@ -31,6 +31,7 @@ import org.eclipse.gef.EditPolicy;
 import org.eclipse.gef.Request;
 import org.eclipse.gef.RequestConstants;
 import org.eclipse.gef.RootEditPart;
+import org.eclipse.gef.TypedEditPolicy;
 import org.eclipse.gef.commands.Command;
 import org.eclipse.gef.editpolicies.SelectionEditPolicy;
 
@@ -77,6 +78,15 @@ public abstract class AbstractEditPart implements EditPart, RequestConstants,
 
 	private Object policies[];
 
+	/**
+	 * The installed EditPolicies to consult for each request type, in the order
+	 * they were installed. Built on demand, and discarded when an EditPolicy
+	 * is installed or removed.
+	 */
+	private Map policiesByType;
+
+	private static final EditPolicy[] NO_POLICIES = new EditPolicy[0];
+
 	/**
 	 * The List of children EditParts
 	 */
@@ -355,9 +365,9 @@ public abstract class AbstractEditPart implements EditPart, RequestConstants,
 	 */
 	public void eraseSourceFeedback(Request request) {
 		if (isActive()) {
-			EditPolicyIterator iter = getEditPolicyIterator();
-			while (iter.hasNext())
-				iter.next().eraseSourceFeedback(request);
+			EditPolicy editPolicies[] = getEditPolicies(request.getType());
+			for (int i = 0; i < editPolicies.length; i++)
+				editPolicies[i].eraseSourceFeedback(request);
 		}
 	}
 
@@ -380,9 +390,9 @@ public abstract class AbstractEditPart implements EditPart, RequestConstants,
 	 */
 	public void eraseTargetFeedback(Request request) {
 		if (isActive()) {
-			EditPolicyIterator iter = getEditPolicyIterator();
-			while (iter.hasNext())
-				iter.next().eraseTargetFeedback(request);
+			EditPolicy editPolicies[] = getEditPolicies(request.getType());
+			for (int i = 0; i < editPolicies.length; i++)
+				editPolicies[i].eraseTargetFeedback(request);
 		}
 	}
 
@@ -501,12 +511,12 @@ public abstract class AbstractEditPart implements EditPart, RequestConstants,
 	 */
 	public Command getCommand(Request request) {
 		Command command = null;
-		EditPolicyIterator i = getEditPolicyIterator();
-		while (i.hasNext()) {
+		EditPolicy editPolicies[] = getEditPolicies(request.getType());
+		for (int i = 0; i < editPolicies.length; i++) {
 			if (command != null)
-				command = command.chain(i.next().getCommand(request));
+				command = command.chain(editPolicies[i].getCommand(request));
 			else
-				command = i.next().getCommand(request);
+				command = editPolicies[i].getCommand(request);
 		}
 		return command;
 	}
@@ -534,6 +544,50 @@ public abstract class AbstractEditPart implements EditPart, RequestConstants,
 		return null;
 	}
 
+	/**
+	 * Returns the installed EditPolicies to consult for requests of the given
+	 * type, in the order they were installed: the {@link TypedEditPolicy
+	 * TypedEditPolicies} declaring the type, and the other EditPolicies. The
+	 * returned array must not be modified.
+	 * 
+	 * @param requestType
+	 *            the request type
+	 * @return the EditPolicies
+	 */
+	private EditPolicy[] getEditPolicies(Object requestType) {
+		if (policies == null)
+			return NO_POLICIES;
+		if (policiesByType == null)
+			policiesByType = new HashMap();
+		EditPolicy result[] = (EditPolicy[]) policiesByType.get(requestType);
+		if (result == null) {
+			List list = new ArrayList(policies.length / 2);
+			for (int i = 1; i < policies.length; i += 2) {
+				EditPolicy policy = (EditPolicy) policies[i];
+				if (policy != null && handlesRequestType(policy, requestType))
+					list.add(policy);
+			}
+			result = (EditPolicy[]) list.toArray(new EditPolicy[list.size()]);
+			policiesByType.put(requestType, result);
+		}
+		return result;
+	}
+
+	private static boolean handlesRequestType(EditPolicy policy,
+			Object requestType) {
+		if (!(policy instanceof TypedEditPolicy))
+			return true;
+		Object types[] = ((TypedEditPolicy) policy).getRequestTypes();
+		if (types == null)
+			return true;
+		for (int i = 0; i < types.length; i++) {
+			if (types[i] == null ? requestType == null : types[i]
+					.equals(requestType))
+				return true;
+		}
+		return false;
+	}
+
 	/**
 	 * Used internally to iterate over the installed EditPolicies. While
 	 * EditPolicy slots may be reserved with <code>null</code>, the iterator
@@ -627,10 +681,10 @@ public abstract class AbstractEditPart implements EditPart, RequestConstants,
 	 * @see EditPolicy#getTargetEditPart(Request)
 	 */
 	public EditPart getTargetEditPart(Request request) {
-		EditPolicyIterator i = getEditPolicyIterator();
+		EditPolicy editPolicies[] = getEditPolicies(request.getType());
 		EditPart editPart;
-		while (i.hasNext()) {
-			editPart = i.next().getTargetEditPart(request);
+		for (int i = 0; i < editPolicies.length; i++) {
+			editPart = editPolicies[i].getTargetEditPart(request);
 			if (editPart != null)
 				return editPart;
 		}
@@ -666,6 +720,7 @@ public abstract class AbstractEditPart implements EditPart, RequestConstants,
 	 */
 	public void installEditPolicy(Object key, EditPolicy editPolicy) {
 		Assert.isNotNull(key, "Edit Policies must be installed with keys");//$NON-NLS-1$
+		policiesByType = null;
 		if (policies == null) {
 			policies = new Object[2];
 			policies[0] = key;
@@ -917,6 +972,7 @@ public abstract class AbstractEditPart implements EditPart, RequestConstants,
 	public void removeEditPolicy(Object key) {
 		if (policies == null)
 			return;
+		policiesByType = null;
 		for (int i = 0; i < policies.length; i += 2) {
 			if (key.equals(policies[i])) {
 				i++;
@@ -1095,9 +1151,9 @@ public abstract class AbstractEditPart implements EditPart, RequestConstants,
 	public void showSourceFeedback(Request request) {
 		if (!isActive())
 			return;
-		EditPolicyIterator i = getEditPolicyIterator();
-		while (i.hasNext())
-			i.next().showSourceFeedback(request);
+		EditPolicy editPolicies[] = getEditPolicies(request.getType());
+		for (int i = 0; i < editPolicies.length; i++)
+			editPolicies[i].showSourceFeedback(request);
 	}
 
 	/**
@@ -1121,9 +1177,9 @@ public abstract class AbstractEditPart implements EditPart, RequestConstants,
 	public void showTargetFeedback(Request request) {
 		if (!isActive())
 			return;
-		EditPolicyIterator i = getEditPolicyIterator();
-		while (i.hasNext())
-			i.next().showTargetFeedback(request);
+		EditPolicy editPolicies[] = getEditPolicies(request.getType());
+		for (int i = 0; i < editPolicies.length; i++)
+			editPolicies[i].showTargetFeedback(request);
 	}
 
 	/**
@@ -1153,9 +1209,9 @@ public abstract class AbstractEditPart implements EditPart, RequestConstants,
 	 * @see EditPart#understandsRequest(Request)
 	 */
 	public boolean understandsRequest(Request req) {
-		EditPolicyIterator iter = getEditPolicyIterator();
-		while (iter.hasNext()) {
-			if (iter.next().understandsRequest(req))
+		EditPolicy editPolicies[] = getEditPolicies(req.getType());
+		for (int i = 0; i < editPolicies.length; i++) {
+			if (editPolicies[i].understandsRequest(req))
 				return true;
 		}
 		return false;
@@ -15,19 +15,26 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.draw2d.FreeformFigure;
 import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.LevelOfDetail;
 import org.eclipse.draw2d.ScalableFigure;
 import org.eclipse.draw2d.ScalableFreeformLayeredPane;
+import org.eclipse.draw2d.ScalableLayeredPane;
+import org.eclipse.draw2d.UpdateListener;
+import org.eclipse.draw2d.UpdateManager;
 import org.eclipse.draw2d.Viewport;
 import org.eclipse.draw2d.geometry.Dimension;
 import org.eclipse.draw2d.geometry.Point;
 import org.eclipse.draw2d.geometry.Rectangle;
 import org.eclipse.gef.SharedMessages;
+import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
 
+import com.google.gwt.canvas.client.Canvas;
 import com.ibm.icu.text.DecimalFormat;
 import com.ibm.icu.text.NumberFormat;
 
@@ -65,6 +72,40 @@ public class ZoomManager {
 
 	private double multiplier = 1.0;
 	private ScalableFigure pane;
+	private ZoomPreview preview;
+	private int previewDelay;
+	private double previewZoom;
+	private UpdateManager previewUpdateManager;
+
+	/**
+	 * Applies the previewed zoom level once the preview delay elapsed.
+	 */
+	private final Runnable previewExpiry = new Runnable() {
+		public void run() {
+			if (preview != null)
+				setZoom(previewZoom);
+		}
+	};
+
+	/**
+	 * Paints the preview again over the figures painted while it is showing.
+	 */
+	private final Runnable previewRepaint = new Runnable() {
+		public void run() {
+			if (preview != null)
+				preview.paint(previewZoom / zoom);
+		}
+	};
+
+	private final UpdateListener previewListener = new UpdateListener() {
+		public void notifyPainting(Rectangle damage, Map dirtyRegions) {
+			// runs after the damage is painted, in the same update
+			previewUpdateManager.runWithUpdate(previewRepaint);
+		}
+
+		public void notifyValidating() {
+		}
+	};
 	private Viewport viewport;
 	private double zoom = 1.0;
 	// private int zoomAnimationStyle = ANIMATE_NEVER;
@@ -148,6 +189,24 @@ public class ZoomManager {
 		return getZoom() > getMinZoom();
 	}
 
+	/**
+	 * Ends the zoom preview, if any, without applying its zoom level.
+	 * 
+	 * @return <code>true</code> if a preview was ended
+	 */
+	private boolean cancelZoomPreview() {
+		if (preview == null)
+			return false;
+		preview.dispose();
+		preview = null;
+		if (previewUpdateManager != null) {
+			previewUpdateManager.removeUpdateListener(previewListener);
+			previewUpdateManager = null;
+		}
+		Display.getCurrent().timerExec(-1, previewExpiry);
+		return true;
+	}
+
 	/**
 	 * Notifies listeners that the zoom level has changed.
 	 */
@@ -225,6 +284,22 @@ public class ZoomManager {
 		return getFitXZoomLevel(0);
 	}
 
+	/**
+	 * Returns the thresholds below which the figures of the viewer paint
+	 * cheaper representations of their features, or <code>null</code> if they
+	 * paint all their features in full.
+	 * 
+	 * @return the level of detail or <code>null</code>
+	 * @since 3.7
+	 */
+	public LevelOfDetail getLevelOfDetail() {
+		if (pane instanceof ScalableFreeformLayeredPane)
+			return ((ScalableFreeformLayeredPane) pane).getLevelOfDetail();
+		if (pane instanceof ScalableLayeredPane)
+			return ((ScalableLayeredPane) pane).getLevelOfDetail();
+		return null;
+	}
+
 	/**
 	 * Returns the maxZoom.
 	 * 
@@ -262,6 +337,7 @@ public class ZoomManager {
 	 * @return double The next zoom level
 	 */
 	public double getNextZoomLevel() {
+		double zoom = getTargetZoom();
 		for (int i = 0; i < zoomLevels.length; i++)
 			if (zoomLevels[i] > zoom)
 				return zoomLevels[i];
@@ -284,6 +360,7 @@ public class ZoomManager {
 	 * @return double The previous zoom level
 	 */
 	public double getPreviousZoomLevel() {
+		double zoom = getTargetZoom();
 		for (int i = 1; i < zoomLevels.length; i++)
 			if (zoomLevels[i] >= zoom)
 				return zoomLevels[i - 1];
@@ -299,6 +376,13 @@ public class ZoomManager {
 		return pane;
 	}
 
+	/**
+	 * Returns the zoom level being previewed, or else the current zoom level.
+	 */
+	private double getTargetZoom() {
+		return preview != null ? previewZoom : zoom;
+	}
+
 	/**
 	 * Returns the viewport.
 	 * 
@@ -317,6 +401,18 @@ public class ZoomManager {
 		return zoom;
 	}
 
+	/**
+	 * Returns the delay after which a zoom level passed to
+	 * {@link #previewZoom(double, Control)} is applied, or 0 if zoom levels
+	 * are applied immediately.
+	 * 
+	 * @return the delay in milliseconds
+	 * @since 3.7
+	 */
+	public int getZoomPreviewDelay() {
+		return previewDelay;
+	}
+
 	/**
 	 * Returns the current zoom level as a percentage formatted String
 	 * 
@@ -392,6 +488,51 @@ public class ZoomManager {
 		setViewLocation(p);
 	}
 
+	/**
+	 * Shows the given zoom level by scaling a bitmap of the viewport, and
+	 * applies it once no other zoom level was previewed for the
+	 * {@link #setZoomPreviewDelay(int) preview delay}. Until then, the figures
+	 * are neither validated nor painted at the new zoom level, and
+	 * {@link #getZoom()} returns the previous level; figures repainted in the
+	 * meantime are covered by the bitmap again. Successive previews scale the
+	 * bitmap taken by the first one, so this suits continuous gestures such as
+	 * wheel or pinch zooming.
+	 * <P>
+	 * If the delay is 0, or the control does not paint on a canvas, the zoom
+	 * level is applied immediately as with {@link #setZoom(double)}.
+	 * 
+	 * @param zoom
+	 *            the zoom level to preview
+	 * @param control
+	 *            the control the viewport is painted on
+	 * @since 3.7
+	 */
+	public void previewZoom(double zoom, Control control) {
+		zoom = Math.min(getMaxZoom(), zoom);
+		zoom = Math.max(getMinZoom(), zoom);
+		Object widget = control == null ? null : control.getNativeWidget();
+		if (previewDelay <= 0 || !(widget instanceof Canvas)) {
+			setZoom(zoom);
+			return;
+		}
+		if (preview == null) {
+			if (zoom == this.zoom)
+				return;
+			Rectangle area = viewport.getBounds().getCropped(
+					viewport.getInsets());
+			viewport.translateToAbsolute(area);
+			preview = new ZoomPreview((Canvas) widget, area,
+					viewport.getBackgroundColor());
+			previewUpdateManager = viewport.getUpdateManager();
+			if (previewUpdateManager != null)
+				previewUpdateManager.addUpdateListener(previewListener);
+		}
+		previewZoom = zoom;
+		preview.paint(zoom / this.zoom);
+		// restarts the delay if a previous preview is pending
+		Display.getCurrent().timerExec(previewDelay, previewExpiry);
+	}
+
 	/**
 	 * Removes the given ZoomListener from this ZoomManager's list of listeners.
 	 * 
@@ -402,6 +543,28 @@ public class ZoomManager {
 		listeners.remove(listener);
 	}
 
+	/**
+	 * Sets the thresholds below which the figures of the viewer paint cheaper
+	 * representations of their features, such as boxes in place of text. The
+	 * thresholds are compared to the effective scale, that is the zoom level
+	 * times any scale applied above the scalable figure. Only has an effect if
+	 * the scalable figure is a {@link ScalableFreeformLayeredPane} or a
+	 * {@link ScalableLayeredPane}.
+	 * 
+	 * @param levelOfDetail
+	 *            the level of detail, for example <code>new
+	 *            LevelOfDetail()</code> for the recommended thresholds, or
+	 *            <code>null</code> to paint all features in full
+	 * @since 3.7
+	 */
+	public void setLevelOfDetail(LevelOfDetail levelOfDetail) {
+		if (pane instanceof ScalableFreeformLayeredPane)
+			((ScalableFreeformLayeredPane) pane)
+					.setLevelOfDetail(levelOfDetail);
+		else if (pane instanceof ScalableLayeredPane)
+			((ScalableLayeredPane) pane).setLevelOfDetail(levelOfDetail);
+	}
+
 	/**
 	 * Sets the UI multiplier. The UI multiplier is applied to all zoom settings
 	 * when they are presented to the user ({@link #getZoomAsText()}).
@@ -439,10 +602,29 @@ public class ZoomManager {
 	 *            the new zoom level
 	 */
 	public void setZoom(double zoom) {
+		boolean previewed = cancelZoomPreview();
 		zoom = Math.min(getMaxZoom(), zoom);
 		zoom = Math.max(getMinZoom(), zoom);
 		if (this.zoom != zoom)
 			primSetZoom(zoom);
+		else if (previewed)
+			// paint over the preview
+			viewport.repaint();
+	}
+
+	/**
+	 * Sets the delay after which a zoom level passed to
+	 * {@link #previewZoom(double, Control)} is applied. The default is 0,
+	 * which applies zoom levels immediately.
+	 * 
+	 * @param milliseconds
+	 *            the delay in milliseconds
+	 * @since 3.7
+	 */
+	public void setZoomPreviewDelay(int milliseconds) {
+		previewDelay = milliseconds;
+		if (milliseconds <= 0 && preview != null)
+			setZoom(previewZoom);
 	}
 
 	/**
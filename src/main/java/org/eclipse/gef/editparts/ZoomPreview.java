@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2012 Gerhardt Informatics Kft. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Gerhardt Informatics Kft. - GEFGWT port
+ *******************************************************************************/
+package org.eclipse.gef.editparts;
+
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.swt.graphics.Color;
+
+import com.google.gwt.canvas.client.Canvas;
+import com.google.gwt.canvas.dom.client.Context2d;
+
+/**
+ * A bitmap of an area of a canvas, painted back into that area at other
+ * scales. Used by the {@link ZoomManager} to preview zoom levels without
+ * validating and painting the figures.
+ */
+class ZoomPreview {
+
+	private final Canvas canvas;
+	private final Rectangle area;
+	private final String background;
+	private Canvas snapshot;
+
+	/**
+	 * Copies the given area of the canvas.
+	 *
+	 * @param canvas
+	 *            the canvas
+	 * @param area
+	 *            the area, in canvas coordinates
+	 * @param background
+	 *            the color filling the area around the scaled bitmap
+	 */
+	ZoomPreview(Canvas canvas, Rectangle area, Color background) {
+		this.canvas = canvas;
+		this.area = area.getCopy();
+		this.background = "rgb(" + background.getRed() + "," //$NON-NLS-1$ //$NON-NLS-2$
+				+ background.getGreen() + "," + background.getBlue() + ")"; //$NON-NLS-1$ //$NON-NLS-2$
+		snapshot = Canvas.createIfSupported();
+		snapshot.setCoordinateSpaceWidth(area.width);
+		snapshot.setCoordinateSpaceHeight(area.height);
+		snapshot.getContext2d().drawImage(canvas.getCanvasElement(), area.x,
+				area.y, area.width, area.height, 0, 0, area.width, area.height);
+	}
+
+	/**
+	 * Releases the bitmap.
+	 */
+	void dispose() {
+		snapshot = null;
+	}
+
+	/**
+	 * Paints the bitmap at the given scale, relative to the scale it was
+	 * copied at, keeping the center of the area in place.
+	 *
+	 * @param scale
+	 *            the relative scale
+	 */
+	void paint(double scale) {
+		if (snapshot == null)
+			return;
+		Context2d context = canvas.getContext2d();
+		context.save();
+		context.beginPath();
+		context.rect(area.x, area.y, area.width, area.height);
+		context.clip();
+		context.setFillStyle(background);
+		context.fillRect(area.x, area.y, area.width, area.height);
+		double width = area.width * scale;
+		double height = area.height * scale;
+		context.drawImage(snapshot.getCanvasElement(), area.x
+				+ (area.width - width) / 2, area.y + (area.height - height)
+				/ 2, width, height);
+		context.restore();
+	}
+
+}
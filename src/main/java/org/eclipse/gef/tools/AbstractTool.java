@@ -76,6 +76,14 @@ public abstract class AbstractTool extends org.eclipse.gef.util.FlagSupport
 	 */
 	public static final Object PROPERTY_UNLOAD_WHEN_FINISHED = "unloadWhenFinished"; //$NON-NLS-1$
 
+	/**
+	 * The property to be used in {@link #setProperties(Map)} for
+	 * {@link #setCoalesceMouseMoves(boolean)}
+	 * 
+	 * @since 3.7
+	 */
+	public static final Object PROPERTY_COALESCE_MOUSE_MOVES = "coalesceMouseMoves"; //$NON-NLS-1$
+
 	private static final int DRAG_THRESHOLD = 5;
 	private static final int FLAG_ACTIVE = 8;
 	private static final int FLAG_HOVER = 2;
@@ -182,6 +190,7 @@ public abstract class AbstractTool extends org.eclipse.gef.util.FlagSupport
 	private long accessibleBegin;
 
 	private int accessibleStep;
+	private boolean coalesceMouseMoves = true;
 	private Command command;
 
 	private CommandStackEventListener commandStackListener = new CommandStackEventListener() {
@@ -298,6 +307,12 @@ public abstract class AbstractTool extends org.eclipse.gef.util.FlagSupport
 			return;
 		}
 
+		if (PROPERTY_COALESCE_MOUSE_MOVES.equals(key)) {
+			if (value instanceof Boolean)
+				setCoalesceMouseMoves(((Boolean) value).booleanValue());
+			return;
+		}
+
 		if (!(key instanceof String))
 			return;
 
@@ -938,6 +953,17 @@ public abstract class AbstractTool extends org.eclipse.gef.util.FlagSupport
 		return (getCurrentViewer().getControl().getStyle() & SWT.MIRRORED) != 0;
 	}
 
+	/**
+	 * Returns <code>true</code> if the viewer may coalesce mouse moves sent to
+	 * this tool to at most one per frame.
+	 * 
+	 * @return <code>true</code> if mouse moves may be coalesced
+	 * @since 3.7
+	 */
+	public boolean isCoalescingMouseMoves() {
+		return coalesceMouseMoves;
+	}
+
 	/**
 	 * Returns <code>true</code> if the tool is hovering.
 	 * 
@@ -1363,6 +1389,21 @@ public abstract class AbstractTool extends org.eclipse.gef.util.FlagSupport
 		setFlag(FLAG_HOVER, false);
 	}
 
+	/**
+	 * Sets whether the viewer may coalesce mouse moves sent to this tool to at
+	 * most one per frame, keeping only the latest location and button state.
+	 * Tools that need every mouse sample, such as free-hand drawing tools,
+	 * should set this to <code>false</code>. The default value is
+	 * <code>true</code>.
+	 * 
+	 * @param value
+	 *            whether mouse moves may be coalesced
+	 * @since 3.7
+	 */
+	public void setCoalesceMouseMoves(boolean value) {
+		coalesceMouseMoves = value;
+	}
+
 	/**
 	 * Used to cache a command obtained from {@link #getCommand()}.
 	 * 
@@ -138,7 +138,10 @@ public abstract class DirectEditManager {
 			if (isDirty()) {
 				CommandStack stack = getEditPart().getViewer().getEditDomain()
 						.getCommandStack();
+				// the committed value is a separate undoable edit
+				stack.closeMergeWindow();
 				stack.execute(getEditPart().getCommand(getDirectEditRequest()));
+				stack.closeMergeWindow();
 			}
 		} finally {
 			bringDown();
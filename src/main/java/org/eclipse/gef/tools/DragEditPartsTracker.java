@@ -44,6 +44,13 @@ import org.eclipse.swt.graphics.Cursor;
 
 /**
  * A DragTracker that moves {@link org.eclipse.gef.EditPart EditParts}.
+ * <P>
+ * By default, the command is recomputed on every mouse move so that the cursor
+ * reflects its executability. When {@link #setDeferCommandComputation(boolean)
+ * deferred command computation} is enabled, only the executability is
+ * computed during the drag, and it is cached for as long as the target edit
+ * part and the request type do not change. The full command is built once,
+ * when the drag is performed.
  */
 public class DragEditPartsTracker extends SelectEditPartTracker {
 
@@ -73,6 +80,10 @@ public class DragEditPartsTracker extends SelectEditPartTracker {
 	private SnapToHelper snapToHelper;
 	private PrecisionRectangle sourceRectangle, compoundSrcRect;
 	private boolean cloneActive;
+	private boolean deferCommands;
+	private EditPart cachedTarget;
+	private Object cachedType;
+	private boolean cachedExecutable;
 
 	/**
 	 * Constructs a new DragEditPartsTracker with the given source edit part.
@@ -134,6 +145,34 @@ public class DragEditPartsTracker extends SelectEditPartTracker {
 		setState(STATE_TERMINAL);
 	}
 
+	/**
+	 * Returns <code>true</code> if the command that would be executed for the
+	 * current target and request type is executable. This is only called in
+	 * {@link #setDeferCommandComputation(boolean) deferred} mode, when the
+	 * target edit part or the request type has changed. The default
+	 * implementation builds the command once; subclasses may override to
+	 * answer with a cheaper query.
+	 * 
+	 * @return <code>true</code> if the drag can be performed
+	 * @since 3.7
+	 */
+	protected boolean calculateCommandExecutable() {
+		Command command = getCommand();
+		return command != null && command.canExecute();
+	}
+
+	/**
+	 * Extended to use the cached executability while command computation is
+	 * deferred.
+	 * 
+	 * @see org.eclipse.gef.tools.AbstractTool#calculateCursor()
+	 */
+	protected Cursor calculateCursor() {
+		if (isDeferringCommandComputation() && isInDragInProgress())
+			return cachedExecutable ? getDefaultCursor() : getDisabledCursor();
+		return super.calculateCursor();
+	}
+
 	/**
 	 * Captures the bounds of the source being dragged, and the unioned bounds
 	 * of all figures being dragged. These bounds are used for snapping by the
@@ -221,6 +260,8 @@ public class DragEditPartsTracker extends SelectEditPartTracker {
 		sourceRectangle = null;
 		compoundSrcRect = null;
 		snapToHelper = null;
+		cachedTarget = null;
+		cachedType = null;
 	}
 
 	/**
@@ -334,7 +375,7 @@ public class DragEditPartsTracker extends SelectEditPartTracker {
 		updateTargetUnderMouse();
 		showTargetFeedback();
 		showSourceFeedback();
-		setCurrentCommand(getCommand());
+		updateCurrentCommand();
 	}
 
 	/**
@@ -365,7 +406,7 @@ public class DragEditPartsTracker extends SelectEditPartTracker {
 				updateTargetRequest();
 			showTargetFeedback();
 			showSourceFeedback();
-			setCurrentCommand(getCommand());
+			updateCurrentCommand();
 		}
 		return true;
 	}
@@ -460,6 +501,17 @@ public class DragEditPartsTracker extends SelectEditPartTracker {
 		return false;
 	}
 
+	/**
+	 * Returns <code>true</code> if commands are only built when the drag is
+	 * performed.
+	 * 
+	 * @return <code>true</code> if command computation is deferred
+	 * @since 3.7
+	 */
+	public boolean isDeferringCommandComputation() {
+		return deferCommands;
+	}
+
 	/**
 	 * Returns true if the current drag is a clone operation.
 	 * 
@@ -488,9 +540,12 @@ public class DragEditPartsTracker extends SelectEditPartTracker {
 	}
 
 	/**
-	 * Calls {@link AbstractTool#executeCurrentCommand()}.
+	 * Calls {@link AbstractTool#executeCurrentCommand()}. If command
+	 * computation is deferred, the command is built first.
 	 */
 	protected void performDrag() {
+		if (isDeferringCommandComputation())
+			setCurrentCommand(getCommand());
 		executeCurrentCommand();
 	}
 
@@ -572,6 +627,24 @@ public class DragEditPartsTracker extends SelectEditPartTracker {
 		setFlag(FLAG_SOURCE_FEEDBACK, true);
 	}
 
+	/**
+	 * Sets whether commands are only built when the drag is performed. When
+	 * <code>true</code>, the executability of the drag is computed with
+	 * {@link #calculateCommandExecutable()} whenever the target edit part or
+	 * the request type changes, and the command itself is built once on mouse
+	 * up. This avoids asking every dragged edit part for a command on each
+	 * mouse move. The default value is <code>false</code>.
+	 * 
+	 * @param value
+	 *            whether command computation is deferred
+	 * @since 3.7
+	 */
+	public void setDeferCommandComputation(boolean value) {
+		deferCommands = value;
+		cachedTarget = null;
+		cachedType = null;
+	}
+
 	/**
 	 * Extended to activate cloning and to update the captured source dimensions
 	 * when applicable.
@@ -596,6 +669,25 @@ public class DragEditPartsTracker extends SelectEditPartTracker {
 			captureSourceDimensions();
 	}
 
+	/**
+	 * Sets the current command, or in deferred mode only updates the cached
+	 * executability when the target or the request type has changed.
+	 */
+	private void updateCurrentCommand() {
+		if (!isDeferringCommandComputation()) {
+			setCurrentCommand(getCommand());
+			return;
+		}
+		Object type = getCommandName();
+		if (cachedType == null || getTargetEditPart() != cachedTarget
+				|| !type.equals(cachedType)) {
+			cachedTarget = getTargetEditPart();
+			cachedType = type;
+			cachedExecutable = calculateCommandExecutable();
+		}
+		setCurrentCommand(null);
+	}
+
 	/**
 	 * Calls {@link #repairStartLocation()} in case auto scroll is being
 	 * performed. Updates the request with the current
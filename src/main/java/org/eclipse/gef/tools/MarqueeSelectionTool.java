@@ -34,6 +34,8 @@ import org.eclipse.gef.KeyHandler;
 import org.eclipse.gef.Request;
 import org.eclipse.gef.RequestConstants;
 import org.eclipse.gef.SharedCursors;
+import org.eclipse.gef.ui.parts.EditPartSpatialIndex;
+import org.eclipse.gef.ui.parts.GraphicalViewerImpl;
 import org.eclipse.gef.util.EditPartUtilities;
 import org.eclipse.jface.viewers.StructuredSelection;
 import org.eclipse.swt.SWT;
@@ -290,6 +292,10 @@ public class MarqueeSelectionTool extends AbstractTool {
 	 * {@link #isMarqueeSelectable(GraphicalEditPart)} and
 	 * {@link #isPrimaryMarqueeSelectedEditPart(GraphicalEditPart)} to decide
 	 * whether the candidate is to be included in the marquee selection.
+	 * <P>
+	 * If the current viewer maintains an {@link EditPartSpatialIndex}, only
+	 * the edit parts whose figures touch the marquee rectangle are considered
+	 * as candidates.
 	 * 
 	 * @return A {@link Collection} containing all {@link EditPart}s that should
 	 *         be regarded as being directly affected by the current marquee
@@ -297,22 +303,36 @@ public class MarqueeSelectionTool extends AbstractTool {
 	 * @since 3.7
 	 */
 	private Collection calculatePrimaryMarqueeSelectedEditParts() {
+		EditPartSpatialIndex index = null;
+		if (getCurrentViewer() instanceof GraphicalViewerImpl)
+			index = ((GraphicalViewerImpl) getCurrentViewer())
+					.getSpatialIndex();
+		Rectangle marqueeSelectionRectangle = getCurrentMarqueeSelectionRectangle();
+
 		Collection editPartsToProcess = new HashSet();
 		if (marqueeBehavior != BEHAVIOR_CONNECTIONS_CONTAINED
 				&& marqueeBehavior != BEHAVIOR_CONNECTIONS_TOUCHED) {
 			// process nodes
-			editPartsToProcess.addAll(EditPartUtilities
-					.getAllChildren((GraphicalEditPart) getCurrentViewer()
-							.getRootEditPart()));
+			if (index != null)
+				editPartsToProcess.addAll(index
+						.getNodesTouching(marqueeSelectionRectangle));
+			else
+				editPartsToProcess.addAll(EditPartUtilities
+						.getAllChildren((GraphicalEditPart) getCurrentViewer()
+								.getRootEditPart()));
 		}
 
 		if (marqueeBehavior != BEHAVIOR_NODES_CONTAINED
 				&& marqueeBehavior != BEHAVIOR_NODES_TOUCHED) {
 			// process connections
-			editPartsToProcess
-					.addAll(EditPartUtilities
-							.getAllNestedConnectionEditParts((GraphicalEditPart) getCurrentViewer()
-									.getRootEditPart()));
+			if (index != null)
+				editPartsToProcess.addAll(index
+						.getConnectionsTouching(marqueeSelectionRectangle));
+			else
+				editPartsToProcess
+						.addAll(EditPartUtilities
+								.getAllNestedConnectionEditParts((GraphicalEditPart) getCurrentViewer()
+										.getRootEditPart()));
 		}
 
 		// process all edit parts and determine which are affected by the
@@ -406,6 +426,7 @@ public class MarqueeSelectionTool extends AbstractTool {
 			EditPart editPart = (EditPart) oldEditParts.next();
 			editPart.eraseTargetFeedback(getTargetRequest());
 		}
+		selectedEditParts = null;
 	}
 
 	/**
@@ -497,9 +518,7 @@ public class MarqueeSelectionTool extends AbstractTool {
 	protected boolean handleDragInProgress() {
 		if (isInState(STATE_DRAG | STATE_DRAG_IN_PROGRESS)) {
 			showMarqueeFeedback();
-			eraseTargetFeedback();
-			selectedEditParts = calculateMarqueeSelectedEditParts();
-			showTargetFeedback();
+			updateTargetFeedback(calculateMarqueeSelectedEditParts());
 		}
 		return true;
 	}
@@ -580,8 +599,13 @@ public class MarqueeSelectionTool extends AbstractTool {
 		// figure bounds are used to determine if edit part is included in
 		// selection
 		IFigure figure = editPart.getFigure();
-		Rectangle r = figure.getBounds().getCopy();
-		figure.translateToAbsolute(r);
+		Rectangle r;
+		if (figure instanceof Figure)
+			r = ((Figure) figure).getAbsoluteBounds();
+		else {
+			r = figure.getBounds().getCopy();
+			figure.translateToAbsolute(r);
+		}
 
 		boolean included = false;
 		Rectangle marqueeSelectionRectangle = getCurrentMarqueeSelectionRectangle();
@@ -795,11 +819,26 @@ public class MarqueeSelectionTool extends AbstractTool {
 		getMarqueeFeedbackFigure().setBounds(rect);
 	}
 
-	private void showTargetFeedback() {
-		for (Iterator itr = selectedEditParts.iterator(); itr.hasNext();) {
+	/**
+	 * Updates the target feedback as the marquee grows or shrinks. Feedback is
+	 * only erased from the edit parts leaving the marquee selection and only
+	 * shown on those entering it.
+	 */
+	private void updateTargetFeedback(Collection newEditParts) {
+		if (selectedEditParts != null) {
+			for (Iterator itr = selectedEditParts.iterator(); itr.hasNext();) {
+				EditPart editPart = (EditPart) itr.next();
+				if (!newEditParts.contains(editPart))
+					editPart.eraseTargetFeedback(getTargetRequest());
+			}
+		}
+		for (Iterator itr = newEditParts.iterator(); itr.hasNext();) {
 			EditPart editPart = (EditPart) itr.next();
-			editPart.showTargetFeedback(getTargetRequest());
+			if (selectedEditParts == null
+					|| !selectedEditParts.contains(editPart))
+				editPart.showTargetFeedback(getTargetRequest());
 		}
+		selectedEditParts = newEditParts;
 	}
 
 }
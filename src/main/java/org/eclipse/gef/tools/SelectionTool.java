@@ -479,6 +479,20 @@ public class SelectionTool extends TargetingTool {
 		return super.handleViewerExited();
 	}
 
+	/**
+	 * Mouse moves are forwarded to the drag tracker while there is one, so
+	 * they are only coalesced if the drag tracker allows it, too.
+	 * 
+	 * @see AbstractTool#isCoalescingMouseMoves()
+	 */
+	public boolean isCoalescingMouseMoves() {
+		DragTracker tracker = getDragTracker();
+		if (tracker instanceof AbstractTool
+				&& !((AbstractTool) tracker).isCoalescingMouseMoves())
+			return false;
+		return super.isCoalescingMouseMoves();
+	}
+
 	/**
 	 * Forwards the key down event to the drag tracker, if one exists.
 	 * 
@@ -23,6 +23,8 @@ import org.eclipse.gef.AccessibleEditPart;
 import org.eclipse.gef.EditDomain;
 import org.eclipse.gef.EditPart;
 import org.eclipse.gef.EditPartViewer;
+import org.eclipse.gef.Tool;
+import org.eclipse.gef.tools.AbstractTool;
 import org.eclipse.swt.accessibility.ACC;
 import org.eclipse.swt.accessibility.AccessibleControlEvent;
 import org.eclipse.swt.accessibility.AccessibleControlListener;
@@ -34,10 +36,21 @@ import org.eclipse.swt.events.TraverseEvent;
 import org.eclipse.swt.graphics.Cursor;
 import org.eclipse.swt.widgets.Event;
 
+import com.google.gwt.animation.client.AnimationScheduler;
+import com.google.gwt.animation.client.AnimationScheduler.AnimationCallback;
+import com.google.gwt.animation.client.AnimationScheduler.AnimationHandle;
+
 /**
  * A special event dispatcher that will route events to the {@link EditDomain}
  * when appropriate.
  * <p>
+ * Mouse moves are coalesced to at most one per animation frame: only the
+ * latest move, with its location and button state, is dispatched when the
+ * frame is rendered. Any other event first dispatches the pending move, so
+ * that the order of events seen by the tools is preserved. Coalescing can be
+ * turned off with {@link #setCoalesceMouseMoves(boolean)}, or for a single tool
+ * with {@link AbstractTool#setCoalesceMouseMoves(boolean)}.
+ * <p>
  * IMPORTANT: This class is <EM>not</EM> intended to be used or subclassed by
  * clients.
  * 
@@ -57,6 +70,15 @@ public class DomainEventDispatcher extends SWTEventDispatcher {
 	private Cursor overrideCursor;
 	private Map accessibles = new HashMap();
 	private EditPartAccessibilityDispatcher accessibilityDispatcher;
+	private boolean coalesceMouseMoves = true;
+	private org.eclipse.swt.events.MouseEvent pendingMouseMove;
+	private AnimationHandle pendingFrame;
+	private final AnimationCallback frameCallback = new AnimationCallback() {
+		public void execute(double timestamp) {
+			pendingFrame = null;
+			flushMouseMove();
+		}
+	};
 
 	/**
 	 * Extended accessibility support for editpart.
@@ -225,6 +247,7 @@ public class DomainEventDispatcher extends SWTEventDispatcher {
 	 * @see EventDispatcher#dispatchFocusGained(org.eclipse.swt.events.FocusEvent)
 	 */
 	public void dispatchFocusGained(FocusEvent event) {
+		flushMouseMove();
 		super.dispatchFocusGained(event);
 		domain.focusGained(event, viewer);
 	}
@@ -233,6 +256,7 @@ public class DomainEventDispatcher extends SWTEventDispatcher {
 	 * @see EventDispatcher#dispatchFocusLost(org.eclipse.swt.events.FocusEvent)
 	 */
 	public void dispatchFocusLost(FocusEvent event) {
+		flushMouseMove();
 		super.dispatchFocusLost(event);
 		domain.focusLost(event, viewer);
 		setRouteEventsToEditor(false);
@@ -242,6 +266,7 @@ public class DomainEventDispatcher extends SWTEventDispatcher {
 	 * @see EventDispatcher#dispatchKeyPressed(org.eclipse.swt.events.KeyEvent)
 	 */
 	public void dispatchKeyPressed(org.eclipse.swt.events.KeyEvent e) {
+		flushMouseMove();
 		if (!editorCaptured) {
 			super.dispatchKeyPressed(e);
 			if (draw2dBusy())
@@ -255,6 +280,7 @@ public class DomainEventDispatcher extends SWTEventDispatcher {
 	 * @see org.eclipse.draw2d.SWTEventDispatcher#dispatchKeyTraversed(org.eclipse.swt.events.TraverseEvent)
 	 */
 	public void dispatchKeyTraversed(TraverseEvent e) {
+		flushMouseMove();
 		if (!editorCaptured) {
 			super.dispatchKeyTraversed(e);
 			if (!e.doit)
@@ -268,6 +294,7 @@ public class DomainEventDispatcher extends SWTEventDispatcher {
 	 * @see EventDispatcher#dispatchKeyReleased(org.eclipse.swt.events.KeyEvent)
 	 */
 	public void dispatchKeyReleased(org.eclipse.swt.events.KeyEvent e) {
+		flushMouseMove();
 		if (!editorCaptured) {
 			super.dispatchKeyReleased(e);
 			if (draw2dBusy())
@@ -281,6 +308,7 @@ public class DomainEventDispatcher extends SWTEventDispatcher {
 	 * @see EventDispatcher#dispatchMouseDoubleClicked(org.eclipse.swt.events.MouseEvent)
 	 */
 	public void dispatchMouseDoubleClicked(org.eclipse.swt.events.MouseEvent me) {
+		flushMouseMove();
 		if (!editorCaptured) {
 			super.dispatchMouseDoubleClicked(me);
 			if (draw2dBusy())
@@ -294,6 +322,7 @@ public class DomainEventDispatcher extends SWTEventDispatcher {
 	 * @see EventDispatcher#dispatchMouseEntered(org.eclipse.swt.events.MouseEvent)
 	 */
 	public void dispatchMouseEntered(org.eclipse.swt.events.MouseEvent me) {
+		flushMouseMove();
 		if (!editorCaptured) {
 			super.dispatchMouseEntered(me);
 			if (draw2dBusy())
@@ -308,6 +337,7 @@ public class DomainEventDispatcher extends SWTEventDispatcher {
 	 * @see EventDispatcher#dispatchMouseExited(org.eclipse.swt.events.MouseEvent)
 	 */
 	public void dispatchMouseExited(org.eclipse.swt.events.MouseEvent me) {
+		flushMouseMove();
 		if (!editorCaptured) {
 			super.dispatchMouseExited(me);
 			if (draw2dBusy())
@@ -322,6 +352,7 @@ public class DomainEventDispatcher extends SWTEventDispatcher {
 	 * @see EventDispatcher#dispatchMouseHover(org.eclipse.swt.events.MouseEvent)
 	 */
 	public void dispatchMouseHover(org.eclipse.swt.events.MouseEvent me) {
+		flushMouseMove();
 		if (!editorCaptured) {
 			super.dispatchMouseHover(me);
 			if (draw2dBusy())
@@ -335,6 +366,7 @@ public class DomainEventDispatcher extends SWTEventDispatcher {
 	 * @see EventDispatcher#dispatchMousePressed(org.eclipse.swt.events.MouseEvent)
 	 */
 	public void dispatchMousePressed(org.eclipse.swt.events.MouseEvent me) {
+		flushMouseMove();
 		if (!editorCaptured) {
 			super.dispatchMousePressed(me);
 			if (draw2dBusy())
@@ -352,6 +384,31 @@ public class DomainEventDispatcher extends SWTEventDispatcher {
 	 * @see EventDispatcher#dispatchMouseMoved(org.eclipse.swt.events.MouseEvent)
 	 */
 	public void dispatchMouseMoved(org.eclipse.swt.events.MouseEvent me) {
+		if (isCoalescingMouseMoves()) {
+			// the control reuses its event for the next move
+			if (pendingMouseMove == null) {
+				Event event = new Event();
+				event.widget = me.widget;
+				event.display = me.display;
+				pendingMouseMove = new org.eclipse.swt.events.MouseEvent(event);
+			}
+			pendingMouseMove.x = me.x;
+			pendingMouseMove.y = me.y;
+			pendingMouseMove.button = me.button;
+			pendingMouseMove.stateMask = me.stateMask;
+			pendingMouseMove.count = me.count;
+			pendingMouseMove.time = me.time;
+			pendingMouseMove.data = me.data;
+			if (pendingFrame == null)
+				pendingFrame = AnimationScheduler.get().requestAnimationFrame(
+						frameCallback);
+			return;
+		}
+		flushMouseMove();
+		doDispatchMouseMoved(me);
+	}
+
+	private void doDispatchMouseMoved(org.eclipse.swt.events.MouseEvent me) {
 		if (!editorCaptured) {
 			super.dispatchMouseMoved(me);
 			if (draw2dBusy())
@@ -369,6 +426,7 @@ public class DomainEventDispatcher extends SWTEventDispatcher {
 	 * @see EventDispatcher#dispatchMouseReleased(org.eclipse.swt.events.MouseEvent)
 	 */
 	public void dispatchMouseReleased(org.eclipse.swt.events.MouseEvent me) {
+		flushMouseMove();
 		if (!editorCaptured) {
 			super.dispatchMouseReleased(me);
 			if (draw2dBusy())
@@ -391,6 +449,7 @@ public class DomainEventDispatcher extends SWTEventDispatcher {
 	 */
 	public void dispatchNativeDragFinished(DragSourceEvent event,
 			AbstractEditPartViewer viewer) {
+		flushMouseMove();
 		// $TODO delete the viewer parameter from the method
 		domain.nativeDragFinished(event, viewer);
 	}
@@ -405,6 +464,7 @@ public class DomainEventDispatcher extends SWTEventDispatcher {
 	 */
 	public void dispatchNativeDragStarted(DragSourceEvent event,
 			AbstractEditPartViewer viewer) {
+		flushMouseMove();
 		// $TODO delete the viewer parameter from the method
 		setRouteEventsToEditor(false);
 		domain.nativeDragStarted(event, viewer);
@@ -416,6 +476,7 @@ public class DomainEventDispatcher extends SWTEventDispatcher {
 	 * @see org.eclipse.draw2d.EventDispatcher#dispatchMouseWheelScrolled(org.eclipse.swt.widgets.Event)
 	 */
 	public void dispatchMouseWheelScrolled(Event evt) {
+		flushMouseMove();
 		if (!editorCaptured)
 			super.dispatchMouseWheelScrolled(evt);
 
@@ -432,6 +493,39 @@ public class DomainEventDispatcher extends SWTEventDispatcher {
 		return false;
 	}
 
+	/**
+	 * Discards the pending coalesced mouse move, if any, and cancels its
+	 * animation frame. This is called when the viewer's control is disposed or
+	 * the dispatcher is replaced.
+	 * 
+	 * @since 3.7
+	 */
+	public void dispose() {
+		if (pendingFrame != null) {
+			pendingFrame.cancel();
+			pendingFrame = null;
+		}
+		pendingMouseMove = null;
+	}
+
+	/**
+	 * Dispatches the pending coalesced mouse move, if any. This is called
+	 * before any other event is dispatched.
+	 * 
+	 * @since 3.7
+	 */
+	public void flushMouseMove() {
+		if (pendingFrame != null) {
+			pendingFrame.cancel();
+			pendingFrame = null;
+		}
+		if (pendingMouseMove != null) {
+			org.eclipse.swt.events.MouseEvent me = pendingMouseMove;
+			pendingMouseMove = null;
+			doDispatchMouseMoved(me);
+		}
+	}
+
 	/**
 	 * Lazily creates and returns the accessibility dispatcher.
 	 * 
@@ -452,6 +546,24 @@ public class DomainEventDispatcher extends SWTEventDispatcher {
 		return viewer;
 	}
 
+	/**
+	 * Returns <code>true</code> if mouse moves are currently coalesced. This
+	 * is the case if coalescing is enabled on this dispatcher and the active
+	 * tool does not need to see every mouse move. The
+	 * {@link org.eclipse.gef.tools.SelectionTool} also asks its current drag
+	 * tracker.
+	 * 
+	 * @return <code>true</code> if mouse moves are coalesced
+	 * @since 3.7
+	 */
+	protected boolean isCoalescingMouseMoves() {
+		if (!coalesceMouseMoves || domain == null)
+			return false;
+		Tool tool = domain.getActiveTool();
+		return !(tool instanceof AbstractTool)
+				|| ((AbstractTool) tool).isCoalescingMouseMoves();
+	}
+
 	private boolean okToDispatch() {
 		return domain != null;
 	}
@@ -475,6 +587,20 @@ public class DomainEventDispatcher extends SWTEventDispatcher {
 		}
 	}
 
+	/**
+	 * Sets whether mouse moves are coalesced to at most one per animation
+	 * frame. The default is <code>true</code>.
+	 * 
+	 * @param value
+	 *            <code>true</code> to coalesce mouse moves
+	 * @since 3.7
+	 */
+	public void setCoalesceMouseMoves(boolean value) {
+		coalesceMouseMoves = value;
+		if (!value)
+			flushMouseMove();
+	}
+
 	/**
 	 * @see SWTEventDispatcher#setCursor(Cursor)
 	 */
@@ -0,0 +1,338 @@
+/*******************************************************************************
+ * Copyright (c) 2012 Gerhardt Informatics Kft. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Gerhardt Informatics Kft. - GEFGWT port
+ *******************************************************************************/
+package org.eclipse.gef.ui.parts;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.draw2d.Connection;
+import org.eclipse.draw2d.CoordinateListener;
+import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.FigureListener;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.gef.ConnectionEditPart;
+import org.eclipse.gef.EditPart;
+import org.eclipse.gef.EditPartListener;
+import org.eclipse.gef.GraphicalEditPart;
+import org.eclipse.gef.NodeListener;
+
+/**
+ * A spatial index of the {@link GraphicalEditPart}s of a
+ * {@link GraphicalViewerImpl}, keyed by the bounds of their figures in absolute
+ * coordinates. Node and connection edit parts are stored in a uniform grid of
+ * buckets, so that the parts touching a rectangle can be found without visiting
+ * every edit part of the viewer.
+ * <P>
+ * The index is built lazily on the first query, and kept until an indexed
+ * part changes: it listens to the indexed parts for added and removed children
+ * and connections, to their figures for moves and rerouted connections, and to
+ * the ancestors of their figures for changes of coordinate system, such as
+ * scrolling. Other changes, for example the feedback added during a drag, do
+ * not discard the index. Figures whose bounds change without
+ * {@link Figure#fireFigureMoved()} being called should be followed by a call to
+ * {@link #invalidate()}.
+ *
+ * @see GraphicalViewerImpl#getSpatialIndex()
+ * @since 3.7
+ */
+public class EditPartSpatialIndex {
+
+	private static final int CELL_SIZE = 128;
+
+	/**
+	 * Entries covering more cells than this are kept in a separate list which
+	 * is visited by every query.
+	 */
+	private static final int MAX_CELLS = 64;
+
+	private static class Entry {
+		final GraphicalEditPart part;
+		final Rectangle bounds;
+		final boolean connection;
+
+		Entry(GraphicalEditPart part, Rectangle bounds) {
+			this.part = part;
+			this.bounds = bounds;
+			this.connection = part instanceof ConnectionEditPart;
+		}
+	}
+
+	/**
+	 * Discards the index when any of the parts or figures it listens to
+	 * changes.
+	 */
+	private class ChangeListener extends EditPartListener.Stub implements
+			NodeListener, FigureListener, CoordinateListener,
+			PropertyChangeListener {
+		public void childAdded(EditPart child, int index) {
+			invalidate();
+		}
+
+		public void coordinateSystemChanged(IFigure source) {
+			invalidate();
+		}
+
+		public void figureMoved(IFigure source) {
+			invalidate();
+		}
+
+		public void propertyChange(PropertyChangeEvent evt) {
+			invalidate();
+		}
+
+		public void removingChild(EditPart child, int index) {
+			invalidate();
+		}
+
+		public void removingSourceConnection(ConnectionEditPart connection,
+				int index) {
+			invalidate();
+		}
+
+		public void removingTargetConnection(ConnectionEditPart connection,
+				int index) {
+			invalidate();
+		}
+
+		public void sourceConnectionAdded(ConnectionEditPart connection,
+				int index) {
+			invalidate();
+		}
+
+		public void targetConnectionAdded(ConnectionEditPart connection,
+				int index) {
+			invalidate();
+		}
+	}
+
+	private final GraphicalViewerImpl viewer;
+	private final ChangeListener listener = new ChangeListener();
+	private Map cells;
+	private List largeEntries;
+	private int size;
+
+	/**
+	 * The parts, figures and ancestor figures the listener is hooked to.
+	 */
+	private List hookedParts;
+	private List hookedFigures;
+	private Set hookedAncestors;
+
+	/**
+	 * Constructs an index for the given viewer.
+	 *
+	 * @param viewer
+	 *            the viewer
+	 */
+	public EditPartSpatialIndex(GraphicalViewerImpl viewer) {
+		this.viewer = viewer;
+	}
+
+	private void add(GraphicalEditPart part) {
+		IFigure figure = part.getFigure();
+		Rectangle bounds;
+		if (figure instanceof Figure)
+			bounds = ((Figure) figure).getAbsoluteBounds();
+		else {
+			bounds = figure.getBounds().getCopy();
+			figure.translateToAbsolute(bounds);
+		}
+		hook(figure);
+		Entry entry = new Entry(part, bounds);
+		size++;
+		int x0 = cell(bounds.x), x1 = cell(bounds.right());
+		int y0 = cell(bounds.y), y1 = cell(bounds.bottom());
+		if ((long) (x1 - x0 + 1) * (y1 - y0 + 1) > MAX_CELLS) {
+			largeEntries.add(entry);
+			return;
+		}
+		for (int x = x0; x <= x1; x++)
+			for (int y = y0; y <= y1; y++) {
+				Long key = key(x, y);
+				List bucket = (List) cells.get(key);
+				if (bucket == null)
+					cells.put(key, bucket = new ArrayList(4));
+				bucket.add(entry);
+			}
+	}
+
+	private void build() {
+		cells = new HashMap();
+		largeEntries = new ArrayList();
+		size = 0;
+		hookedParts = new ArrayList();
+		hookedFigures = new ArrayList();
+		hookedAncestors = new HashSet();
+		EditPart root = viewer.getRootEditPart();
+		if (root == null)
+			return;
+		root.addEditPartListener(listener);
+		hookedParts.add(root);
+		Set connections = new HashSet();
+		List children = root.getChildren();
+		for (int i = 0; i < children.size(); i++)
+			build((GraphicalEditPart) children.get(i), connections);
+		for (Iterator iter = connections.iterator(); iter.hasNext();)
+			add((GraphicalEditPart) iter.next());
+	}
+
+	private void build(GraphicalEditPart part, Set connections) {
+		part.addEditPartListener(listener);
+		part.addNodeListener(listener);
+		hookedParts.add(part);
+		add(part);
+		connections.addAll(part.getSourceConnections());
+		connections.addAll(part.getTargetConnections());
+		List children = part.getChildren();
+		for (int i = 0; i < children.size(); i++)
+			build((GraphicalEditPart) children.get(i), connections);
+	}
+
+	private static int cell(int coordinate) {
+		return (int) Math.floor((double) coordinate / CELL_SIZE);
+	}
+
+	/**
+	 * Returns the connection edit parts whose figure bounds, in absolute
+	 * coordinates, touch the given rectangle. The result is a superset of the
+	 * connections that intersect it; callers are expected to perform their own
+	 * precise test on the returned parts.
+	 *
+	 * @param absoluteRect
+	 *            a rectangle in absolute coordinates
+	 * @return the candidate connection edit parts
+	 */
+	public Collection getConnectionsTouching(Rectangle absoluteRect) {
+		return query(absoluteRect, false, true);
+	}
+
+	/**
+	 * Returns the node edit parts, i.e. all edit parts below the root which
+	 * are not connections, whose figure bounds, in absolute coordinates, touch
+	 * the given rectangle. The result is a superset of the nodes that intersect
+	 * or are contained in it; callers are expected to perform their own precise
+	 * test on the returned parts.
+	 *
+	 * @param absoluteRect
+	 *            a rectangle in absolute coordinates
+	 * @return the candidate node edit parts
+	 */
+	public Collection getNodesTouching(Rectangle absoluteRect) {
+		return query(absoluteRect, true, false);
+	}
+
+	private void hook(IFigure figure) {
+		figure.addFigureListener(listener);
+		figure.addCoordinateListener(listener);
+		if (figure instanceof Connection)
+			figure.addPropertyChangeListener(Connection.PROPERTY_POINTS,
+					listener);
+		hookedFigures.add(figure);
+		for (IFigure f = figure.getParent(); f != null
+				&& hookedAncestors.add(f); f = f.getParent())
+			f.addCoordinateListener(listener);
+	}
+
+	/**
+	 * Discards the index. It is rebuilt on the next query.
+	 */
+	public void invalidate() {
+		if (cells == null)
+			return;
+		cells = null;
+		largeEntries = null;
+		for (int i = 0; i < hookedParts.size(); i++) {
+			EditPart part = (EditPart) hookedParts.get(i);
+			part.removeEditPartListener(listener);
+			if (part instanceof GraphicalEditPart)
+				((GraphicalEditPart) part).removeNodeListener(listener);
+		}
+		for (int i = 0; i < hookedFigures.size(); i++) {
+			IFigure figure = (IFigure) hookedFigures.get(i);
+			figure.removeFigureListener(listener);
+			figure.removeCoordinateListener(listener);
+			if (figure instanceof Connection)
+				figure.removePropertyChangeListener(
+						Connection.PROPERTY_POINTS, listener);
+		}
+		for (Iterator iter = hookedAncestors.iterator(); iter.hasNext();)
+			((IFigure) iter.next()).removeCoordinateListener(listener);
+		hookedParts = null;
+		hookedFigures = null;
+		hookedAncestors = null;
+	}
+
+	private static Long key(int x, int y) {
+		return new Long(((long) x << 32) | (y & 0xFFFFFFFFL));
+	}
+
+	private Collection query(Rectangle rect, boolean nodes, boolean connections) {
+		if (cells == null)
+			build();
+		Set result = new HashSet();
+		for (int i = 0; i < largeEntries.size(); i++)
+			accept((Entry) largeEntries.get(i), rect, nodes, connections,
+					result);
+		int x0 = cell(rect.x), x1 = cell(rect.right());
+		int y0 = cell(rect.y), y1 = cell(rect.bottom());
+		if ((long) (x1 - x0 + 1) * (y1 - y0 + 1) > cells.size()) {
+			// cheaper to visit the occupied buckets than the covered cells
+			for (Iterator iter = cells.values().iterator(); iter.hasNext();)
+				accept((List) iter.next(), rect, nodes, connections, result);
+		} else {
+			for (int x = x0; x <= x1; x++)
+				for (int y = y0; y <= y1; y++) {
+					List bucket = (List) cells.get(key(x, y));
+					if (bucket != null)
+						accept(bucket, rect, nodes, connections, result);
+				}
+		}
+		return result;
+	}
+
+	private static void accept(List bucket, Rectangle rect, boolean nodes,
+			boolean connections, Set result) {
+		for (int i = 0; i < bucket.size(); i++)
+			accept((Entry) bucket.get(i), rect, nodes, connections, result);
+	}
+
+	private static void accept(Entry entry, Rectangle rect, boolean nodes,
+			boolean connections, Set result) {
+		if (entry.connection ? !connections : !nodes)
+			return;
+		Rectangle b = entry.bounds;
+		// inclusive test, so that empty figures within the rectangle qualify
+		if (b.x <= rect.right() && rect.x <= b.right()
+				&& b.y <= rect.bottom() && rect.y <= b.bottom())
+			result.add(entry.part);
+	}
+
+	/**
+	 * Returns the number of edit parts in the index, building it if needed.
+	 *
+	 * @return the number of indexed edit parts
+	 */
+	public int size() {
+		if (cells == null)
+			build();
+		return size;
+	}
+
+}
@@ -34,6 +34,7 @@ import org.eclipse.gef.MouseWheelHelper;
 import org.eclipse.gef.RootEditPart;
 import org.eclipse.gef.editparts.LayerManager;
 import org.eclipse.gef.editparts.ScalableRootEditPart;
+import org.eclipse.gef.editparts.ZoomManager;
 import org.eclipse.jface.action.IMenuListener;
 import org.eclipse.jface.action.IMenuManager;
 import org.eclipse.jface.action.MenuManager;
@@ -46,6 +47,8 @@ import org.eclipse.swt.dnd.DropTargetEvent;
 import org.eclipse.swt.events.DisposeEvent;
 import org.eclipse.swt.events.FocusEvent;
 import org.eclipse.swt.events.FocusListener;
+import org.eclipse.swt.events.GestureEvent;
+import org.eclipse.swt.events.GestureListener;
 import org.eclipse.swt.graphics.Cursor;
 import org.eclipse.swt.widgets.Canvas;
 import org.eclipse.swt.widgets.Composite;
@@ -65,6 +68,9 @@ public class GraphicalViewerImpl extends AbstractEditPartViewer implements
 	IFigure rootFigure;
 	private DomainEventDispatcher eventDispatcher;
 	private FocusListener lFocus;
+	private GestureListener lGesture;
+	private double gestureZoom;
+	private EditPartSpatialIndex spatialIndex;
 
 	/**
 	 * Constructs a GraphicalViewerImpl with the default root editpart.
@@ -105,6 +111,10 @@ public class GraphicalViewerImpl extends AbstractEditPartViewer implements
 	 */
 	protected void handleDispose(DisposeEvent e) {
 		super.handleDispose(e);
+		if (spatialIndex != null)
+			spatialIndex.invalidate();
+		if (eventDispatcher != null)
+			eventDispatcher.dispose();
 		getLightweightSystem().getUpdateManager().dispose();
 	}
 
@@ -134,6 +144,28 @@ public class GraphicalViewerImpl extends AbstractEditPartViewer implements
 			focusPart.setFocus(false);
 	}
 
+	/**
+	 * This method is invoked when a gesture is performed on this viewer's
+	 * control. A magnification gesture previews the zoom levels of the
+	 * viewer's {@link ZoomManager}, if it has one, scaling the zoom level at
+	 * the beginning of the gesture by the magnification of the gesture.
+	 * 
+	 * @param ge
+	 *            the gestureEvent received by this viewer's control
+	 * @since 3.7
+	 */
+	protected void handleGesture(GestureEvent ge) {
+		ZoomManager zoomManager = (ZoomManager) getProperty(ZoomManager.class
+				.toString());
+		if (zoomManager == null)
+			return;
+		if (ge.detail == SWT.GESTURE_BEGIN)
+			gestureZoom = zoomManager.getZoom();
+		else if (ge.detail == SWT.GESTURE_MAGNIFY)
+			zoomManager.previewZoom(gestureZoom * ge.magnification,
+					getControl());
+	}
+
 	/**
 	 * @see GraphicalViewer#findHandleAt(org.eclipse.draw2d.geometry.Point)
 	 */
@@ -234,6 +266,19 @@ public class GraphicalViewerImpl extends AbstractEditPartViewer implements
 		return rootFigure;
 	}
 
+	/**
+	 * Returns the spatial index of this viewer's edit parts. The index is
+	 * created on first use, and discarded whenever the indexed parts change.
+	 * 
+	 * @return the spatial index
+	 * @since 3.7
+	 */
+	public EditPartSpatialIndex getSpatialIndex() {
+		if (spatialIndex == null)
+			spatialIndex = new EditPartSpatialIndex(this);
+		return spatialIndex;
+	}
+
 	/**
 	 * Extended to flush paints during drop callbacks.
 	 * 
@@ -278,6 +323,11 @@ public class GraphicalViewerImpl extends AbstractEditPartViewer implements
 				handleFocusLost(e);
 			}
 		});
+		getControl().addGestureListener(lGesture = new GestureListener() {
+			public void gesture(GestureEvent e) {
+				handleGesture(e);
+			}
+		});
 	}
 
 	/**
@@ -393,6 +443,8 @@ public class GraphicalViewerImpl extends AbstractEditPartViewer implements
 		// Set the new event dispatcher, even if the new domain is null. This
 		// will dispose
 		// the old event dispatcher.
+		if (eventDispatcher != null)
+			eventDispatcher.dispose();
 		getLightweightSystem().setEventDispatcher(
 				eventDispatcher = new DomainEventDispatcher(domain, this));
 	}
@@ -403,6 +455,8 @@ public class GraphicalViewerImpl extends AbstractEditPartViewer implements
 	public void setRootEditPart(RootEditPart editpart) {
 		super.setRootEditPart(editpart);
 		setRootFigure(((GraphicalEditPart) editpart).getFigure());
+		if (spatialIndex != null)
+			spatialIndex.invalidate();
 	}
 
 	/**
@@ -432,6 +486,10 @@ public class GraphicalViewerImpl extends AbstractEditPartViewer implements
 			getControl().removeFocusListener(lFocus);
 			lFocus = null;
 		}
+		if (lGesture != null) {
+			getControl().removeGestureListener(lGesture);
+			lGesture = null;
+		}
 	}
 
 	/**
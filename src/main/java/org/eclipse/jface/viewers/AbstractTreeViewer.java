@@ -2650,7 +2650,121 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 		}
 
 		Item[] items = getChildren(widget);
+		if (!updateInsertedAndRemovedChildren(widget, items, elementChildren,
+				updateLabels)) {
+			updateChildrenByPosition(widget, items, elementChildren,
+					updateLabels);
+		}
+
+		// WORKAROUND
+		if (widget == tree && oldCnt == 0 && getItemCount(tree) != 0) {
+			// System.out.println("WORKAROUND setRedraw");
+			tree.setRedraw(false);
+			tree.setRedraw(true);
+		}
+	}
+
+	/**
+	 * Updates the given tree items, in place, to correspond to the given child
+	 * elements when the children were only inserted and removed: the items of
+	 * the removed elements are disposed, items are created for the inserted
+	 * elements, and the items of the remaining elements are kept with their
+	 * expanded state and their children. Nothing is updated if the remaining
+	 * elements were reordered, if an element occurs twice, or if no element
+	 * remains.
+	 * 
+	 * @param widget
+	 *            the parent widget
+	 * @param items
+	 *            the child items of the widget
+	 * @param elementChildren
+	 *            the child elements
+	 * @param updateLabels
+	 *            <code>true</code> to update labels for the remaining
+	 *            elements
+	 * @return <code>true</code> if the items were updated, and
+	 *         <code>false</code> if they must be updated by position
+	 */
+	private boolean updateInsertedAndRemovedChildren(Widget widget,
+			Item[] items, Object[] elementChildren, boolean updateLabels) {
+		CustomHashtable indices = newHashtable(elementChildren.length * 2 + 1);
+		for (int i = 0; i < elementChildren.length; i++) {
+			Object elementChild = elementChildren[i];
+			if (elementChild == null
+					|| indices.put(elementChild, new Integer(i)) != null) {
+				return false;
+			}
+		}
+		int lastIndex = -1;
+		for (int i = 0; i < items.length; i++) {
+			Object data = items[i].getData();
+			if (data == null) {
+				// dummy node
+				return false;
+			}
+			Integer index = (Integer) indices.get(data);
+			if (index != null) {
+				if (index.intValue() <= lastIndex) {
+					return false;
+				}
+				lastIndex = index.intValue();
+			}
+		}
+		if (lastIndex == -1) {
+			return false;
+		}
 
+		int next = 0;
+		for (int i = 0; i < elementChildren.length; i++) {
+			Object newElement = elementChildren[i];
+			while (next < items.length
+					&& !indices.containsKey(items[next].getData())) {
+				disassociate(items[next]);
+				items[next++].dispose();
+			}
+			Item item = next < items.length ? items[next] : null;
+			if (item != null
+					&& ((Integer) indices.get(item.getData())).intValue() == i) {
+				Object oldElement = item.getData();
+				if (oldElement != newElement) {
+					// the elements are equal, but may still have different
+					// labels or children
+					unmapElement(oldElement, item);
+					item.setData(newElement);
+					mapElement(newElement, item);
+				}
+				updatePlus(item, newElement);
+				if (updateLabels) {
+					updateLabel(item, newElement);
+				}
+				next++;
+			} else {
+				createTreeItem(widget, newElement, i);
+			}
+		}
+		while (next < items.length) {
+			disassociate(items[next]);
+			items[next++].dispose();
+		}
+		return true;
+	}
+
+	/**
+	 * Updates the given tree items to correspond to the given child elements,
+	 * reusing the items by position.
+	 * 
+	 * @param widget
+	 *            the parent widget
+	 * @param items
+	 *            the child items of the widget
+	 * @param elementChildren
+	 *            the child elements
+	 * @param updateLabels
+	 *            <code>true</code> to update labels for existing elements,
+	 *            <code>false</code> to only update labels as needed
+	 */
+	private void updateChildrenByPosition(Widget widget, Item[] items,
+			Object[] elementChildren, boolean updateLabels) {
 		// save the expanded elements
 		CustomHashtable expanded = newHashtable(CustomHashtable.DEFAULT_CAPACITY); // assume
 																					// num
@@ -2746,7 +2860,7 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 				// old and new elements are equal
 				updatePlus(item, newElement);
 				if (updateLabels) {
-					updateItem(item, newElement);
+					updateLabel(item, newElement);
 				}
 			}
 		}
@@ -2788,13 +2902,6 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 				}
 			}
 		}
-
-		// WORKAROUND
-		if (widget == tree && oldCnt == 0 && getItemCount(tree) != 0) {
-			// System.out.println("WORKAROUND setRedraw");
-			tree.setRedraw(false);
-			tree.setRedraw(true);
-		}
 	}
 
 	/** Returns true if children were pruned */
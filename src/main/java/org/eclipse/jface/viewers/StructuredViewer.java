@@ -14,7 +14,9 @@ package org.eclipse.jface.viewers;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IStatus;
@@ -109,6 +111,20 @@ public abstract class StructuredViewer extends ContentViewer implements
 	 */
 	private boolean restoreSelection;
 
+	/**
+	 * The label updates deferred to the end of the current frame, mapping the
+	 * items to their elements, or <code>null</code> if label updates are not
+	 * batched.
+	 * 
+	 * @see #setBatchLabelUpdates(boolean)
+	 */
+	private Map pendingLabelUpdates;
+
+	/**
+	 * Indicates whether the pending label updates are scheduled already.
+	 */
+	private boolean labelUpdatesScheduled;
+
 	/**
 	 * List of double-click state listeners (element type:
 	 * <code>IDoubleClickListener</code>).
@@ -1852,6 +1868,45 @@ public abstract class StructuredViewer extends ContentViewer implements
 		}
 	}
 
+	/**
+	 * Configures whether the label updates of items already showing an
+	 * element are batched. When batched, the updates requested by
+	 * <code>update</code> and <code>refresh(..., true)</code> are deferred to
+	 * the end of the current frame, and the label provider is called once per
+	 * item however many times the item was updated. Disabling batching
+	 * performs the pending updates immediately. Label updates are not batched
+	 * by default.
+	 * 
+	 * @param batch
+	 *            <code>true</code> to batch label updates, and
+	 *            <code>false</code> to perform them immediately
+	 * @since 3.7
+	 */
+	public void setBatchLabelUpdates(boolean batch) {
+		if (batch == (pendingLabelUpdates != null)) {
+			return;
+		}
+		if (batch) {
+			pendingLabelUpdates = new LinkedHashMap();
+		} else {
+			Map pending = pendingLabelUpdates;
+			pendingLabelUpdates = null;
+			flushLabelUpdates(pending);
+		}
+	}
+
+	/**
+	 * Returns whether the label updates of items already showing an element
+	 * are batched.
+	 * 
+	 * @return <code>true</code> if label updates are batched
+	 * @see #setBatchLabelUpdates(boolean)
+	 * @since 3.7
+	 */
+	public boolean isBatchLabelUpdates() {
+		return pendingLabelUpdates != null;
+	}
+
 	/**
 	 * Configures whether this structured viewer uses an internal hash table to
 	 * speeds up the mapping between elements and SWT items. This must be called
@@ -2197,7 +2252,7 @@ public abstract class StructuredViewer extends ContentViewer implements
 			}
 		}
 		if (needsUpdate) {
-			updateItem(widget, element);
+			updateLabel(widget, element);
 		}
 	}
 
@@ -2217,6 +2272,62 @@ public abstract class StructuredViewer extends ContentViewer implements
 		SafeRunnable.run(new UpdateItemSafeRunnable(widget, element, true));
 	}
 
+	/**
+	 * Updates the label of the given widget, which already shows the given
+	 * element. The update of an item is deferred to the end of the current
+	 * frame if label updates are batched.
+	 * 
+	 * @param widget
+	 *            the widget
+	 * @param element
+	 *            the element
+	 * @see #setBatchLabelUpdates(boolean)
+	 */
+	/* package */void updateLabel(Widget widget, Object element) {
+		if (pendingLabelUpdates == null || !(widget instanceof Item)) {
+			updateItem(widget, element);
+			return;
+		}
+		pendingLabelUpdates.put(widget, element);
+		if (labelUpdatesScheduled) {
+			return;
+		}
+		labelUpdatesScheduled = true;
+		getControl().getDisplay().asyncExec(new Runnable() {
+			public void run() {
+				labelUpdatesScheduled = false;
+				if (pendingLabelUpdates == null
+						|| pendingLabelUpdates.isEmpty()) {
+					return;
+				}
+				Map pending = pendingLabelUpdates;
+				pendingLabelUpdates = new LinkedHashMap();
+				flushLabelUpdates(pending);
+			}
+		});
+	}
+
+	/**
+	 * Performs the given label updates, skipping the widgets disposed or
+	 * associated with another element since they were requested.
+	 * 
+	 * @param pending
+	 *            the updates, mapping widgets to elements
+	 */
+	private void flushLabelUpdates(Map pending) {
+		Control control = getControl();
+		if (control == null || control.isDisposed()) {
+			return;
+		}
+		for (Iterator iter = pending.entrySet().iterator(); iter.hasNext();) {
+			Map.Entry entry = (Map.Entry) iter.next();
+			Widget widget = (Widget) entry.getKey();
+			if (!widget.isDisposed() && widget.getData() == entry.getValue()) {
+				updateItem(widget, entry.getValue());
+			}
+		}
+	}
+
 	/**
 	 * Updates the selection of this viewer.
 	 * <p>
@@ -2412,6 +2523,8 @@ public abstract class StructuredViewer extends ContentViewer implements
 		doubleClickListeners.clear();
 		colorAndFontCollector.clear();
 		postSelectionChangedListeners.clear();
+		if (pendingLabelUpdates != null)
+			pendingLabelUpdates.clear();
 	}
 
 }
@@ -15,10 +15,12 @@ import java.util.Comparator;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jface.resource.JFaceResources;
 import org.eclipse.jface.viewers.AcceptAllFilter;
 import org.eclipse.jface.viewers.IFilter;
 import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
+import org.eclipse.swt.widgets.Display;
 
 /**
  * Contains the algorithm for performing background sorting and filtering in a virtual
@@ -51,6 +53,16 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
  * the previous range.
  * </p>
  * 
+ * <p>
+ * There are no background threads in the browser. The sort runs on the UI thread instead,
+ * in slices of a few milliseconds posted with <code>asyncExec</code>, so that the table
+ * stays responsive while a large collection is sorted. Each slice processes the pending
+ * changes and sorts as much as its time allows; the state of the sort is kept between
+ * slices, and the partially-sorted <code>LazySortedCollection</code> resumes where the
+ * previous slice stopped. Work made obsolete by a new sort order, filter or set of
+ * contents is discarded at the start of the next slice.
+ * </p>
+ * 
  * @since 3.1
  */
 /* package */ final class BackgroundContentProvider {
@@ -126,11 +138,57 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
     private ConcurrentTableUpdator updator;
     
     private IProgressMonitor sortingProgressMonitor = new NullProgressMonitor();
-//    private Thread sortThread = null;
 
 	private volatile FastProgressReporter sortMon = new FastProgressReporter();
 
 	private volatile Range range = new Range(0,0);
+
+	/**
+	 * Time budget of a sort slice, in milliseconds
+	 */
+	private static final int SLICE_TIME = 8;
+
+	/**
+	 * Step types, in addition to the change types of <code>ChangeQueue</code>
+	 */
+	private static final int RESORT = -1;
+	private static final int REFILTER = -2;
+
+	/**
+	 * Display on which the sort slices run
+	 */
+	private Display display;
+
+	/**
+	 * Sorted and filtered elements, or null if the sort has not started
+	 */
+	private LazySortedCollection collection;
+
+	/**
+	 * Sort order and filter of the collection
+	 */
+	private Comparator collectionOrder;
+	private IFilter collectionFilter;
+
+	/**
+	 * Step in progress: its type, the elements it processes and the index of the
+	 * next element. The elements are null if there is no step in progress.
+	 */
+	private int stepType;
+	private Object[] stepItems;
+	private int stepIndex;
+
+	/**
+	 * Collection being filled by a RESORT step
+	 */
+	private LazySortedCollection resorted;
+
+	/**
+	 * True iff the table has not been sent the current state of the collection
+	 */
+	private boolean dirty;
+
+	private int prevSize;
     
     /**
      * Creates a new background content provider
@@ -143,6 +201,7 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
             IConcurrentModel model, Comparator sortOrder) {
         
         updator = new ConcurrentTableUpdator(table);
+        display = table.getControl().getDisplay();
         this.model = model;
         this.sortOrder = sortOrder;
         model.addListener(listener);
@@ -156,6 +215,8 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
         cancelSortJob();
         updator.dispose();
         model.removeListener(listener);
+        collection = resorted = null;
+        stepItems = null;
     }
     
     /**
@@ -169,212 +230,221 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
     }
 
     /**
-     * Called from sortJob. Sorts the elements defined by sortStart and sortLength.
-     * Schedules a UI update when finished.
+     * Runs a slice of the sort. Processes the pending changes, then sorts the visible
+     * range and the rest of the collection and sends them to the table, until the
+     * table is up to date or until the slice is over. The state of the sort is kept
+     * between slices.
      * 
-     * @param mon monitor where progress will be reported
+     * @param mon reporter that is canceled when the slice is over
+     * @return true if the table is up to date, false if another slice is needed
      */
-    private void doSort(IProgressMonitor mon) {        
-        
-        // Workaround for some weirdness in the Jobs framework: if you cancel a monitor
-        // for a job that has ended and reschedule that same job, it will start 
-        // the job with a monitor that is already cancelled. We can workaround this by
-        // removing all references to the progress monitor whenever the job terminates,
-        // but this would require additional synchronize blocks (which are slow) and more
-        // complexity. Instead, we just un-cancel the monitor at the start of each job. 
-        mon.setCanceled(false);
-
-       	mon.beginTask(SORTING, 100);
-       	
-        // Create a LazySortedCollection
-        Comparator order = sortOrder;
-        IFilter f = filter;
-        LazySortedCollection collection = new LazySortedCollection(order);
-        
-        // Fill it in with all existing known objects
-        Object[] knownObjects = updator.getKnownObjects();
-        for (int i = 0; i < knownObjects.length; i++) {
-			Object object = knownObjects[i];
-			if (object != null) {
-				collection.add(object);
-			}
-		}
-
-        boolean dirty = false;
-        int prevSize = knownObjects.length;
-        updator.setTotalItems(prevSize);
-        
-		// Start processing changes
-        while(true) {
-        	// If the sort order has changed, build a new LazySortedCollection with
-        	// the new comparator
-        	if (order != sortOrder) {
-        		dirty = true;
-        		order = sortOrder;
-        		// Copy all elements from the old collection to the new one 
-        		LazySortedCollection newCollection = new LazySortedCollection(order);
-        		
-        		Object[] items = collection.getItems(false);
-        		for (int j = 0; j < items.length && order == sortOrder; j++) {
-					Object item = items[j];
-					
-					newCollection.add(item);
-				}
-        		
-        		// If the sort order changed again, re-loop
-				if (order != sortOrder) {
-					continue;
-				}
-				collection = newCollection;
-				continue;
-        	} 
-        	
-        	// If the filter has changed
-        	if (f != filter) {
-        		dirty = true;
-        		f = filter;
-        		
-        		Object[] items = collection.getItems(false);
-        		
-        		// Remove any items that don't pass the new filter
-        		for (int j = 0; j < items.length && f == filter; j++) {
-					Object toTest = items[j];
-					
-					if (!f.select(toTest)) {
-						collection.remove(toTest);
-					}
-				}
-        		continue;
-        	}
-        
-        	// If there are pending changes, process one of them
-        	if (!changeQueue.isEmpty()) {
-        		dirty = true;
-	        	ChangeQueue.Change next = changeQueue.dequeue();
-	        	
-	        	switch(next.getType()) {
-		        	case ChangeQueue.ADD: {
-		            	filteredAdd(collection, next.getElements(), f);
-		        		break;
-		        	}
-		        	case ChangeQueue.REMOVE: {
-		        		Object[] toRemove = next.getElements();
-	
-		                flush(toRemove, collection);
-		                collection.removeAll(toRemove);
-	
-		        		break;
-		        	}
-		        	case ChangeQueue.UPDATE: {
-		        		Object[] items  = next.getElements();
-		        		
-	        	        for (int i = 0; i < items.length; i++) {
-	        	            Object item = items[i];
-	        	            
-	        	            if (collection.contains(item)) {
-	        	                // TODO: write a collection.update(...) method
-	        	                collection.remove(item);
-	        	                collection.add(item);
-	        	                updator.clear(item);        	                
-	        	            }
-	        	        }
-		        	        
-		        		break;
-		        	}
-		        	case ChangeQueue.SET: {
-		        		Object[] items = next.getElements();
-		        		collection.clear();
-		        		filteredAdd(collection, items, f);
-		        	        
-		        		break;
-		        	}
-	        	}
-	        	
-	        	continue;
-        	}
-        	
-	        int totalElements = collection.size();
-            if (limit != -1) {
-                if (totalElements > limit) {
-                    totalElements = limit;
+    private boolean doSort(FastProgressReporter mon) {
+        if (collection == null) {
+            sortingProgressMonitor.beginTask(SORTING, IProgressMonitor.UNKNOWN);
+            
+            // Create a LazySortedCollection
+            collectionOrder = sortOrder;
+            collectionFilter = filter;
+            collection = new LazySortedCollection(collectionOrder);
+            
+            // Fill it in with all existing known objects
+            Object[] knownObjects = updator.getKnownObjects();
+            for (int i = 0; i < knownObjects.length; i++) {
+                Object object = knownObjects[i];
+                if (object != null) {
+                    collection.add(object);
                 }
             }
             
-            if (totalElements != prevSize) {
-            	prevSize = totalElements;
-	            // Send the total items to the updator ASAP -- the user may want
-	            // to scroll to a different section of the table, which would
-	            // cause our sort range to change and cause this job to get cancelled.
-		        updator.setTotalItems(totalElements);
-		        dirty = true;
+            dirty = false;
+            prevSize = knownObjects.length;
+            updator.setTotalItems(prevSize);
+        }
+        
+        try {
+            // Start processing changes
+            while (true) {
+                // Continue the step in progress
+                if (stepItems != null) {
+                    if (!continueStep(mon)) {
+                        return false;
+                    }
+                    continue;
+                }
+                
+                // If the sort order has changed, copy all elements to a new
+                // LazySortedCollection with the new comparator
+                if (collectionOrder != sortOrder) {
+                    dirty = true;
+                    collectionOrder = sortOrder;
+                    resorted = new LazySortedCollection(collectionOrder);
+                    startStep(RESORT, collection.getItems(false));
+                    continue;
+                }
+                
+                // If the filter has changed, remove any items that don't pass it
+                if (collectionFilter != filter) {
+                    dirty = true;
+                    collectionFilter = filter;
+                    startStep(REFILTER, collection.getItems(false));
+                    continue;
+                }
+                
+                // If there are pending changes, start processing one of them
+                if (!changeQueue.isEmpty()) {
+                    dirty = true;
+                    ChangeQueue.Change next = changeQueue.dequeue();
+                    
+                    if (next.getType() == ChangeQueue.SET) {
+                        collection.clear();
+                        startStep(ChangeQueue.ADD, next.getElements());
+                    } else {
+                        startStep(next.getType(), next.getElements());
+                    }
+                    continue;
+                }
+                
+                int totalElements = collection.size();
+                if (limit != -1) {
+                    if (totalElements > limit) {
+                        totalElements = limit;
+                    }
+                }
+                
+                if (totalElements != prevSize) {
+                    prevSize = totalElements;
+                    // Send the total items to the updator ASAP -- the user may want
+                    // to scroll to a different section of the table, which would
+                    // change our sort range before the next slice.
+                    updator.setTotalItems(totalElements);
+                    dirty = true;
+                }
+                
+                // Terminate loop
+                if (!dirty) {
+                    sortingProgressMonitor.done();
+                    return true;
+                }
+                
+                ConcurrentTableUpdator.Range updateRange = updator.getVisibleRange();
+                range = updateRange;
+                int sortStart = updateRange.start;
+                int sortLength = updateRange.length;
+                
+                if (limit != -1) {
+                    collection.retainFirst(limit, mon);
+                }
+                
+                sortLength = Math.min(sortLength, totalElements - sortStart);
+                sortLength = Math.max(sortLength, 0);
+                
+                Object[] objectsOfInterest = new Object[sortLength];
+                
+                collection.getRange(objectsOfInterest, sortStart, true, mon);
+                
+                // Send the new elements to the table
+                for (int i = 0; i < sortLength; i++) {
+                    Object object = objectsOfInterest[i];
+                    updator.replace(object, sortStart + i);
+                }
+                
+                objectsOfInterest = new Object[collection.size()];
+                
+                collection.getFirst(objectsOfInterest, true, mon);
+                
+                // Send the new elements to the table
+                for (int i = 0; i < totalElements; i++) {
+                    Object object = objectsOfInterest[i];
+                    updator.replace(object, i);
+                }
+                
+                dirty = false;
             }
-            
-            // Terminate loop
-            if (!dirty) {
-            	break;
+        } catch (OperationCanceledException e) {
+            // The slice is over. The elements partitioned so far remain partitioned,
+            // so the next slice resumes the sort.
+            return false;
+        }
+    }
+    
+    /**
+     * Starts a step processing the given elements
+     * 
+     * @param type RESORT, REFILTER or one of the <code>ChangeQueue</code> change types
+     * @param items elements to process
+     */
+    private void startStep(int type, Object[] items) {
+        stepType = type;
+        stepItems = items;
+        stepIndex = 0;
+    }
+    
+    /**
+     * Processes the elements of the step in progress, until the step is done or until
+     * the slice is over. A step made obsolete by a new sort order or filter is
+     * abandoned.
+     * 
+     * @param mon reporter that is canceled when the slice is over
+     * @return false if the slice is over
+     */
+    private boolean continueStep(FastProgressReporter mon) {
+        if (stepType == RESORT && collectionOrder != sortOrder
+                || stepType == REFILTER && collectionFilter != filter) {
+            stepItems = null;
+            resorted = null;
+            return true;
+        }
+        
+        while (stepIndex < stepItems.length) {
+            if (mon.isCanceled()) {
+                return false;
             }
-        	
-            try {
-            	ConcurrentTableUpdator.Range updateRange = updator.getVisibleRange();
-            	sortMon = new FastProgressReporter();
-            	range = updateRange;
-            	int sortStart = updateRange.start;
-            	int sortLength = updateRange.length;
             
-		        if (limit != -1) {
-		            collection.retainFirst(limit, sortMon);
-		        }
-
-		        sortLength = Math.min(sortLength, totalElements - sortStart);
-		        sortLength = Math.max(sortLength, 0);
-		        
-		        Object[] objectsOfInterest = new Object[sortLength];
-		     
-		        collection.getRange(objectsOfInterest, sortStart, true, sortMon);
-		        
-		        // Send the new elements to the table
-		        for (int i = 0; i < sortLength; i++) {
-					Object object = objectsOfInterest[i];
-					updator.replace(object, sortStart + i);
-				}
-		        
-			    objectsOfInterest = new Object[collection.size()];
-			        
-			    collection.getFirst(objectsOfInterest, true, sortMon);
-		        
-		        // Send the new elements to the table
-		        for (int i = 0; i < totalElements; i++) {
-					Object object = objectsOfInterest[i];
-					updator.replace(object, i);
-				}
-
-            } catch (Exception e) {
-            	continue;
-            }
+            Object item = stepItems[stepIndex++];
             
-            dirty = false;
-	    }
+            switch (stepType) {
+                case RESORT: {
+                    resorted.add(item);
+                    break;
+                }
+                case REFILTER: {
+                    if (!collectionFilter.select(item)) {
+                        collection.remove(item);
+                    }
+                    break;
+                }
+                case ChangeQueue.ADD: {
+                    if (collectionFilter.select(item)) {
+                        collection.add(item);
+                    }
+                    break;
+                }
+                case ChangeQueue.REMOVE: {
+                    if (collection.contains(item)) {
+                        updator.clear(item);
+                        collection.remove(item);
+                    }
+                    break;
+                }
+                case ChangeQueue.UPDATE: {
+                    if (collection.contains(item)) {
+                        // TODO: write a collection.update(...) method
+                        collection.remove(item);
+                        collection.add(item);
+                        updator.clear(item);
+                    }
+                    break;
+                }
+            }
+        }
         
-        mon.done();
+        if (stepType == RESORT) {
+            collection = resorted;
+            resorted = null;
+        }
+        stepItems = null;
+        return true;
     }
-
-	/**
-	 * @param collection
-	 * @param toAdd
-	 */
-	private static void filteredAdd(LazySortedCollection collection, Object[] toAdd, IFilter filter) {
-		if (filter != AcceptAllFilter.getInstance()) { 
-			for (int i = 0; i < toAdd.length; i++) {
-				Object object = toAdd[i];
-				
-				if (filter.select(object)) {
-					collection.add(object);
-				}
-			}
-		} else {
-			collection.addAll(toAdd);
-		}
-	}
     
     /**
      * Sets the sort order for this content provider
@@ -440,64 +510,43 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
     }
     
     /**
-     * This lock protects the two boolean variables sortThreadStarted and resortScheduled.
+     * true if a sort slice is posted
      */
-    private Object lock = new Object();
+    private boolean sortScheduled = false;
 
     /**
-     * true if the sort thread is running
+     * Runs a slice of the sort, and posts the next one if the sort is not done
      */
-    private boolean sortThreadStarted = false;
+    private Runnable sortSlice = new Runnable() {
+        public void run() {
+            sortScheduled = false;
+            if (updator.isDisposed() || sortingProgressMonitor.isCanceled()) {
+                return;
+            }
+            sortMon = new FastProgressReporter(SLICE_TIME);
+            if (!doSort(sortMon)) {
+                scheduleSort();
+            }
+        }
+    };
 
     /**
-     * true if we need to sort
+     * Posts a sort slice, unless one is posted already.
      */
-    private boolean sortScheduled = false;
-
-//	private final class SortThread extends Thread {
-//		private SortThread(String name) {
-//			super(name);
-//		}
-//
-//		public void run() {
-//			loop: while (true) {
-//				synchronized (lock) {
-//					sortScheduled = false;
-//				}
-//				try {
-//					// this is the main work
-//					doSort(sortingProgressMonitor);
-//				} catch (Exception ex) {
-//					// ignore
-//				}
-//				synchronized (lock) {
-//					if (sortScheduled) {
-//						continue loop;
-//					}
-//					sortThreadStarted = false;
-//					break loop;
-//				}
-//			}
-//		}
-//	}
+    private void scheduleSort() {
+        if (!sortScheduled && !display.isDisposed()) {
+            sortScheduled = true;
+            display.asyncExec(sortSlice);
+        }
+    }
     
     /**
      * Must be called whenever the model changes. Dirties this object and triggers a sort
      * if necessary. 
      */
     private void makeDirty() {
-		synchronized (lock) {
-			sortMon.cancel();
-			// request sorting
-//			sortScheduled = true;
-//			if (!sortThreadStarted) {
-//				sortThreadStarted = true;
-//				sortThread = new SortThread(SORTING);
-//				sortThread.setDaemon(true);
-//				sortThread.setPriority(Thread.NORM_PRIORITY - 1);
-//				sortThread.start();
-//			}
-		}
+		sortMon.cancel();
+		scheduleSort();
 	}
     
     /**
@@ -529,6 +578,10 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
      */
     private void setContents(Object[] contents) {
     	changeQueue.enqueue(ChangeQueue.SET, contents);
+    	// The new contents make any addition or removal in progress redundant
+    	if (stepType == ChangeQueue.ADD || stepType == ChangeQueue.REMOVE) {
+    		stepItems = null;
+    	}
     	makeDirty();
     }
 
@@ -543,23 +596,6 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
         refresh();
     }
 
-    /**
-     * Notifies the updator that the given elements have changed 
-     * 
-     * @param toFlush changed elements
-     * @param collection collection of currently-known elements
-     */
-    private void flush(Object[] toFlush, LazySortedCollection collection) {
-        for (int i = 0; i < toFlush.length; i++) {
-            Object item = toFlush[i];
-            
-            if (collection.contains(item)) {
-                updator.clear(item);
-            }
-        }
-    }
-
-
     /**
      * Called when elements in the model change
      * 
@@ -16,6 +16,11 @@ import org.eclipse.core.runtime.IProgressMonitor;
  * A more efficient alternative to an IProgressMonitor. In particular, the implementation
  * is designed to make isCanceled() run as efficiently as possible. Currently package-visible
  * because the implementation is incomplete.
+ * <p>
+ * A reporter may be given a time slice, after which it reports itself canceled. This
+ * lets long operations run in slices on the UI thread: an operation canceled at the
+ * end of its slice is resumed in the next one, with a new reporter.
+ * </p>
  * 
  * @since 3.1
  */
@@ -23,6 +28,7 @@ final class FastProgressReporter {
     private IProgressMonitor monitor;
     private volatile boolean canceled = false;
     private int cancelCheck = 0;
+    private long deadline = 0;
 //    private String taskName;
 //    
 //    private int taskDepth = 0;
@@ -39,6 +45,15 @@ final class FastProgressReporter {
     public FastProgressReporter() {
     }
     
+    /**
+     * Constructs a FastProgressReporter that is canceled once the given time has elapsed
+     * 
+     * @param timeSlice time in milliseconds after which the reporter is canceled
+     */
+    public FastProgressReporter(int timeSlice) {
+        deadline = System.currentTimeMillis() + timeSlice;
+    }
+    
     /**
      * Constructs a FastProgressReporter that wraps the given progress monitor
      * 
@@ -120,13 +135,18 @@ final class FastProgressReporter {
      * @return <code>true</code> if the monitor has been cancelled, <code>false</code> otherwise.
      */
     public boolean isCanceled() {
-        if (monitor == null) {
+        if (monitor == null && deadline == 0) {
             return canceled;
         }
         
         cancelCheck++;
         if (cancelCheck > CANCEL_CHECK_PERIOD) {
-            canceled = monitor.isCanceled();
+            if (monitor != null) {
+                canceled = monitor.isCanceled();
+            }
+            if (deadline != 0 && System.currentTimeMillis() >= deadline) {
+                canceled = true;
+            }
             cancelCheck = 0;
         }
         return canceled;
@@ -15,6 +15,7 @@ import java.util.Comparator;
 import java.util.Iterator;
 
 import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.OperationCanceledException;
 
 /**
  * This object maintains a collection of elements, sorted by a comparator
@@ -353,6 +354,8 @@ public class LazySortedCollection {
      * @param subTree
      * @return the replacement node (this may be different from subTree if the subtree
      * was replaced during the removal)
+     * @throws OperationCanceledException if the monitor is canceled. The elements
+     * partitioned so far remain partitioned.
      * @since 3.1
      */
     private final int partition(int subTree, FastProgressReporter mon) {
@@ -375,7 +378,7 @@ public class LazySortedCollection {
             }
             
             if (mon.isCanceled()) {
-                throw new RuntimeException();
+                throw new OperationCanceledException();
             }
         }
         
@@ -848,6 +851,7 @@ public class LazySortedCollection {
      * 
      * @param n number of items to retain
      * @param mon progress monitor
+     * @throws OperationCanceledException if the monitor is canceled
      */
     /* package */ final void retainFirst(int n, FastProgressReporter mon) {
         int sz = size();
@@ -905,13 +909,10 @@ public class LazySortedCollection {
      * @param first 0-based index of the smallest item to remove
      * @param length number of items to remove
      * @param mon progress monitor
+     * @throws OperationCanceledException if the monitor is canceled
      */
     /* package */ final void removeRange(int first, int length, FastProgressReporter mon) {
-    	try {
-			removeRange(root, first, length, mon);
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
+    	removeRange(root, first, length, mon);
     	
     	pack();
     	
@@ -1205,15 +1206,10 @@ public class LazySortedCollection {
      * @param mon monitor used to report progress and check for cancellation
      * @return the number of items inserted into the result array. This will be equal to the minimum
      * of result.length and container.size()
+     * @throws OperationCanceledException if the monitor is canceled
      */
     /* package */ final int getFirst(Object[] result, boolean sorted, FastProgressReporter mon) {
-        int returnValue = -1;
-		try {
-			returnValue = getRange(result, 0, sorted, mon);
-		} catch (Exception e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
+        int returnValue = getRange(result, 0, sorted, mon);
         
         testInvariants();
         
@@ -1259,14 +1255,10 @@ public class LazySortedCollection {
      * @param rangeStart index of the smallest element to appear in the result
      * @param sorted true iff the result array should be sorted
      * @param mon progress monitor used to cancel the operation
+     * @throws OperationCanceledException if the monitor is canceled
      */
     /* package */ final int getRange(Object[] result, int rangeStart, boolean sorted, FastProgressReporter mon) {
-        try {
-			return getRange(result, 0, rangeStart, root, sorted, mon);
-		} catch (Exception e) {
-			e.printStackTrace();
-			return -1;
-		}
+        return getRange(result, 0, rangeStart, root, sorted, mon);
     }
     
     /**
@@ -1345,11 +1337,7 @@ public class LazySortedCollection {
             }
         }
         
-        try {
-			node = partition(node, mon);
-		} catch (Exception e) {
-			node = -1;
-		}
+        node = partition(node, mon);
 
         if (node == -1) {
             return 0;
@@ -1397,11 +1385,7 @@ public class LazySortedCollection {
         int tempIdx = resultIdx;
         
         if (sorted) {
-            try {
-				node = partition(node, mon);
-			} catch (Exception e) {
-				e.printStackTrace();
-			}
+            node = partition(node, mon);
             if (node == -1) {
                 return 0;
             }
@@ -134,6 +134,8 @@ public class Canvas extends Composite {
 			}
 		});
 
+		new TouchInput(this);
+
 		parentWidget.add(innerPanel);
 		ScrollPanel sp = new ScrollPanel();
 		sp.getElement().setId("SCROLL_PANEL");
@@ -1580,6 +1580,7 @@ public abstract class Control extends Widget implements Drawable {
 		checkWidget();
 		if (listener == null)
 			error(SWT.ERROR_NULL_ARGUMENT);
+		super.removeKeyListener(listener);
 		if (eventTable == null)
 			return;
 		eventTable.unhook(SWT.KeyUp, listener);
@@ -1645,6 +1646,7 @@ public abstract class Control extends Widget implements Drawable {
 		checkWidget();
 		if (listener == null)
 			error(SWT.ERROR_NULL_ARGUMENT);
+		super.removeMouseListener(listener);
 		if (eventTable == null)
 			return;
 		eventTable.unhook(SWT.MouseDown, listener);
@@ -1678,6 +1680,7 @@ public abstract class Control extends Widget implements Drawable {
 		checkWidget();
 		if (listener == null)
 			error(SWT.ERROR_NULL_ARGUMENT);
+		super.removeMouseMoveListener(listener);
 		if (eventTable == null)
 			return;
 		eventTable.unhook(SWT.MouseMove, listener);
@@ -31,6 +31,8 @@ import org.eclipse.swt.internal.gwt.GdkRectangle;
 import org.eclipse.swt.internal.gwt.XExposeEvent;
 import org.eclipse.swt.internal.gwt.XVisibilityEvent;
 
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.core.client.Scheduler.ScheduledCommand;
 import com.google.gwt.user.client.Timer;
 
 /**
@@ -157,6 +159,12 @@ public class Display extends Device {
 
 	/* Sync/Async Widget Communication */
 	Synchronizer synchronizer = new Synchronizer(this);
+	boolean messagesScheduled;
+	final ScheduledCommand messagesCommand = new ScheduledCommand() {
+		public void execute() {
+			runAsyncMessages();
+		}
+	};
 
 	/**
 	 * TODO Thread thread;
@@ -176,6 +184,7 @@ public class Display extends Device {
 	/* Timers */
 	int[] timerIds;
 	Runnable[] timerList;
+	Timer[] timers;
 	Callback timerCallback;
 	long /* int */timerProc;
 	Callback windowTimerCallback;
@@ -570,7 +579,7 @@ public class Display extends Device {
 	 * @see #syncExec
 	 */
 	public void asyncExec(Runnable runnable) {
-		timerExec(1, runnable);
+		synchronizer.asyncExec(runnable);
 	}
 
 	/**
@@ -2074,6 +2083,25 @@ public class Display extends Device {
 		return false;
 	}
 
+	/*
+	 * Runs the messages queued by asyncExec() when the queue was scheduled.
+	 * Messages queued while they run are left for a later task, so that the
+	 * browser handles input and paints in between.
+	 */
+	void runAsyncMessages() {
+		messagesScheduled = false;
+		int count = synchronizer.getMessageCount();
+		try {
+			for (int i = 0; i < count; i++) {
+				if (!synchronizer.runAsyncMessages(false))
+					break;
+			}
+		} finally {
+			if (synchronizer.getMessageCount() > 0)
+				wakeThread();
+		}
+	}
+
 	static void register(Display display) {
 		synchronized (Device.class) {
 			for (int i = 0; i < Displays.length; i++) {
@@ -2426,6 +2454,11 @@ public class Display extends Device {
 	 * user-interface thread after the specified number of milliseconds have
 	 * elapsed. If milliseconds is less than zero, the runnable is not executed.
 	 * <p>
+	 * If the runnable is already waiting for its timer, the timer is restarted
+	 * with the new delay, or cancelled if the delay is less than zero, so that
+	 * the runnable is only executed once.
+	 * </p>
+	 * <p>
 	 * Note that at the time the runnable is invoked, widgets that have the
 	 * receiver as their display may have been disposed. Therefore, it is
 	 * necessary to check for this case inside the runnable before accessing the
@@ -2452,15 +2485,62 @@ public class Display extends Device {
 	 * @see #asyncExec
 	 */
 	public void timerExec(int milliseconds, final Runnable runnable) {
-		Timer execTimer = new Timer() {
-
+		checkDevice();
+		if (runnable == null)
+			error(SWT.ERROR_NULL_ARGUMENT);
+		if (timerList == null) {
+			timerList = new Runnable[4];
+			timers = new Timer[4];
+		}
+		int index = 0;
+		while (index < timerList.length) {
+			if (timerList[index] == runnable)
+				break;
+			index++;
+		}
+		if (index != timerList.length) {
+			if (milliseconds < 0) {
+				timers[index].cancel();
+				timers[index] = null;
+				timerList[index] = null;
+				return;
+			}
+			// reschedule the pending timer
+			timers[index].schedule(milliseconds);
+			return;
+		}
+		if (milliseconds < 0)
+			return;
+		index = 0;
+		while (index < timerList.length) {
+			if (timerList[index] == null)
+				break;
+			index++;
+		}
+		if (index == timerList.length) {
+			Runnable[] newTimerList = new Runnable[timerList.length + 4];
+			System.arraycopy(timerList, 0, newTimerList, 0, timerList.length);
+			timerList = newTimerList;
+			Timer[] newTimers = new Timer[timers.length + 4];
+			System.arraycopy(timers, 0, newTimers, 0, timers.length);
+			timers = newTimers;
+		}
+		Timer timer = new Timer() {
 			@Override
 			public void run() {
+				for (int i = 0; i < timers.length; i++) {
+					if (timers[i] == this) {
+						timers[i] = null;
+						timerList[i] = null;
+						break;
+					}
+				}
 				runnable.run();
 			}
-
 		};
-		execTimer.schedule(milliseconds);
+		timerList[index] = runnable;
+		timers[index] = timer;
+		timer.schedule(milliseconds);
 	}
 
 	void sendEvent(int eventType, Event event) {
@@ -2515,6 +2595,10 @@ public class Display extends Device {
 	}
 
 	void wakeThread() {
+		if (messagesScheduled)
+			return;
+		messagesScheduled = true;
+		Scheduler.get().scheduleDeferred(messagesCommand);
 	}
 
 	/**
@@ -15,9 +15,19 @@ import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
 import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.events.SelectionListener;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.internal.gwt.GdkColor;
+
+import com.google.gwt.dom.client.Document;
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.dom.client.ImageElement;
+import com.google.gwt.dom.client.NativeEvent;
+import com.google.gwt.dom.client.Style;
+import com.google.gwt.dom.client.Style.Unit;
+import com.google.gwt.user.client.ui.LayoutPanel;
 
 /**
  * Instances of this class implement a selectable user interface object that
@@ -66,6 +76,16 @@ import org.eclipse.swt.internal.gwt.GdkColor;
  * Note: Only one of the styles SINGLE, and MULTI may be specified.
  * </p>
  * <p>
+ * Only the rows inside the viewport, and a few rows around it, are rendered,
+ * into a pool of row elements which are recycled while scrolling, so that the
+ * cost of scrolling does not depend on the number of items. Items of a
+ * <code>VIRTUAL</code> table are created, and their data requested through
+ * <code>SetData</code>, when their row is first rendered. Rows have the same
+ * height, unless a <code>MeasureItem</code> listener is added: each row is
+ * then measured by the listener when it is first rendered. Columns are not
+ * rendered: the rows show the text and image of the first column.
+ * </p>
+ * <p>
  * IMPORTANT: This class is <em>not</em> intended to be subclassed.
  * </p>
  * 
@@ -90,6 +110,10 @@ public class Table extends Composite {
 	int drawState, drawFlags;
 	GdkColor drawForeground;
 	boolean ownerDraw, ignoreSize, ignoreAccessibility;
+	boolean[] selected;
+	int selectionCount, focusIndex = -1;
+	VirtualRows rows;
+	GC measureGC;
 
 	static final int CHECKED_COLUMN = 0;
 	static final int GRAYED_COLUMN = 1;
@@ -103,6 +127,8 @@ public class Table extends Composite {
 	static final int CELL_BACKGROUND = 3;
 	static final int CELL_FONT = 4;
 	static final int CELL_TYPES = CELL_FONT + 1;
+	static final int CHECK_WIDTH = 16;
+	static final String CHECK_BOX = "swt-TableCheck"; //$NON-NLS-1$
 
 	/**
 	 * Constructs a new instance of this class given its parent and a style
@@ -146,6 +172,37 @@ public class Table extends Composite {
 	 */
 	public Table(Composite parent, int style) {
 		super(parent, checkStyle(style));
+		items = new TableItem[4];
+		columns = new TableColumn[4];
+		selected = new boolean[4];
+		rows = new VirtualRows(new VirtualRows.Renderer() {
+			public int getRowCount() {
+				return itemCount;
+			}
+
+			public int measureRow(int row) {
+				return Table.this.measureRow(row);
+			}
+
+			public void renderRow(int row, Element element) {
+				Table.this.renderRow(row, element);
+			}
+
+			public void rowClicked(int row, Element target, NativeEvent event) {
+				Table.this.rowClicked(row, target, event, false);
+			}
+
+			public void rowDoubleClicked(int row, Element target,
+					NativeEvent event) {
+				Table.this.rowClicked(row, target, event, true);
+			}
+		});
+		LayoutPanel panel = (LayoutPanel) getGwtWidget();
+		panel.add(rows.getWidget());
+		com.google.gwt.user.client.ui.Widget parentWidget = parent
+				.getGwtWidget();
+		if (parentWidget instanceof LayoutPanel)
+			((LayoutPanel) parentWidget).add(panel);
 	}
 
 	void _addListener(int eventType, Listener listener) {
@@ -160,6 +217,8 @@ public class Table extends Composite {
 				break;
 			}
 		}
+		if (eventType == SWT.MeasureItem && rows != null)
+			rows.setVariableHeight(true);
 	}
 
 	TableItem _getItem(int index) {
@@ -188,6 +247,17 @@ public class Table extends Composite {
 	}
 
 	boolean checkData(TableItem item) {
+		if (item.cached)
+			return true;
+		if ((style & SWT.VIRTUAL) != 0) {
+			item.cached = true;
+			Event event = new Event();
+			event.item = item;
+			event.index = indexOf(item);
+			sendEvent(SWT.SetData, event);
+			if (isDisposed() || item.isDisposed())
+				return false;
+		}
 		return true;
 	}
 
@@ -275,6 +345,7 @@ public class Table extends Composite {
 		TableItem item = items[index];
 		if (item != null)
 			item.clear();
+		rows.refresh(index);
 	}
 
 	/**
@@ -322,6 +393,7 @@ public class Table extends Composite {
 				TableItem item = items[i];
 				if (item != null)
 					item.clear();
+				rows.refresh(i);
 			}
 		}
 	}
@@ -370,6 +442,7 @@ public class Table extends Composite {
 			TableItem item = items[indices[i]];
 			if (item != null)
 				item.clear();
+			rows.refresh(indices[i]);
 		}
 	}
 
@@ -399,10 +472,15 @@ public class Table extends Composite {
 			if (item != null)
 				item.clear();
 		}
+		rows.refreshAll();
 	}
 
 	public Point computeSize(int wHint, int hHint, boolean changed) {
-		return null;
+		checkWidget();
+		int width = wHint != SWT.DEFAULT ? wHint : DEFAULT_WIDTH;
+		int height = hHint != SWT.DEFAULT ? hHint : Math.max(itemCount, 1)
+				* getItemHeight();
+		return new Point(width, height);
 	}
 
 	void createHandle(int index) {
@@ -411,6 +489,29 @@ public class Table extends Composite {
 	void createItem(TableColumn column, int index) {
 	}
 
+	void createItem(TableItem item, int index) {
+		if (!(0 <= index && index <= itemCount))
+			error(SWT.ERROR_INVALID_RANGE);
+		if (itemCount == items.length) {
+			int length = Math.max(4, itemCount * 3 / 2);
+			TableItem[] newItems = new TableItem[length];
+			System.arraycopy(items, 0, newItems, 0, itemCount);
+			items = newItems;
+			boolean[] newSelected = new boolean[length];
+			System.arraycopy(selected, 0, newSelected, 0, itemCount);
+			selected = newSelected;
+		}
+		System.arraycopy(items, index, items, index + 1, itemCount - index);
+		System.arraycopy(selected, index, selected, index + 1, itemCount
+				- index);
+		items[index] = item;
+		selected[index] = false;
+		itemCount++;
+		if (focusIndex >= index)
+			focusIndex++;
+		rows.refreshAll();
+	}
+
 	void createWidget(int index) {
 		super.createWidget(index);
 		items = new TableItem[4];
@@ -435,6 +536,9 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public void deselect(int index) {
+		checkWidget();
+		if (0 <= index && index < itemCount)
+			selectItem(index, false);
 	}
 
 	/**
@@ -458,6 +562,11 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public void deselect(int start, int end) {
+		checkWidget();
+		start = Math.max(0, start);
+		end = Math.min(end, itemCount - 1);
+		for (int i = start; i <= end; i++)
+			selectItem(i, false);
 	}
 
 	/**
@@ -483,6 +592,14 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public void deselect(int[] indices) {
+		checkWidget();
+		if (indices == null)
+			error(SWT.ERROR_NULL_ARGUMENT);
+		for (int i = 0; i < indices.length; i++) {
+			int index = indices[i];
+			if (0 <= index && index < itemCount)
+				selectItem(index, false);
+		}
 	}
 
 	/**
@@ -497,12 +614,22 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public void deselectAll() {
+		checkWidget();
+		deselectItems();
+	}
+
+	void deselectItems() {
+		for (int i = 0; i < itemCount && selectionCount > 0; i++)
+			selectItem(i, false);
 	}
 
 	void destroyItem(TableColumn column) {
 	}
 
 	void destroyItem(TableItem item) {
+		int index = indexOf(item);
+		if (index != -1)
+			removeItems(index, index, false);
 	}
 
 	boolean dragDetect(int x, int y, boolean filter, boolean dragOnTimeout,
@@ -515,7 +642,9 @@ public class Table extends Composite {
 	}
 
 	public Rectangle getClientArea() {
-		return null;
+		checkWidget();
+		return new Rectangle(0, 0, rows.getViewportWidth(),
+				rows.getViewportHeight());
 	}
 
 	int getClientWidth() {
@@ -655,7 +784,7 @@ public class Table extends Composite {
 	}
 
 	TableItem getFocusItem() {
-		return null;
+		return focusIndex == -1 ? null : _getItem(focusIndex);
 	}
 
 	GdkColor getForegroundColor() {
@@ -780,7 +909,18 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public TableItem getItem(Point point) {
-		return null;
+		checkWidget();
+		if (point == null)
+			error(SWT.ERROR_NULL_ARGUMENT);
+		int index = rows.getRowAt(point.y);
+		return index == -1 || index >= itemCount ? null : _getItem(index);
+	}
+
+	Rectangle getItemBounds(TableItem item) {
+		int index = indexOf(item);
+		if (index == -1)
+			return new Rectangle(0, 0, 0, 0);
+		return rows.getRowBounds(index);
 	}
 
 	/**
@@ -816,7 +956,8 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public int getItemHeight() {
-		return 0;
+		checkWidget();
+		return rows.getRowHeight();
 	}
 
 	/**
@@ -894,7 +1035,13 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public TableItem[] getSelection() {
-		return null;
+		checkWidget();
+		TableItem[] result = new TableItem[selectionCount];
+		for (int i = 0, j = 0; j < selectionCount; i++) {
+			if (selected[i])
+				result[j++] = _getItem(i);
+		}
+		return result;
 	}
 
 	/**
@@ -911,7 +1058,8 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public int getSelectionCount() {
-		return 0;
+		checkWidget();
+		return selectionCount;
 	}
 
 	/**
@@ -929,6 +1077,13 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public int getSelectionIndex() {
+		checkWidget();
+		if (focusIndex != -1 && selected[focusIndex])
+			return focusIndex;
+		for (int i = 0; i < itemCount && selectionCount > 0; i++) {
+			if (selected[i])
+				return i;
+		}
 		return -1;
 	}
 
@@ -952,7 +1107,13 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public int[] getSelectionIndices() {
-		return new int[0];
+		checkWidget();
+		int[] result = new int[selectionCount];
+		for (int i = 0, j = 0; j < selectionCount; i++) {
+			if (selected[i])
+				result[j++] = i;
+		}
+		return result;
 	}
 
 	/**
@@ -1017,7 +1178,8 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public int getTopIndex() {
-		return 0;
+		checkWidget();
+		return itemCount == 0 ? 0 : rows.getTopRow();
 	}
 
 	void hideFirstColumn() {
@@ -1122,7 +1284,30 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public boolean isSelected(int index) {
-		return false;
+		checkWidget();
+		return 0 <= index && index < itemCount && selected[index];
+	}
+
+	/**
+	 * Returns the height of the row of the item at the given index, as set by
+	 * the <code>MeasureItem</code> listeners.
+	 */
+	int measureRow(int index) {
+		TableItem item = _getItem(index);
+		currentItem = item;
+		boolean valid = checkData(item);
+		currentItem = null;
+		if (!valid)
+			return getItemHeight();
+		if (measureGC == null)
+			measureGC = new GC(this);
+		Event event = new Event();
+		event.item = item;
+		event.index = 0;
+		event.gc = measureGC;
+		event.height = getItemHeight();
+		sendEvent(SWT.MeasureItem, event);
+		return event.height;
 	}
 
 	boolean mnemonicHit(char key) {
@@ -1146,6 +1331,21 @@ public class Table extends Composite {
 	void recreateRenderers() {
 	}
 
+	void redraw(boolean all) {
+		rows.refreshAll();
+	}
+
+	/**
+	 * Renders the row of the given item again, if it is visible.
+	 */
+	void redraw(TableItem item) {
+		if (item == currentItem)
+			return;
+		int index = indexOf(item);
+		if (index != -1)
+			rows.refresh(index);
+	}
+
 	void redrawBackgroundImage() {
 		Control control = findBackgroundControl();
 		if (control != null && control.backgroundImage != null) {
@@ -1179,6 +1379,15 @@ public class Table extends Composite {
 	}
 
 	void releaseWidget() {
+		super.releaseWidget();
+		rows.dispose();
+		getGwtWidget().removeFromParent();
+		if (measureGC != null)
+			measureGC.dispose();
+		measureGC = null;
+		currentItem = null;
+		selectionCount = 0;
+		focusIndex = -1;
 	}
 
 	/**
@@ -1202,6 +1411,10 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public void remove(int index) {
+		checkWidget();
+		if (!(0 <= index && index < itemCount))
+			error(SWT.ERROR_ITEM_NOT_REMOVED);
+		removeItems(index, index, true);
 	}
 
 	/**
@@ -1228,6 +1441,13 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public void remove(int start, int end) {
+		checkWidget();
+		if (start > end)
+			return;
+		if (!(0 <= start && start <= end && end < itemCount)) {
+			error(SWT.ERROR_INVALID_RANGE);
+		}
+		removeItems(start, end, true);
 	}
 
 	/**
@@ -1253,6 +1473,25 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public void remove(int[] indices) {
+		checkWidget();
+		if (indices == null)
+			error(SWT.ERROR_NULL_ARGUMENT);
+		if (indices.length == 0)
+			return;
+		int[] newIndices = new int[indices.length];
+		System.arraycopy(indices, 0, newIndices, 0, indices.length);
+		sort(newIndices);
+		int start = newIndices[newIndices.length - 1], end = newIndices[0];
+		if (!(0 <= start && start <= end && end < itemCount)) {
+			error(SWT.ERROR_INVALID_RANGE);
+		}
+		int last = -1;
+		for (int i = 0; i < newIndices.length; i++) {
+			int index = newIndices[i];
+			if (index != last)
+				removeItems(index, index, true);
+			last = index;
+		}
 	}
 
 	/**
@@ -1267,6 +1506,41 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public void removeAll() {
+		checkWidget();
+		if (itemCount > 0)
+			removeItems(0, itemCount - 1, true);
+	}
+
+	/**
+	 * Removes the items from the start index to the end index, releasing them
+	 * if <code>release</code> is <code>true</code>.
+	 */
+	void removeItems(int start, int end, boolean release) {
+		if (release) {
+			for (int i = start; i <= end; i++) {
+				TableItem item = items[i];
+				if (item != null && !item.isDisposed())
+					item.release(false);
+			}
+		}
+		for (int i = start; i <= end; i++) {
+			if (selected[i])
+				selectionCount--;
+		}
+		int count = end - start + 1;
+		System.arraycopy(items, end + 1, items, start, itemCount - end - 1);
+		System.arraycopy(selected, end + 1, selected, start, itemCount - end
+				- 1);
+		for (int i = itemCount - count; i < itemCount; i++) {
+			items[i] = null;
+			selected[i] = false;
+		}
+		itemCount -= count;
+		if (focusIndex > end)
+			focusIndex -= count;
+		else if (focusIndex >= start)
+			focusIndex = -1;
+		rows.refreshAll();
 	}
 
 	/**
@@ -1301,6 +1575,59 @@ public class Table extends Composite {
 		eventTable.unhook(SWT.DefaultSelection, listener);
 	}
 
+	void renderRow(int index, Element element) {
+		TableItem item = _getItem(index);
+		currentItem = item;
+		boolean valid = checkData(item);
+		currentItem = null;
+		if (!valid)
+			return;
+		if (element.getFirstChildElement() == null)
+			createRowElements(element);
+		Style style = element.getStyle();
+		if (selected[index]) {
+			style.setBackgroundColor(Tree.SELECTION_BACKGROUND);
+			style.setColor(Tree.SELECTION_FOREGROUND);
+		} else {
+			style.setBackgroundColor(VirtualRows.toCss(item._getBackground(0)));
+			style.setColor(VirtualRows.toCss(item._getForeground(0)));
+		}
+		Element check = element.getFirstChildElement();
+		if ((this.style & SWT.CHECK) != 0)
+			check.setInnerText(item.checked ? item.grayed ? "\u25A3" //$NON-NLS-1$
+					: "\u2611" : "\u2610"); //$NON-NLS-1$ //$NON-NLS-2$
+		ImageElement imageElement = ImageElement.as(check
+				.getNextSiblingElement());
+		Image image = item._getImage(0);
+		if (image != null && image.getGwtImage() != null) {
+			imageElement.setSrc(image.getGwtImage().getUrl());
+			imageElement.getStyle().clearDisplay();
+		} else {
+			imageElement.getStyle().setDisplay(Style.Display.NONE);
+		}
+		imageElement.getNextSiblingElement().setInnerText(item._getText(0));
+	}
+
+	/**
+	 * Creates the check box, image and text of a row element.
+	 */
+	void createRowElements(Element element) {
+		Document document = Document.get();
+		Element check = document.createSpanElement();
+		check.setClassName(CHECK_BOX);
+		check.getStyle().setProperty("display", "inline-block"); //$NON-NLS-1$ //$NON-NLS-2$
+		check.getStyle().setWidth(CHECK_WIDTH, Unit.PX);
+		check.getStyle().setProperty("textAlign", "center"); //$NON-NLS-1$ //$NON-NLS-2$
+		if ((style & SWT.CHECK) == 0)
+			check.getStyle().setDisplay(Style.Display.NONE);
+		element.appendChild(check);
+		Element image = document.createImageElement();
+		image.getStyle().setProperty("verticalAlign", "middle"); //$NON-NLS-1$ //$NON-NLS-2$
+		image.getStyle().setMarginRight(4, Unit.PX);
+		element.appendChild(image);
+		element.appendChild(document.createSpanElement());
+	}
+
 	void reskinChildren(int flags) {
 		if (items != null) {
 			for (int i = 0; i < itemCount; i++) {
@@ -1336,6 +1663,12 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public void select(int index) {
+		checkWidget();
+		if (!(0 <= index && index < itemCount))
+			return;
+		if ((style & SWT.SINGLE) != 0)
+			deselectItems();
+		selectItem(index, true);
 	}
 
 	/**
@@ -1366,6 +1699,18 @@ public class Table extends Composite {
 	 * @see Table#setSelection(int,int)
 	 */
 	public void select(int start, int end) {
+		checkWidget();
+		if (end < 0 || start > end
+				|| ((style & SWT.SINGLE) != 0 && start != end))
+			return;
+		if (itemCount == 0 || start >= itemCount)
+			return;
+		start = Math.max(0, start);
+		end = Math.min(end, itemCount - 1);
+		if ((style & SWT.SINGLE) != 0)
+			deselectItems();
+		for (int i = start; i <= end; i++)
+			selectItem(i, true);
 	}
 
 	/**
@@ -1397,6 +1742,20 @@ public class Table extends Composite {
 	 * @see Table#setSelection(int[])
 	 */
 	public void select(int[] indices) {
+		checkWidget();
+		if (indices == null)
+			error(SWT.ERROR_NULL_ARGUMENT);
+		int length = indices.length;
+		if (length == 0 || ((style & SWT.SINGLE) != 0 && length > 1))
+			return;
+		for (int i = 0; i < length; i++) {
+			int index = indices[i];
+			if (0 <= index && index < itemCount) {
+				if ((style & SWT.SINGLE) != 0)
+					deselectItems();
+				selectItem(index, true);
+			}
+		}
 	}
 
 	/**
@@ -1414,9 +1773,69 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public void selectAll() {
+		checkWidget();
+		if ((style & SWT.SINGLE) != 0)
+			return;
+		for (int i = 0; i < itemCount; i++)
+			selectItem(i, true);
 	}
 
 	void selectFocusIndex(int index) {
+		if (!(0 <= index && index < itemCount))
+			return;
+		selectItem(index, true);
+		focusIndex = index;
+	}
+
+	void selectItem(int index, boolean select) {
+		if (selected[index] == select)
+			return;
+		selected[index] = select;
+		selectionCount += select ? 1 : -1;
+		rows.refresh(index);
+	}
+
+	/**
+	 * Handles a click on a row: toggles the check box of the item, or selects
+	 * it.
+	 */
+	void rowClicked(int index, Element target, NativeEvent nativeEvent,
+			boolean doubleClick) {
+		if (index >= itemCount)
+			return;
+		TableItem item = _getItem(index);
+		Event event = new Event();
+		event.item = item;
+		event.stateMask = VirtualRows.getStateMask(nativeEvent);
+		if (CHECK_BOX.equals(target.getClassName())
+				&& (style & SWT.CHECK) != 0) {
+			if (!doubleClick) {
+				item.setChecked(!item.checked);
+				event.detail = SWT.CHECK;
+				sendEvent(SWT.Selection, event);
+			}
+			return;
+		}
+		if (doubleClick) {
+			sendEvent(SWT.DefaultSelection, event);
+			return;
+		}
+		boolean multi = (style & SWT.MULTI) != 0;
+		if (multi && (event.stateMask & SWT.SHIFT) != 0 && focusIndex != -1) {
+			int start = Math.min(focusIndex, index);
+			int end = Math.max(focusIndex, index);
+			deselectItems();
+			for (int i = start; i <= end; i++)
+				selectItem(i, true);
+		} else if (multi && (event.stateMask & (SWT.CTRL | SWT.COMMAND)) != 0) {
+			selectItem(index, !selected[index]);
+			focusIndex = index;
+		} else {
+			deselectItems();
+			selectItem(index, true);
+			focusIndex = index;
+		}
+		sendEvent(SWT.Selection, event);
 	}
 
 	int setBounds(int x, int y, int width, int height, boolean move,
@@ -1506,6 +1925,29 @@ public class Table extends Composite {
 	 * @since 3.0
 	 */
 	public void setItemCount(int count) {
+		checkWidget();
+		count = Math.max(0, count);
+		if (count == itemCount)
+			return;
+		if (count < itemCount) {
+			removeItems(count, itemCount - 1, true);
+			return;
+		}
+		if (count > items.length) {
+			int length = Math.max(4, (count + 3) / 4 * 4);
+			TableItem[] newItems = new TableItem[length];
+			System.arraycopy(items, 0, newItems, 0, itemCount);
+			items = newItems;
+			boolean[] newSelected = new boolean[length];
+			System.arraycopy(selected, 0, newSelected, 0, itemCount);
+			selected = newSelected;
+		}
+		if ((style & SWT.VIRTUAL) == 0) {
+			for (int i = itemCount; i < count; i++)
+				items[i] = new TableItem(this, SWT.NONE, i, false);
+		}
+		itemCount = count;
+		rows.refreshAll();
 	}
 
 	/**
@@ -1827,6 +2269,10 @@ public class Table extends Composite {
 	 *                </ul>
 	 */
 	public void setTopIndex(int index) {
+		checkWidget();
+		if (!(0 <= index && index < itemCount))
+			return;
+		rows.setTopRow(index);
 	}
 
 	/**
@@ -1885,6 +2331,16 @@ public class Table extends Composite {
 	 * @see Table#showSelection()
 	 */
 	public void showItem(TableItem item) {
+		checkWidget();
+		if (item == null)
+			error(SWT.ERROR_NULL_ARGUMENT);
+		if (item.isDisposed())
+			error(SWT.ERROR_INVALID_ARGUMENT);
+		if (item.parent != this)
+			return;
+		int index = indexOf(item);
+		if (index != -1)
+			rows.showRow(index);
 	}
 
 	/**
@@ -1903,5 +2359,9 @@ public class Table extends Composite {
 	 * @see Table#showItem(TableItem)
 	 */
 	public void showSelection() {
+		checkWidget();
+		int index = getSelectionIndex();
+		if (index != -1)
+			rows.showRow(index);
 	}
 }
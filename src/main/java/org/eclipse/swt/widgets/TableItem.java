@@ -39,9 +39,13 @@ import org.eclipse.swt.graphics.Rectangle;
  */
 public class TableItem extends Item {
 	Table parent;
+	String[] strings;
+	Image[] images;
+	Color foreground, background;
+	Color[] cellForeground, cellBackground;
 	Font font;
 	Font[] cellFont;
-	boolean cached, grayed;
+	boolean cached, grayed, checked;
 
 	/**
 	 * Constructs a new instance of this class given its parent (which must be a
@@ -129,6 +133,9 @@ public class TableItem extends Item {
 
 	TableItem(Table parent, int style, int index, boolean create) {
 		super(parent, style);
+		this.parent = parent;
+		if (create)
+			parent.createItem(this, index);
 	}
 
 	static Table checkNull(Table control) {
@@ -138,31 +145,48 @@ public class TableItem extends Item {
 	}
 
 	Color _getBackground() {
-		return null;
+		return background != null ? background : parent.getBackground();
 	}
 
 	Color _getBackground(int index) {
-		return null;
+		if (cellBackground != null && 0 <= index
+				&& index < cellBackground.length
+				&& cellBackground[index] != null)
+			return cellBackground[index];
+		return background;
 	}
 
 	boolean _getChecked() {
-		return false;
+		return checked;
 	}
 
 	Color _getForeground() {
-		return null;
+		return foreground;
 	}
 
 	Color _getForeground(int index) {
-		return null;
+		if (cellForeground != null && 0 <= index
+				&& index < cellForeground.length
+				&& cellForeground[index] != null)
+			return cellForeground[index];
+		return foreground;
 	}
 
 	Image _getImage(int index) {
+		if (index == 0)
+			return image;
+		if (images != null && 0 < index && index < images.length)
+			return images[index];
 		return null;
 	}
 
 	String _getText(int index) {
-		return null;
+		if (index == 0)
+			return text;
+		if (strings != null && 0 < index && index < strings.length
+				&& strings[index] != null)
+			return strings[index];
+		return ""; //$NON-NLS-1$
 	}
 
 	protected void checkSubclass() {
@@ -171,6 +195,17 @@ public class TableItem extends Item {
 	}
 
 	void clear() {
+		text = ""; //$NON-NLS-1$
+		image = null;
+		strings = null;
+		images = null;
+		foreground = background = null;
+		cellForeground = cellBackground = null;
+		font = null;
+		cellFont = null;
+		checked = grayed = false;
+		if ((parent.style & SWT.VIRTUAL) != 0)
+			cached = false;
 	}
 
 	void destroyWidget() {
@@ -217,7 +252,10 @@ public class TableItem extends Item {
 	 * @since 3.2
 	 */
 	public Rectangle getBounds() {
-		return null;
+		checkWidget();
+		if (!parent.checkData(this))
+			error(SWT.ERROR_WIDGET_DISPOSED);
+		return parent.getItemBounds(this);
 	}
 
 	/**
@@ -261,7 +299,12 @@ public class TableItem extends Item {
 	 *                </ul>
 	 */
 	public Rectangle getBounds(int index) {
-		return null;
+		checkWidget();
+		if (!parent.checkData(this))
+			error(SWT.ERROR_WIDGET_DISPOSED);
+		if (index != 0)
+			return new Rectangle(0, 0, 0, 0);
+		return parent.getItemBounds(this);
 	}
 
 	/**
@@ -459,7 +502,13 @@ public class TableItem extends Item {
 	 *                </ul>
 	 */
 	public Rectangle getImageBounds(int index) {
-		return null;
+		checkWidget();
+		Rectangle bounds = getBounds(index);
+		if ((parent.style & SWT.CHECK) != 0)
+			bounds.x += Table.CHECK_WIDTH;
+		Image image = _getImage(index);
+		bounds.width = image == null ? 0 : image.getBounds().width;
+		return bounds;
 	}
 
 	/**
@@ -559,14 +608,25 @@ public class TableItem extends Item {
 	 * @since 3.3
 	 */
 	public Rectangle getTextBounds(int index) {
-		return null;
+		checkWidget();
+		Rectangle bounds = getImageBounds(index);
+		bounds.x += bounds.width;
+		bounds.width = Math.max(0, getBounds(index).x
+				+ getBounds(index).width - bounds.x);
+		return bounds;
 	}
 
 	void releaseHandle() {
+		super.releaseHandle();
+		state |= DISPOSED;
 	}
 
 	void releaseWidget() {
 		super.releaseWidget();
+		strings = null;
+		images = null;
+		foreground = background = null;
+		cellForeground = cellBackground = null;
 		font = null;
 		cellFont = null;
 	}
@@ -595,6 +655,12 @@ public class TableItem extends Item {
 	 * @since 2.0
 	 */
 	public void setBackground(Color color) {
+		checkWidget();
+		if (color != null && color.isDisposed())
+			error(SWT.ERROR_INVALID_ARGUMENT);
+		background = color;
+		cached = true;
+		parent.redraw(this);
 	}
 
 	/**
@@ -623,6 +689,17 @@ public class TableItem extends Item {
 	 * @since 3.0
 	 */
 	public void setBackground(int index, Color color) {
+		checkWidget();
+		if (color != null && color.isDisposed())
+			error(SWT.ERROR_INVALID_ARGUMENT);
+		int count = Math.max(1, parent.columnCount);
+		if (0 > index || index > count - 1)
+			return;
+		if (cellBackground == null)
+			cellBackground = new Color[count];
+		cellBackground[index] = color;
+		cached = true;
+		parent.redraw(this);
 	}
 
 	/**
@@ -641,6 +718,12 @@ public class TableItem extends Item {
 	 *                </ul>
 	 */
 	public void setChecked(boolean checked) {
+		checkWidget();
+		if ((parent.style & SWT.CHECK) == 0)
+			return;
+		this.checked = checked;
+		cached = true;
+		parent.redraw(this);
 	}
 
 	/**
@@ -667,6 +750,12 @@ public class TableItem extends Item {
 	 * @since 3.0
 	 */
 	public void setFont(Font font) {
+		checkWidget();
+		if (font != null && font.isDisposed())
+			error(SWT.ERROR_INVALID_ARGUMENT);
+		this.font = font;
+		cached = true;
+		parent.redraw(this);
 	}
 
 	/**
@@ -695,6 +784,17 @@ public class TableItem extends Item {
 	 * @since 3.0
 	 */
 	public void setFont(int index, Font font) {
+		checkWidget();
+		if (font != null && font.isDisposed())
+			error(SWT.ERROR_INVALID_ARGUMENT);
+		int count = Math.max(1, parent.columnCount);
+		if (0 > index || index > count - 1)
+			return;
+		if (cellFont == null)
+			cellFont = new Font[count];
+		cellFont[index] = font;
+		cached = true;
+		parent.redraw(this);
 	}
 
 	/**
@@ -721,6 +821,12 @@ public class TableItem extends Item {
 	 * @since 2.0
 	 */
 	public void setForeground(Color color) {
+		checkWidget();
+		if (color != null && color.isDisposed())
+			error(SWT.ERROR_INVALID_ARGUMENT);
+		foreground = color;
+		cached = true;
+		parent.redraw(this);
 	}
 
 	/**
@@ -749,6 +855,17 @@ public class TableItem extends Item {
 	 * @since 3.0
 	 */
 	public void setForeground(int index, Color color) {
+		checkWidget();
+		if (color != null && color.isDisposed())
+			error(SWT.ERROR_INVALID_ARGUMENT);
+		int count = Math.max(1, parent.columnCount);
+		if (0 > index || index > count - 1)
+			return;
+		if (cellForeground == null)
+			cellForeground = new Color[count];
+		cellForeground[index] = color;
+		cached = true;
+		parent.redraw(this);
 	}
 
 	/**
@@ -767,6 +884,12 @@ public class TableItem extends Item {
 	 *                </ul>
 	 */
 	public void setGrayed(boolean grayed) {
+		checkWidget();
+		if ((parent.style & SWT.CHECK) == 0)
+			return;
+		this.grayed = grayed;
+		cached = true;
+		parent.redraw(this);
 	}
 
 	/**
@@ -791,6 +914,21 @@ public class TableItem extends Item {
 	 *                </ul>
 	 */
 	public void setImage(int index, Image image) {
+		checkWidget();
+		if (image != null && image.isDisposed())
+			error(SWT.ERROR_INVALID_ARGUMENT);
+		int count = Math.max(1, parent.columnCount);
+		if (0 > index || index > count - 1)
+			return;
+		if (index == 0) {
+			super.setImage(image);
+		} else {
+			if (images == null)
+				images = new Image[count];
+			images[index] = image;
+		}
+		cached = true;
+		parent.redraw(this);
 	}
 
 	public void setImage(Image image) {
@@ -874,6 +1012,21 @@ public class TableItem extends Item {
 	 *                </ul>
 	 */
 	public void setText(int index, String string) {
+		checkWidget();
+		if (string == null)
+			error(SWT.ERROR_NULL_ARGUMENT);
+		int count = Math.max(1, parent.columnCount);
+		if (0 > index || index > count - 1)
+			return;
+		if (index == 0) {
+			super.setText(string);
+		} else {
+			if (strings == null)
+				strings = new String[count];
+			strings[index] = string;
+		}
+		cached = true;
+		parent.redraw(this);
 	}
 
 	public void setText(String string) {
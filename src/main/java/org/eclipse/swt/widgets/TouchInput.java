@@ -0,0 +1,291 @@
+/*******************************************************************************
+ * Copyright (c) 2012 Gerhardt Informatics Kft. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Gerhardt Informatics Kft. - GEFGWT port
+ *******************************************************************************/
+package org.eclipse.swt.widgets;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.MouseEvent;
+
+import com.google.gwt.animation.client.AnimationScheduler;
+import com.google.gwt.animation.client.AnimationScheduler.AnimationCallback;
+import com.google.gwt.core.client.JsArray;
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.dom.client.NativeEvent;
+import com.google.gwt.dom.client.Touch;
+import com.google.gwt.event.dom.client.TouchCancelEvent;
+import com.google.gwt.event.dom.client.TouchCancelHandler;
+import com.google.gwt.event.dom.client.TouchEndEvent;
+import com.google.gwt.event.dom.client.TouchEndHandler;
+import com.google.gwt.event.dom.client.TouchEvent;
+import com.google.gwt.event.dom.client.TouchMoveEvent;
+import com.google.gwt.event.dom.client.TouchMoveHandler;
+import com.google.gwt.event.dom.client.TouchStartEvent;
+import com.google.gwt.event.dom.client.TouchStartHandler;
+
+/**
+ * Translates the touch events of a canvas into the mouse and gesture events of
+ * a {@link Canvas}.
+ * <p>
+ * A single finger acts as the left mouse button. Its press is only sent once
+ * the finger moves further than a few pixels, or is lifted, so that a second
+ * finger touching the canvas in the meantime starts a gesture instead of a
+ * drag. A second finger touching the canvas during a drag is ignored.
+ * <p>
+ * Two fingers send <code>SWT.Gesture</code> events: a
+ * <code>GESTURE_BEGIN</code>, then <code>GESTURE_MAGNIFY</code> events as the
+ * distance between the fingers changes, whose magnification is the ratio of
+ * the distance to the distance at the beginning of the gesture, and
+ * <code>GESTURE_PAN</code> events as their center moves, whose directions are
+ * the offset of the center since the previous pan, and finally a
+ * <code>GESTURE_END</code> when a finger is lifted. The moves of a drag and of
+ * a gesture are coalesced, and sent once per animation frame.
+ * <p>
+ * The canvas declares that it handles all touch gestures itself, through its
+ * <code>touch-action</code> style, so that the browser neither scrolls nor
+ * zooms the page, and never waits for the touch handlers before scrolling
+ * elsewhere.
+ */
+class TouchInput {
+
+	private static final int SLOP = 4;
+
+	private static final int IDLE = 0;
+	private static final int PRESSING = 1;
+	private static final int DRAGGING = 2;
+	private static final int GESTURE = 3;
+	private static final int ENDING = 4;
+
+	private final Canvas canvas;
+	private final Element element;
+	private final MouseEvent moveEvent;
+	private int state = IDLE;
+	private int touchId;
+	private int startX, startY, x, y;
+	private double startDistance, distance, magnification;
+	private int centerX, centerY, panX, panY;
+	private boolean framePending;
+
+	private final AnimationCallback frameCallback = new AnimationCallback() {
+		public void execute(double timestamp) {
+			framePending = false;
+			flush();
+		}
+	};
+
+	/**
+	 * Starts translating the touch events of the given canvas.
+	 */
+	TouchInput(Canvas canvas) {
+		this.canvas = canvas;
+		this.element = canvas.canvas.getElement();
+		element.getStyle().setProperty("touchAction", "none"); //$NON-NLS-1$ //$NON-NLS-2$
+		moveEvent = createMouseEvent(SWT.BUTTON1);
+
+		canvas.canvas.addTouchStartHandler(new TouchStartHandler() {
+			public void onTouchStart(TouchStartEvent event) {
+				event.preventDefault();
+				touchStarted(event.getTouches());
+			}
+		});
+		canvas.canvas.addTouchMoveHandler(new TouchMoveHandler() {
+			public void onTouchMove(TouchMoveEvent event) {
+				event.preventDefault();
+				touchMoved(event.getTouches());
+			}
+		});
+		canvas.canvas.addTouchEndHandler(new TouchEndHandler() {
+			public void onTouchEnd(TouchEndEvent event) {
+				event.preventDefault();
+				touchEnded(event);
+			}
+		});
+		canvas.canvas.addTouchCancelHandler(new TouchCancelHandler() {
+			public void onTouchCancel(TouchCancelEvent event) {
+				if (state == PRESSING)
+					state = IDLE;
+				touchEnded(event);
+			}
+		});
+	}
+
+	private MouseEvent createMouseEvent(int stateMask) {
+		Event event = new Event();
+		event.widget = canvas;
+		event.display = canvas.display;
+		event.button = NativeEvent.BUTTON_LEFT;
+		event.stateMask = stateMask;
+		MouseEvent me = new MouseEvent(event);
+		me.x = x;
+		me.y = y;
+		return me;
+	}
+
+	private void touchStarted(JsArray<Touch> touches) {
+		switch (state) {
+		case IDLE:
+			if (touches.length() == 1) {
+				state = PRESSING;
+				touchId = touches.get(0).getIdentifier();
+				x = startX = touches.get(0).getRelativeX(element);
+				y = startY = touches.get(0).getRelativeY(element);
+			}
+			break;
+		case PRESSING:
+			if (touches.length() == 2)
+				beginGesture(touches);
+			break;
+		}
+	}
+
+	private void touchMoved(JsArray<Touch> touches) {
+		switch (state) {
+		case PRESSING:
+		case DRAGGING:
+			Touch touch = findTouch(touches);
+			if (touch == null)
+				return;
+			x = touch.getRelativeX(element);
+			y = touch.getRelativeY(element);
+			if (state == PRESSING) {
+				if (Math.abs(x - startX) <= SLOP
+						&& Math.abs(y - startY) <= SLOP)
+					return;
+				state = DRAGGING;
+				press();
+			}
+			requestFrame();
+			break;
+		case GESTURE:
+			if (touches.length() < 2)
+				return;
+			distance = getDistance(touches);
+			centerX = getCenterX(touches);
+			centerY = getCenterY(touches);
+			requestFrame();
+			break;
+		}
+	}
+
+	private void touchEnded(TouchEvent event) {
+		switch (state) {
+		case PRESSING:
+			press();
+			release();
+			state = IDLE;
+			break;
+		case DRAGGING:
+			// the end of a finger ignored during the drag
+			if (findTouch(event.getChangedTouches()) == null)
+				return;
+			flush();
+			release();
+			state = IDLE;
+			break;
+		case GESTURE:
+			flush();
+			sendGesture(SWT.GESTURE_END);
+			// the finger left is ignored until it is lifted
+			state = ENDING;
+			break;
+		}
+		if (event.getTouches().length() == 0)
+			state = IDLE;
+	}
+
+	private Touch findTouch(JsArray<Touch> touches) {
+		for (int i = 0; i < touches.length(); i++) {
+			if (touches.get(i).getIdentifier() == touchId)
+				return touches.get(i);
+		}
+		return null;
+	}
+
+	private void press() {
+		MouseEvent me = createMouseEvent(0);
+		me.x = startX;
+		me.y = startY;
+		canvas.dispatchMousePressed(me);
+	}
+
+	private void release() {
+		canvas.dispatchMouseReleased(createMouseEvent(SWT.BUTTON1));
+	}
+
+	private void beginGesture(JsArray<Touch> touches) {
+		state = GESTURE;
+		startDistance = distance = getDistance(touches);
+		magnification = 1;
+		panX = centerX = getCenterX(touches);
+		panY = centerY = getCenterY(touches);
+		sendGesture(SWT.GESTURE_BEGIN);
+	}
+
+	private void requestFrame() {
+		if (framePending)
+			return;
+		framePending = true;
+		AnimationScheduler.get().requestAnimationFrame(frameCallback, element);
+	}
+
+	/**
+	 * Sends the coalesced move of the drag or the gesture, if it changed.
+	 */
+	private void flush() {
+		if (state == DRAGGING) {
+			if (moveEvent.x == x && moveEvent.y == y)
+				return;
+			moveEvent.x = x;
+			moveEvent.y = y;
+			canvas.dispatchMouseMoved(moveEvent);
+		} else if (state == GESTURE) {
+			if (startDistance > 0 && distance / startDistance != magnification) {
+				magnification = distance / startDistance;
+				sendGesture(SWT.GESTURE_MAGNIFY);
+			}
+			if (centerX != panX || centerY != panY)
+				sendGesture(SWT.GESTURE_PAN);
+		}
+	}
+
+	private void sendGesture(int detail) {
+		Event event = new Event();
+		event.detail = detail;
+		event.x = centerX;
+		event.y = centerY;
+		if (detail == SWT.GESTURE_MAGNIFY) {
+			event.magnification = magnification;
+		} else if (detail == SWT.GESTURE_PAN) {
+			event.xDirection = centerX - panX;
+			event.yDirection = centerY - panY;
+			panX = centerX;
+			panY = centerY;
+		}
+		canvas.sendEvent(SWT.Gesture, event);
+	}
+
+	private double getDistance(JsArray<Touch> touches) {
+		int dx = touches.get(1).getRelativeX(element)
+				- touches.get(0).getRelativeX(element);
+		int dy = touches.get(1).getRelativeY(element)
+				- touches.get(0).getRelativeY(element);
+		return Math.sqrt(dx * dx + dy * dy);
+	}
+
+	private int getCenterX(JsArray<Touch> touches) {
+		return (touches.get(0).getRelativeX(element) + touches.get(1)
+				.getRelativeX(element)) / 2;
+	}
+
+	private int getCenterY(JsArray<Touch> touches) {
+		return (touches.get(0).getRelativeY(element) + touches.get(1)
+				.getRelativeY(element)) / 2;
+	}
+
+}
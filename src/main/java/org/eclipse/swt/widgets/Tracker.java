@@ -418,6 +418,7 @@ public class Tracker extends Widget {
 		checkWidget();
 		if (listener == null)
 			error(SWT.ERROR_NULL_ARGUMENT);
+		super.removeKeyListener(listener);
 		if (eventTable == null)
 			return;
 		eventTable.unhook(SWT.KeyUp, listener);
@@ -16,9 +16,18 @@ import org.eclipse.swt.SWTException;
 import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.events.SelectionListener;
 import org.eclipse.swt.events.TreeListener;
+import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.internal.gwt.GdkColor;
+
+import com.google.gwt.dom.client.Document;
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.dom.client.ImageElement;
+import com.google.gwt.dom.client.NativeEvent;
+import com.google.gwt.dom.client.Style;
+import com.google.gwt.dom.client.Style.Unit;
+import com.google.gwt.user.client.ui.LayoutPanel;
 
 /**
  * Instances of this class provide a selectable user interface object that
@@ -76,6 +85,15 @@ import org.eclipse.swt.internal.gwt.GdkColor;
  * Note: Only one of the styles SINGLE and MULTI may be specified.
  * </p>
  * <p>
+ * Only the rows inside the viewport are rendered, into a pool of row elements
+ * which are recycled while scrolling, so that the cost of scrolling does not
+ * depend on the number of items. The expanded items are flattened into an
+ * index of rows, rebuilt when items are added, removed, expanded or collapsed.
+ * Items of a <code>VIRTUAL</code> tree are created, and their data requested
+ * through <code>SetData</code>, when their row is first rendered. Columns are
+ * not rendered: the rows show the text and image of the first column.
+ * </p>
+ * <p>
  * IMPORTANT: This class is <em>not</em> intended to be subclassed.
  * </p>
  * 
@@ -102,6 +120,15 @@ public class Tree extends Composite {
 	int drawState, drawFlags;
 	GdkColor drawForeground;
 	boolean ownerDraw, ignoreSize, ignoreAccessibility;
+	int itemCount;
+	boolean[] selected;
+	int selectionCount;
+	TreeItem anchor;
+	VirtualRows rows;
+	TreeItem[] rowParents = new TreeItem[16];
+	int[] rowIndices = new int[16];
+	int rowCount, renumberFrom;
+	boolean rowsChanged = true;
 
 	static final int ID_COLUMN = 0;
 	static final int CHECKED_COLUMN = 1;
@@ -116,6 +143,11 @@ public class Tree extends Composite {
 	static final int CELL_BACKGROUND = 3;
 	static final int CELL_FONT = 4;
 	static final int CELL_TYPES = CELL_FONT + 1;
+	static final int INDENT = 16;
+	static final String EXPANDER = "swt-TreeExpander"; //$NON-NLS-1$
+	static final String CHECK_BOX = "swt-TreeCheck"; //$NON-NLS-1$
+	static final String SELECTION_BACKGROUND = "#3875d7"; //$NON-NLS-1$
+	static final String SELECTION_FOREGROUND = "white"; //$NON-NLS-1$
 
 	/**
 	 * Constructs a new instance of this class given its parent and a style
@@ -158,6 +190,45 @@ public class Tree extends Composite {
 	 */
 	public Tree(Composite parent, int style) {
 		super(parent, checkStyle(style));
+		items = new TreeItem[4];
+		columns = new TreeColumn[4];
+		rows = new VirtualRows(new VirtualRows.Renderer() {
+			public int getRowCount() {
+				updateRows();
+				return rowCount;
+			}
+
+			public int measureRow(int row) {
+				return getItemHeight();
+			}
+
+			public void renderRow(int row, Element element) {
+				Tree.this.renderRow(row, element);
+			}
+
+			public void rowClicked(int row, Element target, NativeEvent event) {
+				Tree.this.rowClicked(row, target, event, false);
+			}
+
+			public void rowDoubleClicked(int row, Element target,
+					NativeEvent event) {
+				Tree.this.rowClicked(row, target, event, true);
+			}
+		});
+		LayoutPanel panel = (LayoutPanel) getGwtWidget();
+		panel.add(rows.getWidget());
+		com.google.gwt.user.client.ui.Widget parentWidget = parent
+				.getGwtWidget();
+		if (parentWidget instanceof LayoutPanel)
+			((LayoutPanel) parentWidget).add(panel);
+	}
+
+	TreeItem _getItem(TreeItem parentItem, int index) {
+		TreeItem[] items = _getItems(parentItem);
+		if (items[index] == null)
+			items[index] = new TreeItem(this, parentItem, SWT.NONE, index,
+					false);
+		return items[index];
 	}
 
 	void _addListener(int eventType, Listener listener) {
@@ -174,6 +245,43 @@ public class Tree extends Composite {
 		}
 	}
 
+	/**
+	 * Returns the array holding the children of the given item, or of the
+	 * tree if it is <code>null</code>. In a virtual tree, slots of children
+	 * which were not created yet are <code>null</code>.
+	 */
+	TreeItem[] _getItems(TreeItem parentItem) {
+		TreeItem[] items = parentItem == null ? this.items : parentItem.items;
+		if (items == null) {
+			items = new TreeItem[4];
+			setItems(parentItem, items, 0);
+		}
+		return items;
+	}
+
+	/**
+	 * Returns the selection state of the children of the given item, or of the
+	 * root items if it is <code>null</code>, indexed like their slots in
+	 * {@link #_getItems(TreeItem)}. Slots of virtual items can be selected
+	 * before the items are created.
+	 */
+	boolean[] _getSelected(TreeItem parentItem) {
+		boolean[] selected = parentItem == null ? this.selected
+				: parentItem.selected;
+		int length = _getItems(parentItem).length;
+		if (selected == null || selected.length < length) {
+			boolean[] newSelected = new boolean[length];
+			if (selected != null)
+				System.arraycopy(selected, 0, newSelected, 0, selected.length);
+			selected = newSelected;
+			if (parentItem == null)
+				this.selected = selected;
+			else
+				parentItem.selected = selected;
+		}
+		return selected;
+	}
+
 	static int checkStyle(int style) {
 		/*
 		 * Feature in Windows. Even when WS_HSCROLL or WS_VSCROLL is not
@@ -192,6 +300,19 @@ public class Tree extends Composite {
 	}
 
 	boolean checkData(TreeItem item) {
+		if (item.cached)
+			return true;
+		if ((style & SWT.VIRTUAL) != 0) {
+			item.cached = true;
+			TreeItem parentItem = item.getParentItem();
+			Event event = new Event();
+			event.item = item;
+			event.index = parentItem == null ? indexOf(item) : parentItem
+					.indexOf(item);
+			sendEvent(SWT.SetData, event);
+			if (isDisposed() || item.isDisposed())
+				return false;
+		}
 		return true;
 	}
 
@@ -309,10 +430,19 @@ public class Tree extends Composite {
 	 */
 	public void clear(int index, boolean all) {
 		checkWidget();
-		clear(0, index, all);
+		clear(null, index, all);
 	}
 
-	void clear(long /* int */parentIter, int index, boolean all) {
+	void clear(TreeItem parentItem, int index, boolean all) {
+		if (!(0 <= index && index < getItemCount(parentItem)))
+			error(SWT.ERROR_INVALID_RANGE);
+		TreeItem item = _getItems(parentItem)[index];
+		if (item != null) {
+			item.clear();
+			if (all)
+				clearAll(true, item);
+			redraw(item);
+		}
 	}
 
 	/**
@@ -340,14 +470,30 @@ public class Tree extends Composite {
 	 */
 	public void clearAll(boolean all) {
 		checkWidget();
-		clearAll(all, 0);
-	}
-
-	void clearAll(boolean all, long /* int */parentIter) {
+		clearAll(all, null);
+	}
+
+	void clearAll(boolean all, TreeItem parentItem) {
+		TreeItem[] items = _getItems(parentItem);
+		int count = getItemCount(parentItem);
+		for (int i = 0; i < count; i++) {
+			TreeItem item = items[i];
+			if (item != null) {
+				item.clear();
+				if (all)
+					clearAll(true, item);
+			}
+		}
+		rows.refreshAll();
 	}
 
 	public Point computeSize(int wHint, int hHint, boolean changed) {
-		return null;
+		checkWidget();
+		updateRows();
+		int width = wHint != SWT.DEFAULT ? wHint : DEFAULT_WIDTH;
+		int height = hHint != SWT.DEFAULT ? hHint : Math.max(rowCount, 1)
+				* getItemHeight();
+		return new Point(width, height);
 	}
 
 	void createHandle(int index) {
@@ -356,6 +502,27 @@ public class Tree extends Composite {
 	void createItem(TreeColumn column, int index) {
 	}
 
+	void createItem(TreeItem item, TreeItem parentItem, int index) {
+		int count = getItemCount(parentItem);
+		if (index == -1)
+			index = count;
+		if (!(0 <= index && index <= count))
+			error(SWT.ERROR_INVALID_RANGE);
+		TreeItem[] items = _getItems(parentItem);
+		if (count == items.length) {
+			TreeItem[] newItems = new TreeItem[Math.max(4, count * 3 / 2)];
+			System.arraycopy(items, 0, newItems, 0, count);
+			items = newItems;
+		}
+		System.arraycopy(items, index, items, index + 1, count - index);
+		items[index] = item;
+		setItems(parentItem, items, count + 1);
+		boolean[] selected = _getSelected(parentItem);
+		System.arraycopy(selected, index, selected, index + 1, count - index);
+		selected[index] = false;
+		itemsChanged(parentItem);
+	}
+
 	void createWidget(int index) {
 		super.createWidget(index);
 		items = new TreeItem[4];
@@ -387,6 +554,12 @@ public class Tree extends Composite {
 	 * @since 3.4
 	 */
 	public void deselect(TreeItem item) {
+		checkWidget();
+		if (item == null)
+			error(SWT.ERROR_NULL_ARGUMENT);
+		if (item.isDisposed())
+			error(SWT.ERROR_INVALID_ARGUMENT);
+		selectItem(item, false);
 	}
 
 	/**
@@ -401,11 +574,54 @@ public class Tree extends Composite {
 	 *                </ul>
 	 */
 	public void deselectAll() {
+		checkWidget();
+		deselectItems();
+	}
+
+	void deselectItems() {
+		if (selectionCount == 0)
+			return;
+		deselectItems(null);
+		rows.refreshAll();
+	}
+
+	void deselectItems(TreeItem parentItem) {
+		TreeItem[] items = _getItems(parentItem);
+		boolean[] selected = _getSelected(parentItem);
+		int count = getItemCount(parentItem);
+		for (int i = 0; i < count && selectionCount > 0; i++) {
+			if (selected[i]) {
+				selected[i] = false;
+				selectionCount--;
+			}
+			if (items[i] != null && items[i].itemCount > 0)
+				deselectItems(items[i]);
+		}
 	}
 
 	void destroyItem(TreeColumn column) {
 	}
 
+	void destroyItem(TreeItem item) {
+		TreeItem parentItem = item.parentItem;
+		int index = indexOf(parentItem, item);
+		if (index == -1)
+			return;
+		TreeItem[] items = _getItems(parentItem);
+		int count = getItemCount(parentItem) - 1;
+		System.arraycopy(items, index + 1, items, index, count - index);
+		items[count] = null;
+		boolean[] selected = _getSelected(parentItem);
+		if (selected[index])
+			selectionCount--;
+		System.arraycopy(selected, index + 1, selected, index, count - index);
+		selected[count] = false;
+		setItems(parentItem, items, count);
+		if (anchor == item)
+			anchor = null;
+		itemsChanged(parentItem);
+	}
+
 	boolean dragDetect(int x, int y, boolean filter, boolean dragOnTimeout,
 			boolean[] consume) {
 		return false;
@@ -416,7 +632,9 @@ public class Tree extends Composite {
 	}
 
 	public Rectangle getClientArea() {
-		return null;
+		checkWidget();
+		return new Rectangle(0, 0, rows.getViewportWidth(),
+				rows.getViewportHeight());
 	}
 
 	int getClientWidth() {
@@ -654,7 +872,10 @@ public class Tree extends Composite {
 	 * @since 3.1
 	 */
 	public TreeItem getItem(int index) {
-		return null;
+		checkWidget();
+		if (!(0 <= index && index < itemCount))
+			error(SWT.ERROR_INVALID_RANGE);
+		return _getItem(null, index);
 	}
 
 	/**
@@ -686,7 +907,27 @@ public class Tree extends Composite {
 	 *                </ul>
 	 */
 	public TreeItem getItem(Point point) {
-		return null;
+		checkWidget();
+		if (point == null)
+			error(SWT.ERROR_NULL_ARGUMENT);
+		updateRows();
+		int row = rows.getRowAt(point.y);
+		return row == -1 ? null : getRowItem(row);
+	}
+
+	Rectangle getItemBounds(TreeItem item) {
+		int row = getRow(item);
+		if (row == -1)
+			return new Rectangle(0, 0, 0, 0);
+		Rectangle bounds = rows.getRowBounds(row);
+		int x = getDepth(item) * INDENT;
+		bounds.x += x;
+		bounds.width = Math.max(0, bounds.width - x);
+		return bounds;
+	}
+
+	int getItemCount(TreeItem parentItem) {
+		return parentItem == null ? itemCount : parentItem.itemCount;
 	}
 
 	/**
@@ -705,7 +946,8 @@ public class Tree extends Composite {
 	 *                </ul>
 	 */
 	public int getItemCount() {
-		return 0;
+		checkWidget();
+		return itemCount;
 	}
 
 	/**
@@ -723,7 +965,8 @@ public class Tree extends Composite {
 	 *                </ul>
 	 */
 	public int getItemHeight() {
-		return 0;
+		checkWidget();
+		return rows.getRowHeight();
 	}
 
 	/**
@@ -747,11 +990,22 @@ public class Tree extends Composite {
 	 */
 	public TreeItem[] getItems() {
 		checkWidget();
-		return getItems(0);
+		return getItems(null);
 	}
 
-	TreeItem[] getItems(long /* int */parent) {
-		return null;
+	TreeItem[] getItems(TreeItem parentItem) {
+		int count = getItemCount(parentItem);
+		TreeItem[] result = new TreeItem[count];
+		for (int i = 0; i < count; i++)
+			result[i] = _getItem(parentItem, i);
+		return result;
+	}
+
+	static int getDepth(TreeItem item) {
+		int depth = 0;
+		for (TreeItem parentItem = item.parentItem; parentItem != null; parentItem = parentItem.parentItem)
+			depth++;
+		return depth;
 	}
 
 	/**
@@ -819,7 +1073,28 @@ public class Tree extends Composite {
 	 *                </ul>
 	 */
 	public TreeItem[] getSelection() {
-		return null;
+		checkWidget();
+		TreeItem[] result = new TreeItem[selectionCount];
+		getSelection(null, result, 0);
+		return result;
+	}
+
+	/**
+	 * Stores the selected descendants of the given item, or of the tree if it
+	 * is <code>null</code>, in the result from the given index on, and returns
+	 * the index after the last one stored.
+	 */
+	int getSelection(TreeItem parentItem, TreeItem[] result, int index) {
+		TreeItem[] items = _getItems(parentItem);
+		boolean[] selected = _getSelected(parentItem);
+		int count = getItemCount(parentItem);
+		for (int i = 0; i < count && index < result.length; i++) {
+			if (selected[i])
+				result[index++] = _getItem(parentItem, i);
+			if (items[i] != null && items[i].itemCount > 0)
+				index = getSelection(items[i], result, index);
+		}
+		return index;
 	}
 
 	/**
@@ -836,7 +1111,8 @@ public class Tree extends Composite {
 	 *                </ul>
 	 */
 	public int getSelectionCount() {
-		return 0;
+		checkWidget();
+		return selectionCount;
 	}
 
 	/**
@@ -903,7 +1179,43 @@ public class Tree extends Composite {
 	 * @since 2.1
 	 */
 	public TreeItem getTopItem() {
-		return null;
+		checkWidget();
+		updateRows();
+		return rowCount == 0 ? null : getRowItem(rows.getTopRow());
+	}
+
+	/**
+	 * Returns the row of the given item, or -1 if one of its ancestors is
+	 * collapsed.
+	 */
+	int getRow(TreeItem item) {
+		updateRows();
+		if (!isRow(item, item.row) && renumberFrom < rowCount)
+			renumberRows();
+		return isRow(item, item.row) ? item.row : -1;
+	}
+
+	boolean isRow(TreeItem item, int row) {
+		return 0 <= row && row < rowCount
+				&& rowParents[row] == item.parentItem
+				&& _getItems(item.parentItem)[rowIndices[row]] == item;
+	}
+
+	/**
+	 * Stores their row in the items whose rows moved when rows were inserted
+	 * or removed.
+	 */
+	void renumberRows() {
+		for (int row = renumberFrom; row < rowCount; row++) {
+			TreeItem item = _getItems(rowParents[row])[rowIndices[row]];
+			if (item != null)
+				item.row = row;
+		}
+		renumberFrom = rowCount;
+	}
+
+	TreeItem getRowItem(int row) {
+		return _getItem(rowParents[row], rowIndices[row]);
 	}
 
 	void hookEvents() {
@@ -969,7 +1281,90 @@ public class Tree extends Composite {
 	 * @since 3.1
 	 */
 	public int indexOf(TreeItem item) {
-		return 0;
+		checkWidget();
+		if (item == null)
+			error(SWT.ERROR_NULL_ARGUMENT);
+		if (item.isDisposed())
+			error(SWT.ERROR_INVALID_ARGUMENT);
+		return item.parentItem == null ? indexOf(null, item) : -1;
+	}
+
+	int indexOf(TreeItem parentItem, TreeItem item) {
+		if (item.parentItem != parentItem)
+			return -1;
+		TreeItem[] items = _getItems(parentItem);
+		if (!rowsChanged) {
+			int row = item.row;
+			if (0 <= row && row < rowCount && rowParents[row] == parentItem
+					&& items[rowIndices[row]] == item)
+				return rowIndices[row];
+		}
+		int count = getItemCount(parentItem);
+		for (int i = 0; i < count; i++) {
+			if (items[i] == item)
+				return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns <code>true</code> if all the ancestors of the given item are
+	 * expanded, in which case the item has a row.
+	 */
+	static boolean isShowing(TreeItem item) {
+		for (TreeItem parentItem = item.parentItem; parentItem != null; parentItem = parentItem.parentItem) {
+			if (!parentItem.expanded)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Called when the children of the given item, or the root items if it is
+	 * <code>null</code>, were added or removed.
+	 */
+	void itemsChanged(TreeItem parentItem) {
+		if (parentItem == null || parentItem.expanded && isShowing(parentItem))
+			rowsChanged();
+		else
+			redraw(parentItem);
+	}
+
+	/**
+	 * Called when the given item was expanded or collapsed. The rows of its
+	 * descendants are inserted into or removed from the index of rows, unless
+	 * the index has to be built again anyway.
+	 */
+	void expandedChanged(TreeItem item) {
+		if (!isShowing(item))
+			return;
+		int row = rowsChanged ? -1 : getRow(item);
+		if (row == -1) {
+			rowsChanged();
+			return;
+		}
+		int count = countRows(item);
+		int start = row + 1;
+		if (item.expanded) {
+			ensureRowCapacity(rowCount + count);
+			System.arraycopy(rowParents, start, rowParents, start + count,
+					rowCount - start);
+			System.arraycopy(rowIndices, start, rowIndices, start + count,
+					rowCount - start);
+			rowCount += count;
+			setRows(item, start);
+			renumberFrom = Math.min(renumberFrom, start + count);
+		} else {
+			System.arraycopy(rowParents, start + count, rowParents, start,
+					rowCount - start - count);
+			System.arraycopy(rowIndices, start + count, rowIndices, start,
+					rowCount - start - count);
+			rowCount -= count;
+			for (int i = rowCount; i < rowCount + count; i++)
+				rowParents[i] = null;
+			renumberFrom = Math.min(renumberFrom, start);
+		}
+		rows.refreshAll();
 	}
 
 	boolean mnemonicHit(char key) {
@@ -993,6 +1388,21 @@ public class Tree extends Composite {
 	void recreateRenderers() {
 	}
 
+	void redraw(boolean all) {
+		rows.refreshAll();
+	}
+
+	/**
+	 * Renders the row of the given item again, if it is visible.
+	 */
+	void redraw(TreeItem item) {
+		if (rowsChanged || item == currentItem)
+			return;
+		int row = getRow(item);
+		if (row != -1)
+			rows.refresh(row);
+	}
+
 	void redrawBackgroundImage() {
 		Control control = findBackgroundControl();
 		if (control != null && control.backgroundImage != null) {
@@ -1006,12 +1416,29 @@ public class Tree extends Composite {
 	void releaseItem(TreeItem item, boolean release) {
 	}
 
-	void releaseItems(long /* int */parentIter) {
+	/**
+	 * Releases the children of the given item, or the root items, from the
+	 * given index on.
+	 */
+	void releaseItems(TreeItem parentItem, int start) {
+		TreeItem[] items = _getItems(parentItem);
+		boolean[] selected = _getSelected(parentItem);
+		int count = getItemCount(parentItem);
+		for (int i = start; i < count; i++) {
+			TreeItem item = items[i];
+			if (item != null && !item.isDisposed())
+				item.release(false);
+			items[i] = null;
+			if (selected[i]) {
+				selected[i] = false;
+				selectionCount--;
+			}
+		}
 	}
 
 	void releaseChildren(boolean destroy) {
 		if (items != null) {
-			for (int i = 0; i < items.length; i++) {
+			for (int i = 0; i < itemCount; i++) {
 				TreeItem item = items[i];
 				if (item != null && !item.isDisposed()) {
 					item.release(false);
@@ -1032,6 +1459,14 @@ public class Tree extends Composite {
 	}
 
 	void releaseWidget() {
+		super.releaseWidget();
+		rows.dispose();
+		getGwtWidget().removeFromParent();
+		selected = null;
+		selectionCount = 0;
+		anchor = currentItem = null;
+		rowParents = null;
+		rowIndices = null;
 	}
 
 	/**
@@ -1046,6 +1481,8 @@ public class Tree extends Composite {
 	 *                </ul>
 	 */
 	public void removeAll() {
+		checkWidget();
+		setItemCount(null, 0);
 	}
 
 	/**
@@ -1110,6 +1547,66 @@ public class Tree extends Composite {
 		eventTable.unhook(SWT.Collapse, listener);
 	}
 
+	void renderRow(int row, Element element) {
+		TreeItem item = getRowItem(row);
+		currentItem = item;
+		boolean valid = checkData(item);
+		currentItem = null;
+		if (!valid)
+			return;
+		if (element.getFirstChildElement() == null)
+			createRowElements(element);
+		Style style = element.getStyle();
+		style.setPaddingLeft(getDepth(item) * INDENT, Unit.PX);
+		if (_getSelected(rowParents[row])[rowIndices[row]]) {
+			style.setBackgroundColor(SELECTION_BACKGROUND);
+			style.setColor(SELECTION_FOREGROUND);
+		} else {
+			style.setBackgroundColor(VirtualRows.toCss(item._getBackground(0)));
+			style.setColor(VirtualRows.toCss(item._getForeground(0)));
+		}
+		Element expander = element.getFirstChildElement();
+		expander.setInnerText(item.itemCount == 0 ? "" //$NON-NLS-1$
+				: item.expanded ? "\u25BE" : "\u25B8"); //$NON-NLS-1$ //$NON-NLS-2$
+		Element check = expander.getNextSiblingElement();
+		if ((this.style & SWT.CHECK) != 0)
+			check.setInnerText(item.checked ? item.grayed ? "\u25A3" //$NON-NLS-1$
+					: "\u2611" : "\u2610"); //$NON-NLS-1$ //$NON-NLS-2$
+		ImageElement imageElement = ImageElement.as(check
+				.getNextSiblingElement());
+		Image image = item._getImage(0);
+		if (image != null && image.getGwtImage() != null) {
+			imageElement.setSrc(image.getGwtImage().getUrl());
+			imageElement.getStyle().clearDisplay();
+		} else {
+			imageElement.getStyle().setDisplay(Style.Display.NONE);
+		}
+		imageElement.getNextSiblingElement().setInnerText(item._getText(0));
+	}
+
+	/**
+	 * Creates the expander, check box, image and text of a row element.
+	 */
+	void createRowElements(Element element) {
+		Document document = Document.get();
+		Element expander = document.createSpanElement();
+		expander.setClassName(EXPANDER);
+		expander.getStyle().setProperty("display", "inline-block"); //$NON-NLS-1$ //$NON-NLS-2$
+		expander.getStyle().setWidth(INDENT, Unit.PX);
+		expander.getStyle().setProperty("textAlign", "center"); //$NON-NLS-1$ //$NON-NLS-2$
+		element.appendChild(expander);
+		Element check = document.createSpanElement();
+		check.setClassName(CHECK_BOX);
+		if ((style & SWT.CHECK) == 0)
+			check.getStyle().setDisplay(Style.Display.NONE);
+		element.appendChild(check);
+		Element image = document.createImageElement();
+		image.getStyle().setProperty("verticalAlign", "middle"); //$NON-NLS-1$ //$NON-NLS-2$
+		image.getStyle().setMarginRight(4, Unit.PX);
+		element.appendChild(image);
+		element.appendChild(document.createSpanElement());
+	}
+
 	void reskinChildren(int flags) {
 		if (items != null) {
 			for (int i = 0; i < items.length; i++) {
@@ -1155,7 +1652,42 @@ public class Tree extends Composite {
 	public void setInsertMark(TreeItem item, boolean before) {
 	}
 
-	void setItemCount(long /* int */parentIter, int count) {
+	void setItemCount(TreeItem parentItem, int count) {
+		int itemCount = getItemCount(parentItem);
+		if (count == itemCount)
+			return;
+		TreeItem[] items = _getItems(parentItem);
+		if (count < itemCount) {
+			releaseItems(parentItem, count);
+			if (items.length > 4 && items.length - count > count) {
+				TreeItem[] newItems = new TreeItem[Math.max(4, count)];
+				System.arraycopy(items, 0, newItems, 0, count);
+				items = newItems;
+			}
+		} else {
+			if (count > items.length) {
+				TreeItem[] newItems = new TreeItem[count];
+				System.arraycopy(items, 0, newItems, 0, itemCount);
+				items = newItems;
+			}
+			if ((style & SWT.VIRTUAL) == 0) {
+				for (int i = itemCount; i < count; i++)
+					items[i] = new TreeItem(this, parentItem, SWT.NONE, i,
+							false);
+			}
+		}
+		setItems(parentItem, items, count);
+		itemsChanged(parentItem);
+	}
+
+	void setItems(TreeItem parentItem, TreeItem[] items, int count) {
+		if (parentItem == null) {
+			this.items = items;
+			itemCount = count;
+		} else {
+			parentItem.items = items;
+			parentItem.itemCount = count;
+		}
 	}
 
 	/**
@@ -1177,7 +1709,7 @@ public class Tree extends Composite {
 	public void setItemCount(int count) {
 		checkWidget();
 		count = Math.max(0, count);
-		setItemCount(0, count);
+		setItemCount(null, count);
 	}
 
 	/**
@@ -1204,6 +1736,14 @@ public class Tree extends Composite {
 	 * @since 3.4
 	 */
 	public void select(TreeItem item) {
+		checkWidget();
+		if (item == null)
+			error(SWT.ERROR_NULL_ARGUMENT);
+		if (item.isDisposed())
+			error(SWT.ERROR_INVALID_ARGUMENT);
+		if ((style & SWT.SINGLE) != 0)
+			deselectItems();
+		selectItem(item, true);
 	}
 
 	/**
@@ -1221,6 +1761,101 @@ public class Tree extends Composite {
 	 *                </ul>
 	 */
 	public void selectAll() {
+		checkWidget();
+		if ((style & SWT.SINGLE) != 0)
+			return;
+		updateRows();
+		for (int row = 0; row < rowCount; row++)
+			selectRow(row, true);
+	}
+
+	void selectItem(TreeItem item, boolean select) {
+		int index = indexOf(item.parentItem, item);
+		if (index != -1 && selectSlot(item.parentItem, index, select))
+			redraw(item);
+	}
+
+	/**
+	 * Selects or deselects the item of the given row, without creating it.
+	 */
+	void selectRow(int row, boolean select) {
+		if (selectSlot(rowParents[row], rowIndices[row], select))
+			rows.refresh(row);
+	}
+
+	boolean selectSlot(TreeItem parentItem, int index, boolean select) {
+		boolean[] selected = _getSelected(parentItem);
+		if (selected[index] == select)
+			return false;
+		selected[index] = select;
+		selectionCount += select ? 1 : -1;
+		return true;
+	}
+
+	/**
+	 * Handles a click on a row: toggles the expansion or the check box of the
+	 * item, or selects it.
+	 */
+	void rowClicked(int row, Element target, NativeEvent nativeEvent,
+			boolean doubleClick) {
+		updateRows();
+		if (row >= rowCount)
+			return;
+		TreeItem item = getRowItem(row);
+		String part = target.getClassName();
+		if (EXPANDER.equals(part)) {
+			if (item.itemCount > 0) {
+				boolean expand = !item.expanded;
+				Event event = new Event();
+				event.item = item;
+				sendEvent(expand ? SWT.Expand : SWT.Collapse, event);
+				if (isDisposed() || item.isDisposed())
+					return;
+				item.setExpanded(expand);
+			}
+			return;
+		}
+		Event event = new Event();
+		event.item = item;
+		event.stateMask = VirtualRows.getStateMask(nativeEvent);
+		if (CHECK_BOX.equals(part) && (style & SWT.CHECK) != 0) {
+			if (!doubleClick) {
+				item.setChecked(!item.checked);
+				event.detail = SWT.CHECK;
+				sendEvent(SWT.Selection, event);
+			}
+			return;
+		}
+		if (doubleClick) {
+			sendEvent(SWT.DefaultSelection, event);
+			return;
+		}
+		boolean multi = (style & SWT.MULTI) != 0;
+		if (multi && (event.stateMask & SWT.SHIFT) != 0 && anchor != null
+				&& getRow(anchor) != -1) {
+			int start = Math.min(getRow(anchor), row);
+			int end = Math.max(getRow(anchor), row);
+			deselectItems();
+			for (int i = start; i <= end; i++)
+				selectRow(i, true);
+		} else if (multi && (event.stateMask & (SWT.CTRL | SWT.COMMAND)) != 0) {
+			selectRow(row, !_getSelected(rowParents[row])[rowIndices[row]]);
+			anchor = item;
+		} else {
+			deselectItems();
+			selectItem(item, true);
+			anchor = item;
+		}
+		sendEvent(SWT.Selection, event);
+	}
+
+	/**
+	 * Marks the index of rows as out of date and renders all visible rows
+	 * again.
+	 */
+	void rowsChanged() {
+		rowsChanged = true;
+		rows.refreshAll();
 	}
 
 	int setBounds(int x, int y, int width, int height, boolean move,
@@ -1399,6 +2034,29 @@ public class Tree extends Composite {
 	 * @see Tree#deselectAll()
 	 */
 	public void setSelection(TreeItem[] items) {
+		checkWidget();
+		if (items == null)
+			error(SWT.ERROR_NULL_ARGUMENT);
+		deselectItems();
+		int length = items.length;
+		if (length == 0 || ((style & SWT.SINGLE) != 0 && length > 1))
+			return;
+		TreeItem first = null;
+		for (int i = 0; i < length; i++) {
+			TreeItem item = items[i];
+			if (item == null)
+				continue;
+			if (item.isDisposed())
+				error(SWT.ERROR_INVALID_ARGUMENT);
+			if (item.parent != this)
+				continue;
+			selectItem(item, true);
+			if (first == null)
+				first = item;
+		}
+		anchor = first;
+		if (first != null)
+			showItem(first);
 	}
 
 	/**
@@ -1473,6 +2131,20 @@ public class Tree extends Composite {
 	 * @since 2.1
 	 */
 	public void setTopItem(TreeItem item) {
+		checkWidget();
+		if (item == null)
+			error(SWT.ERROR_NULL_ARGUMENT);
+		if (item.isDisposed())
+			error(SWT.ERROR_INVALID_ARGUMENT);
+		if (item.parent != this)
+			return;
+		showParents(item);
+		rows.setTopRow(getRow(item));
+	}
+
+	void showParents(TreeItem item) {
+		for (TreeItem parentItem = item.parentItem; parentItem != null; parentItem = parentItem.parentItem)
+			parentItem.setExpanded(true);
 	}
 
 	/**
@@ -1549,5 +2221,78 @@ public class Tree extends Composite {
 	 * @see Tree#showSelection()
 	 */
 	public void showItem(TreeItem item) {
+		checkWidget();
+		if (item == null)
+			error(SWT.ERROR_NULL_ARGUMENT);
+		if (item.isDisposed())
+			error(SWT.ERROR_INVALID_ARGUMENT);
+		if (item.parent != this)
+			return;
+		showParents(item);
+		rows.showRow(getRow(item));
+	}
+
+	/**
+	 * Rebuilds the index of rows, if items were added, removed, expanded or
+	 * collapsed since it was last built.
+	 */
+	void updateRows() {
+		if (!rowsChanged)
+			return;
+		rowsChanged = false;
+		int count = countRows(null);
+		rowCount = 0;
+		ensureRowCapacity(count);
+		rowCount = setRows(null, 0);
+		renumberFrom = rowCount;
+	}
+
+	/**
+	 * Returns the number of rows of the children of the given item, and of
+	 * their expanded descendants.
+	 */
+	int countRows(TreeItem parentItem) {
+		TreeItem[] items = _getItems(parentItem);
+		int count = getItemCount(parentItem);
+		int rows = count;
+		for (int i = 0; i < count; i++) {
+			TreeItem item = items[i];
+			if (item != null && item.expanded)
+				rows += countRows(item);
+		}
+		return rows;
+	}
+
+	void ensureRowCapacity(int count) {
+		if (count <= rowParents.length)
+			return;
+		int length = Math.max(count, rowParents.length * 2);
+		TreeItem[] newParents = new TreeItem[length];
+		System.arraycopy(rowParents, 0, newParents, 0, rowCount);
+		rowParents = newParents;
+		int[] newIndices = new int[length];
+		System.arraycopy(rowIndices, 0, newIndices, 0, rowCount);
+		rowIndices = newIndices;
+	}
+
+	/**
+	 * Stores the rows of the children of the given item, and of their expanded
+	 * descendants, in the index of rows from the given row on, and returns the
+	 * row after the last one stored.
+	 */
+	int setRows(TreeItem parentItem, int row) {
+		TreeItem[] items = _getItems(parentItem);
+		int count = getItemCount(parentItem);
+		for (int i = 0; i < count; i++) {
+			rowParents[row] = parentItem;
+			rowIndices[row] = i;
+			TreeItem item = items[i];
+			if (item != null)
+				item.row = row;
+			row++;
+			if (item != null && item.expanded)
+				row = setRows(item, row);
+		}
+		return row;
 	}
 }
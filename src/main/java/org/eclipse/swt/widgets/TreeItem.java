@@ -40,9 +40,17 @@ import org.eclipse.swt.graphics.Rectangle;
  */
 public class TreeItem extends Item {
 	Tree parent;
+	TreeItem parentItem;
+	TreeItem[] items;
+	boolean[] selected;
+	int itemCount, row = -1;
+	String[] strings;
+	Image[] images;
+	Color foreground, background;
+	Color[] cellForeground, cellBackground;
 	Font font;
 	Font[] cellFont;
-	boolean cached, grayed;
+	boolean cached, grayed, checked, expanded;
 	static final int EXPANDER_EXTRA_PADDING = 4;
 
 	/**
@@ -82,7 +90,7 @@ public class TreeItem extends Item {
 	 * @see Widget#getStyle
 	 */
 	public TreeItem(Tree parent, int style) {
-		this(checkNull(parent), 0, style, -1, true);
+		this(checkNull(parent), null, style, -1, true);
 	}
 
 	/**
@@ -126,7 +134,7 @@ public class TreeItem extends Item {
 	 * @see Widget#getStyle
 	 */
 	public TreeItem(Tree parent, int style, int index) {
-		this(checkNull(parent), 0, style, checkIndex(index), true);
+		this(checkNull(parent), null, style, checkIndex(index), true);
 	}
 
 	/**
@@ -166,8 +174,7 @@ public class TreeItem extends Item {
 	 * @see Widget#getStyle
 	 */
 	public TreeItem(TreeItem parentItem, int style) {
-		this(checkNull(parentItem).parent, /* parentItem.handle */0, style,
-				-1, true);
+		this(checkNull(parentItem).parent, parentItem, style, -1, true);
 	}
 
 	/**
@@ -211,13 +218,17 @@ public class TreeItem extends Item {
 	 * @see Widget#getStyle
 	 */
 	public TreeItem(TreeItem parentItem, int style, int index) {
-		this(checkNull(parentItem).parent, /* parentItem.handle */0, style,
+		this(checkNull(parentItem).parent, parentItem, style,
 				checkIndex(index), true);
 	}
 
-	TreeItem(Tree parent, long /* int */parentIter, int style, int index,
+	TreeItem(Tree parent, TreeItem parentItem, int style, int index,
 			boolean create) {
 		super(parent, style);
+		this.parent = parent;
+		this.parentItem = parentItem;
+		if (create)
+			parent.createItem(this, parentItem, index);
 	}
 
 	static int checkIndex(int index) {
@@ -244,30 +255,58 @@ public class TreeItem extends Item {
 	}
 
 	Color _getBackground(int index) {
-		return null;
+		if (cellBackground != null && 0 <= index
+				&& index < cellBackground.length
+				&& cellBackground[index] != null)
+			return cellBackground[index];
+		return background;
 	}
 
 	boolean _getChecked() {
-		return false;
+		return checked;
 	}
 
 	Color _getForeground() {
-		return null;
+		return foreground;
 	}
 
 	Color _getForeground(int index) {
-		return null;
+		if (cellForeground != null && 0 <= index
+				&& index < cellForeground.length
+				&& cellForeground[index] != null)
+			return cellForeground[index];
+		return foreground;
 	}
 
 	Image _getImage(int index) {
+		if (index == 0)
+			return image;
+		if (images != null && 0 < index && index < images.length)
+			return images[index];
 		return null;
 	}
 
 	String _getText(int index) {
-		return null;
+		if (index == 0)
+			return text;
+		if (strings != null && 0 < index && index < strings.length
+				&& strings[index] != null)
+			return strings[index];
+		return ""; //$NON-NLS-1$
 	}
 
 	void clear() {
+		text = ""; //$NON-NLS-1$
+		image = null;
+		strings = null;
+		images = null;
+		foreground = background = null;
+		cellForeground = cellBackground = null;
+		font = null;
+		cellFont = null;
+		checked = grayed = false;
+		if ((parent.style & SWT.VIRTUAL) != 0)
+			cached = false;
 	}
 
 	/**
@@ -303,6 +342,8 @@ public class TreeItem extends Item {
 	 * @since 3.2
 	 */
 	public void clear(int index, boolean all) {
+		checkWidget();
+		parent.clear(this, index, all);
 	}
 
 	/**
@@ -329,9 +370,13 @@ public class TreeItem extends Item {
 	 * @since 3.2
 	 */
 	public void clearAll(boolean all) {
+		checkWidget();
+		parent.clearAll(all, this);
 	}
 
 	void destroyWidget() {
+		parent.destroyItem(this);
+		releaseHandle();
 	}
 
 	/**
@@ -351,7 +396,10 @@ public class TreeItem extends Item {
 	 * 
 	 */
 	public Color getBackground() {
-		return null;
+		checkWidget();
+		if (!parent.checkData(this))
+			error(SWT.ERROR_WIDGET_DISPOSED);
+		return background != null ? background : parent.getBackground();
 	}
 
 	/**
@@ -397,7 +445,12 @@ public class TreeItem extends Item {
 	 * @since 3.1
 	 */
 	public Rectangle getBounds(int index) {
-		return null;
+		checkWidget();
+		if (!parent.checkData(this))
+			error(SWT.ERROR_WIDGET_DISPOSED);
+		if (index != 0)
+			return new Rectangle(0, 0, 0, 0);
+		return parent.getItemBounds(this);
 	}
 
 	/**
@@ -415,7 +468,10 @@ public class TreeItem extends Item {
 	 *                </ul>
 	 */
 	public Rectangle getBounds() {
-		return null;
+		checkWidget();
+		if (!parent.checkData(this))
+			error(SWT.ERROR_WIDGET_DISPOSED);
+		return parent.getItemBounds(this);
 	}
 
 	/**
@@ -433,6 +489,11 @@ public class TreeItem extends Item {
 	 *                </ul>
 	 */
 	public boolean getChecked() {
+		checkWidget();
+		if (!parent.checkData(this))
+			error(SWT.ERROR_WIDGET_DISPOSED);
+		if ((parent.style & SWT.CHECK) == 0)
+			return false;
 		return _getChecked();
 	}
 
@@ -451,7 +512,8 @@ public class TreeItem extends Item {
 	 *                </ul>
 	 */
 	public boolean getExpanded() {
-		return false;
+		checkWidget();
+		return expanded;
 	}
 
 	/**
@@ -628,7 +690,14 @@ public class TreeItem extends Item {
 	 * @since 3.1
 	 */
 	public Rectangle getImageBounds(int index) {
-		return null;
+		checkWidget();
+		Rectangle bounds = getBounds(index);
+		bounds.x += Tree.INDENT;
+		if ((parent.style & SWT.CHECK) != 0)
+			bounds.x += Tree.INDENT;
+		Image image = _getImage(index);
+		bounds.width = image == null ? 0 : image.getBounds().width;
+		return bounds;
 	}
 
 	/**
@@ -646,7 +715,10 @@ public class TreeItem extends Item {
 	 *                </ul>
 	 */
 	public int getItemCount() {
-		return 0;
+		checkWidget();
+		if (!parent.checkData(this))
+			error(SWT.ERROR_WIDGET_DISPOSED);
+		return itemCount;
 	}
 
 	/**
@@ -674,7 +746,14 @@ public class TreeItem extends Item {
 	 * @since 3.1
 	 */
 	public TreeItem getItem(int index) {
-		return null;
+		checkWidget();
+		if (index < 0)
+			error(SWT.ERROR_INVALID_RANGE);
+		if (!parent.checkData(this))
+			error(SWT.ERROR_WIDGET_DISPOSED);
+		if (index >= itemCount)
+			error(SWT.ERROR_INVALID_RANGE);
+		return parent._getItem(this, index);
 	}
 
 	/**
@@ -696,7 +775,10 @@ public class TreeItem extends Item {
 	 *                </ul>
 	 */
 	public TreeItem[] getItems() {
-		return null;
+		checkWidget();
+		if (!parent.checkData(this))
+			error(SWT.ERROR_WIDGET_DISPOSED);
+		return parent.getItems(this);
 	}
 
 	String getNameText() {
@@ -740,7 +822,8 @@ public class TreeItem extends Item {
 	 *                </ul>
 	 */
 	public TreeItem getParentItem() {
-		return null;
+		checkWidget();
+		return parentItem;
 	}
 
 	public String getText() {
@@ -794,7 +877,12 @@ public class TreeItem extends Item {
 	 * @since 3.3
 	 */
 	public Rectangle getTextBounds(int index) {
-		return null;
+		checkWidget();
+		Rectangle bounds = getImageBounds(index);
+		bounds.x += bounds.width;
+		bounds.width = Math.max(0, getBounds(index).x
+				+ getBounds(index).width - bounds.x);
+		return bounds;
 	}
 
 	/**
@@ -823,17 +911,34 @@ public class TreeItem extends Item {
 	 * @since 3.1
 	 */
 	public int indexOf(TreeItem item) {
-		return 0;
+		checkWidget();
+		if (item == null)
+			error(SWT.ERROR_NULL_ARGUMENT);
+		if (item.isDisposed())
+			error(SWT.ERROR_INVALID_ARGUMENT);
+		return parent.indexOf(this, item);
 	}
 
 	void releaseChildren(boolean destroy) {
+		if (items != null) {
+			parent.releaseItems(this, 0);
+			items = null;
+			itemCount = 0;
+		}
+		super.releaseChildren(destroy);
 	}
 
 	void releaseHandle() {
+		super.releaseHandle();
+		state |= DISPOSED;
 	}
 
 	void releaseWidget() {
 		super.releaseWidget();
+		strings = null;
+		images = null;
+		foreground = background = null;
+		cellForeground = cellBackground = null;
 		font = null;
 		cellFont = null;
 	}
@@ -852,6 +957,8 @@ public class TreeItem extends Item {
 	 * @since 3.1
 	 */
 	public void removeAll() {
+		checkWidget();
+		parent.setItemCount(this, 0);
 	}
 
 	/**
@@ -879,6 +986,12 @@ public class TreeItem extends Item {
 	 * 
 	 */
 	public void setBackground(Color color) {
+		checkWidget();
+		if (color != null && color.isDisposed())
+			error(SWT.ERROR_INVALID_ARGUMENT);
+		background = color;
+		cached = true;
+		parent.redraw(this);
 	}
 
 	/**
@@ -908,6 +1021,17 @@ public class TreeItem extends Item {
 	 * 
 	 */
 	public void setBackground(int index, Color color) {
+		checkWidget();
+		if (color != null && color.isDisposed())
+			error(SWT.ERROR_INVALID_ARGUMENT);
+		int count = Math.max(1, parent.columnCount);
+		if (0 > index || index > count - 1)
+			return;
+		if (cellBackground == null)
+			cellBackground = new Color[count];
+		cellBackground[index] = color;
+		cached = true;
+		parent.redraw(this);
 	}
 
 	/**
@@ -925,6 +1049,12 @@ public class TreeItem extends Item {
 	 *                </ul>
 	 */
 	public void setChecked(boolean checked) {
+		checkWidget();
+		if ((parent.style & SWT.CHECK) == 0)
+			return;
+		this.checked = checked;
+		cached = true;
+		parent.redraw(this);
 	}
 
 	/**
@@ -942,6 +1072,11 @@ public class TreeItem extends Item {
 	 *                </ul>
 	 */
 	public void setExpanded(boolean expanded) {
+		checkWidget();
+		if (this.expanded == expanded || expanded && itemCount == 0)
+			return;
+		this.expanded = expanded;
+		parent.expandedChanged(this);
 	}
 
 	/**
@@ -968,6 +1103,12 @@ public class TreeItem extends Item {
 	 * @since 3.0
 	 */
 	public void setFont(Font font) {
+		checkWidget();
+		if (font != null && font.isDisposed())
+			error(SWT.ERROR_INVALID_ARGUMENT);
+		this.font = font;
+		cached = true;
+		parent.redraw(this);
 	}
 
 	/**
@@ -996,6 +1137,17 @@ public class TreeItem extends Item {
 	 * @since 3.1
 	 */
 	public void setFont(int index, Font font) {
+		checkWidget();
+		if (font != null && font.isDisposed())
+			error(SWT.ERROR_INVALID_ARGUMENT);
+		int count = Math.max(1, parent.columnCount);
+		if (0 > index || index > count - 1)
+			return;
+		if (cellFont == null)
+			cellFont = new Font[count];
+		cellFont[index] = font;
+		cached = true;
+		parent.redraw(this);
 	}
 
 	/**
@@ -1023,6 +1175,12 @@ public class TreeItem extends Item {
 	 * 
 	 */
 	public void setForeground(Color color) {
+		checkWidget();
+		if (color != null && color.isDisposed())
+			error(SWT.ERROR_INVALID_ARGUMENT);
+		foreground = color;
+		cached = true;
+		parent.redraw(this);
 	}
 
 	/**
@@ -1052,6 +1210,17 @@ public class TreeItem extends Item {
 	 * 
 	 */
 	public void setForeground(int index, Color color) {
+		checkWidget();
+		if (color != null && color.isDisposed())
+			error(SWT.ERROR_INVALID_ARGUMENT);
+		int count = Math.max(1, parent.columnCount);
+		if (0 > index || index > count - 1)
+			return;
+		if (cellForeground == null)
+			cellForeground = new Color[count];
+		cellForeground[index] = color;
+		cached = true;
+		parent.redraw(this);
 	}
 
 	/**
@@ -1070,6 +1239,12 @@ public class TreeItem extends Item {
 	 *                </ul>
 	 */
 	public void setGrayed(boolean grayed) {
+		checkWidget();
+		if ((parent.style & SWT.CHECK) == 0)
+			return;
+		this.grayed = grayed;
+		cached = true;
+		parent.redraw(this);
 	}
 
 	/**
@@ -1096,6 +1271,21 @@ public class TreeItem extends Item {
 	 * @since 3.1
 	 */
 	public void setImage(int index, Image image) {
+		checkWidget();
+		if (image != null && image.isDisposed())
+			error(SWT.ERROR_INVALID_ARGUMENT);
+		int count = Math.max(1, parent.columnCount);
+		if (0 > index || index > count - 1)
+			return;
+		if (index == 0) {
+			super.setImage(image);
+		} else {
+			if (images == null)
+				images = new Image[count];
+			images[index] = image;
+		}
+		cached = true;
+		parent.redraw(this);
 	}
 
 	public void setImage(Image image) {
@@ -1151,6 +1341,9 @@ public class TreeItem extends Item {
 	 * @since 3.2
 	 */
 	public void setItemCount(int count) {
+		checkWidget();
+		count = Math.max(0, count);
+		parent.setItemCount(this, count);
 	}
 
 	/**
@@ -1176,6 +1369,21 @@ public class TreeItem extends Item {
 	 * @since 3.1
 	 */
 	public void setText(int index, String string) {
+		checkWidget();
+		if (string == null)
+			error(SWT.ERROR_NULL_ARGUMENT);
+		int count = Math.max(1, parent.columnCount);
+		if (0 > index || index > count - 1)
+			return;
+		if (index == 0) {
+			super.setText(string);
+		} else {
+			if (strings == null)
+				strings = new String[count];
+			strings[index] = string;
+		}
+		cached = true;
+		parent.redraw(this);
 	}
 
 	public void setText(String string) {
@@ -0,0 +1,567 @@
+/*******************************************************************************
+ * Copyright (c) 2012 Gerhardt Informatics Kft. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Gerhardt Informatics Kft. - GEFGWT port
+ *******************************************************************************/
+package org.eclipse.swt.widgets;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Rectangle;
+
+import com.google.gwt.animation.client.AnimationScheduler;
+import com.google.gwt.animation.client.AnimationScheduler.AnimationCallback;
+import com.google.gwt.dom.client.Document;
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.dom.client.EventTarget;
+import com.google.gwt.dom.client.NativeEvent;
+import com.google.gwt.dom.client.Style;
+import com.google.gwt.dom.client.Style.Overflow;
+import com.google.gwt.dom.client.Style.Position;
+import com.google.gwt.dom.client.Style.Unit;
+import com.google.gwt.event.dom.client.ClickEvent;
+import com.google.gwt.event.dom.client.ClickHandler;
+import com.google.gwt.event.dom.client.DoubleClickEvent;
+import com.google.gwt.event.dom.client.DoubleClickHandler;
+import com.google.gwt.event.dom.client.ScrollEvent;
+import com.google.gwt.event.dom.client.ScrollHandler;
+import com.google.gwt.event.logical.shared.AttachEvent;
+import com.google.gwt.event.logical.shared.AttachEvent.Handler;
+import com.google.gwt.user.client.ui.FlowPanel;
+import com.google.gwt.user.client.ui.ScrollPanel;
+
+/**
+ * A scrolled list of rows, of which only the rows inside the viewport, and a
+ * few rows of overscan around it, are rendered. The rows are rendered into a
+ * pool of row elements which is only as large as the viewport requires: when
+ * scrolling, the elements of the rows which left the viewport are moved to the
+ * rows which entered it and rendered again. The number of elements, and the
+ * work done per scroll, are thus independent of the number of rows.
+ * <p>
+ * Rows have the same height by default, so that row positions are computed
+ * by a multiplication. With {@link #setVariableHeight(boolean) variable
+ * heights}, each row is measured by the {@link Renderer} when it is first
+ * rendered, and estimated to have the default height until then. The heights
+ * are then kept in a binary indexed tree, which finds the position of a row,
+ * and the row at a position, in logarithmic time.
+ * <p>
+ * Scroll events, resizes and refresh requests are coalesced, and applied once
+ * per animation frame.
+ */
+class VirtualRows {
+
+	/**
+	 * Provides the rows, and handles the clicks on them.
+	 */
+	interface Renderer {
+		/**
+		 * Returns the number of rows.
+		 */
+		int getRowCount();
+
+		/**
+		 * Returns the height of a row. Only called when the rows have variable
+		 * heights, before the row is first rendered.
+		 */
+		int measureRow(int row);
+
+		/**
+		 * Renders a row into a pool element. The element may still contain
+		 * the rendering of another row.
+		 */
+		void renderRow(int row, Element element);
+
+		/**
+		 * Called when a row is clicked.
+		 */
+		void rowClicked(int row, Element target, NativeEvent event);
+
+		/**
+		 * Called when a row is double clicked.
+		 */
+		void rowDoubleClicked(int row, Element target, NativeEvent event);
+	}
+
+	static final int DEFAULT_ROW_HEIGHT = 20;
+
+	static final int DEFAULT_OVERSCAN = 4;
+
+	private static final String ROW = "swtRow"; //$NON-NLS-1$
+
+	private final Renderer renderer;
+	private final ScrollPanel scrollPanel;
+	private final FlowPanel content;
+	private Element pool[] = new Element[0];
+	private int poolRows[] = new int[0];
+	private int poolTops[] = new int[0];
+	private int rowHeight = DEFAULT_ROW_HEIGHT;
+	private int rowCount;
+	private int overscan = DEFAULT_OVERSCAN;
+	private boolean scheduled, disposed;
+
+	/**
+	 * The measured heights of the rows, 0 for rows not measured yet, and the
+	 * binary indexed tree of the heights, where estimated heights are
+	 * included. <code>null</code> when the rows have the same height, or when
+	 * they must be measured again.
+	 */
+	private int heights[], sums[];
+	private boolean variableHeight;
+
+	VirtualRows(Renderer renderer) {
+		this.renderer = renderer;
+		content = new FlowPanel();
+		content.getElement().getStyle().setPosition(Position.RELATIVE);
+		content.getElement().getStyle().setOverflow(Overflow.HIDDEN);
+		scrollPanel = new ScrollPanel(content) {
+			public void onResize() {
+				super.onResize();
+				scheduleUpdate();
+			}
+		};
+		scrollPanel.addScrollHandler(new ScrollHandler() {
+			public void onScroll(ScrollEvent event) {
+				scheduleUpdate();
+			}
+		});
+		scrollPanel.addAttachHandler(new Handler() {
+			public void onAttachOrDetach(AttachEvent event) {
+				if (event.isAttached())
+					scheduleUpdate();
+			}
+		});
+		scrollPanel.addDomHandler(new ClickHandler() {
+			public void onClick(ClickEvent event) {
+				Element target = getTarget(event.getNativeEvent());
+				int row = getRow(target);
+				if (row != -1)
+					VirtualRows.this.renderer.rowClicked(row, target,
+							event.getNativeEvent());
+			}
+		}, ClickEvent.getType());
+		scrollPanel.addDomHandler(new DoubleClickHandler() {
+			public void onDoubleClick(DoubleClickEvent event) {
+				Element target = getTarget(event.getNativeEvent());
+				int row = getRow(target);
+				if (row != -1)
+					VirtualRows.this.renderer.rowDoubleClicked(row, target,
+							event.getNativeEvent());
+			}
+		}, DoubleClickEvent.getType());
+	}
+
+	void dispose() {
+		disposed = true;
+		scrollPanel.removeFromParent();
+		pool = new Element[0];
+		poolRows = poolTops = new int[0];
+		heights = sums = null;
+	}
+
+	/**
+	 * Estimates the heights of the rows again, if they were discarded.
+	 */
+	private void checkHeights() {
+		if (heights == null) {
+			rowCount = renderer.getRowCount();
+			resetHeights();
+		}
+	}
+
+	/**
+	 * Returns the row at the given y coordinate of the content, which is the
+	 * last row if the coordinate is below the rows.
+	 */
+	private int findRow(int y) {
+		if (rowCount == 0 || y <= 0)
+			return 0;
+		if (!variableHeight)
+			return Math.min(y / rowHeight, rowCount - 1);
+		checkHeights();
+		int row = 0;
+		for (int step = Integer.highestOneBit(rowCount); step > 0; step >>= 1) {
+			if (row + step <= rowCount && sums[row + step] <= y) {
+				row += step;
+				y -= sums[row];
+			}
+		}
+		return Math.min(row, rowCount - 1);
+	}
+
+	/**
+	 * Returns the height of the given row, measured or estimated.
+	 */
+	private int getHeight(int row) {
+		if (!variableHeight)
+			return rowHeight;
+		checkHeights();
+		if (heights[row] == 0)
+			return rowHeight;
+		return heights[row];
+	}
+
+	/**
+	 * Returns the row displayed at the given y coordinate of the viewport, or
+	 * -1 if there is none.
+	 */
+	int getRowAt(int y) {
+		if (y < 0)
+			return -1;
+		y += getScrollTop();
+		if (y >= getRowTop(rowCount))
+			return -1;
+		return findRow(y);
+	}
+
+	/**
+	 * Returns the bounds of the given row, relative to the viewport.
+	 */
+	Rectangle getRowBounds(int row) {
+		return new Rectangle(0, getRowTop(row) - getScrollTop(),
+				getViewportWidth(), getHeight(row));
+	}
+
+	/**
+	 * Returns the y coordinate of the given row in the content, or the height
+	 * of the content for the row count.
+	 */
+	private int getRowTop(int row) {
+		if (!variableHeight)
+			return row * rowHeight;
+		checkHeights();
+		int y = 0;
+		for (int i = row; i > 0; i -= i & -i)
+			y += sums[i];
+		return y;
+	}
+
+	int getRowHeight() {
+		return rowHeight;
+	}
+
+	private static Element getTarget(NativeEvent event) {
+		EventTarget target = event.getEventTarget();
+		return Element.is(target) ? Element.as(target) : null;
+	}
+
+	/**
+	 * Returns the row rendered by the pool element containing the given
+	 * element, or -1.
+	 */
+	private int getRow(Element element) {
+		Element contentElement = content.getElement();
+		while (element != null && element != contentElement) {
+			if (element.getParentElement() == contentElement)
+				return element.getPropertyInt(ROW);
+			element = element.getParentElement();
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the SWT modifier keys pressed during the given event.
+	 */
+	static int getStateMask(NativeEvent event) {
+		int stateMask = 0;
+		if (event.getShiftKey())
+			stateMask |= SWT.SHIFT;
+		if (event.getCtrlKey())
+			stateMask |= SWT.CTRL;
+		if (event.getAltKey())
+			stateMask |= SWT.ALT;
+		if (event.getMetaKey())
+			stateMask |= SWT.COMMAND;
+		return stateMask;
+	}
+
+	private int getScrollTop() {
+		return scrollPanel.getVerticalScrollPosition();
+	}
+
+	int getTopRow() {
+		return findRow(getScrollTop());
+	}
+
+	int getViewportHeight() {
+		return scrollPanel.getElement().getClientHeight();
+	}
+
+	int getViewportWidth() {
+		return scrollPanel.getElement().getClientWidth();
+	}
+
+	com.google.gwt.user.client.ui.Widget getWidget() {
+		return scrollPanel;
+	}
+
+	/**
+	 * Measures the given row, if it was not measured yet.
+	 */
+	private void measure(int row) {
+		if (heights[row] != 0)
+			return;
+		setHeight(row, Math.max(1, renderer.measureRow(row)));
+	}
+
+	/**
+	 * Renders, and measures, the given row again, if it is visible.
+	 */
+	void refresh(int row) {
+		int slot = pool.length == 0 ? -1 : row % pool.length;
+		if (slot != -1 && poolRows[slot] == row) {
+			poolRows[slot] = -1;
+			if (variableHeight && heights != null && row < heights.length)
+				setHeight(row, 0);
+			scheduleUpdate();
+		}
+	}
+
+	/**
+	 * Renders all visible rows again, after the number or the order of the
+	 * rows changed. Variable heights are measured again.
+	 */
+	void refreshAll() {
+		for (int i = 0; i < poolRows.length; i++)
+			poolRows[i] = -1;
+		heights = sums = null;
+		scheduleUpdate();
+	}
+
+	/**
+	 * Estimates the height of all rows to be the default height.
+	 */
+	private void resetHeights() {
+		heights = new int[rowCount];
+		sums = new int[rowCount + 1];
+		for (int i = 1; i <= rowCount; i++) {
+			sums[i] += rowHeight;
+			int parent = i + (i & -i);
+			if (parent <= rowCount)
+				sums[parent] += sums[i];
+		}
+	}
+
+	private void resizePool(int size) {
+		Element contentElement = content.getElement();
+		Element resized[] = new Element[size];
+		int count = Math.min(size, pool.length);
+		System.arraycopy(pool, 0, resized, 0, count);
+		for (int i = count; i < pool.length; i++)
+			contentElement.removeChild(pool[i]);
+		for (int i = count; i < size; i++) {
+			Element element = Document.get().createDivElement();
+			Style style = element.getStyle();
+			style.setPosition(Position.ABSOLUTE);
+			style.setLeft(0, Unit.PX);
+			style.setRight(0, Unit.PX);
+			style.setHeight(rowHeight, Unit.PX);
+			style.setProperty("lineHeight", rowHeight + "px"); //$NON-NLS-1$ //$NON-NLS-2$
+			style.setProperty("whiteSpace", "nowrap"); //$NON-NLS-1$ //$NON-NLS-2$
+			style.setOverflow(Overflow.HIDDEN);
+			style.setProperty("cursor", "default"); //$NON-NLS-1$ //$NON-NLS-2$
+			contentElement.appendChild(element);
+			resized[i] = element;
+		}
+		pool = resized;
+		poolRows = new int[size];
+		poolTops = new int[size];
+		for (int i = 0; i < size; i++) {
+			poolRows[i] = poolTops[i] = -1;
+			hide(pool[i]);
+		}
+	}
+
+	private static void hide(Element element) {
+		element.setPropertyInt(ROW, -1);
+		element.getStyle().setProperty("visibility", "hidden"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private void scheduleUpdate() {
+		if (scheduled || disposed)
+			return;
+		scheduled = true;
+		AnimationScheduler.get().requestAnimationFrame(new AnimationCallback() {
+			public void execute(double timestamp) {
+				scheduled = false;
+				if (!disposed)
+					update();
+			}
+		});
+	}
+
+	/**
+	 * Sets the height of a row, 0 to estimate it, and updates the binary
+	 * indexed tree.
+	 */
+	private void setHeight(int row, int height) {
+		int delta = (height == 0 ? rowHeight : height) - getHeight(row);
+		heights[row] = height;
+		for (int i = row + 1; i <= rowCount; i += i & -i)
+			sums[i] += delta;
+	}
+
+	/**
+	 * Sets the number of rows rendered above and below the viewport, so that
+	 * they are ready when scrolling starts.
+	 */
+	void setOverscan(int rows) {
+		overscan = Math.max(0, rows);
+		scheduleUpdate();
+	}
+
+	/**
+	 * Sets the height of the rows, or the estimated height of the rows not
+	 * measured yet when the rows have variable heights.
+	 */
+	void setRowHeight(int height) {
+		if (height <= 0 || height == rowHeight)
+			return;
+		int top = getTopRow();
+		rowHeight = height;
+		if (!variableHeight) {
+			for (int i = 0; i < pool.length; i++) {
+				pool[i].getStyle().setHeight(height, Unit.PX);
+				pool[i].getStyle().setProperty("lineHeight", height + "px"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		}
+		refreshAll();
+		setTopRow(top);
+	}
+
+	/**
+	 * Scrolls the given row to the top of the viewport.
+	 */
+	void setTopRow(int row) {
+		updateHeight();
+		scrollPanel.setVerticalScrollPosition(getRowTop(row));
+		scheduleUpdate();
+	}
+
+	/**
+	 * Sets whether each row is measured by the renderer, instead of having the
+	 * default height.
+	 */
+	void setVariableHeight(boolean variable) {
+		if (variableHeight == variable)
+			return;
+		variableHeight = variable;
+		for (int i = 0; i < pool.length; i++) {
+			pool[i].getStyle().setHeight(rowHeight, Unit.PX);
+			pool[i].getStyle().setProperty("lineHeight", rowHeight + "px"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		refreshAll();
+	}
+
+	/**
+	 * Scrolls the viewport by the least amount which shows the given row.
+	 */
+	void showRow(int row) {
+		updateHeight();
+		if (variableHeight && row < rowCount) {
+			measure(row);
+			updateHeight();
+		}
+		int top = getScrollTop();
+		int y = getRowTop(row);
+		int height = getHeight(row);
+		if (y < top)
+			scrollPanel.setVerticalScrollPosition(y);
+		else if (y + height > top + getViewportHeight())
+			scrollPanel.setVerticalScrollPosition(y + height
+					- getViewportHeight());
+		scheduleUpdate();
+	}
+
+	private void updateHeight() {
+		int count = renderer.getRowCount();
+		if (count != rowCount)
+			heights = sums = null;
+		rowCount = count;
+		if (variableHeight)
+			checkHeights();
+		content.getElement().getStyle().setHeight(getRowTop(rowCount),
+				Unit.PX);
+	}
+
+	/**
+	 * Returns the CSS value of the given color, or an empty string, which
+	 * clears the style property, for <code>null</code>.
+	 */
+	static String toCss(Color color) {
+		if (color == null)
+			return ""; //$NON-NLS-1$
+		return "rgb(" + color.getRed() + "," + color.getGreen() + "," //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ color.getBlue() + ")"; //$NON-NLS-1$
+	}
+
+	/**
+	 * Moves the pool elements to the rows in the viewport, and renders the
+	 * rows which were not rendered by the element already.
+	 */
+	private void update() {
+		updateHeight();
+		int height = getViewportHeight();
+		int top = getScrollTop();
+		int first, last, size;
+		if (rowCount == 0) {
+			first = last = 0;
+			size = pool.length;
+		} else if (!variableHeight) {
+			first = Math.max(0, top / rowHeight - overscan);
+			last = Math.min((top + height + rowHeight - 1) / rowHeight
+					+ overscan, rowCount);
+			size = (height + rowHeight - 1) / rowHeight + 1 + 2 * overscan;
+		} else {
+			/* measuring rows moves the rows below them, not the first one */
+			int bottom = top + height;
+			int row = findRow(top);
+			for (int i = Math.max(0, row - overscan); i < row; i++)
+				measure(i);
+			first = findRow(top);
+			for (row = first; row < rowCount && getRowTop(row) < bottom; row++)
+				measure(row);
+			last = Math.min(row + overscan, rowCount);
+			for (; row < last; row++)
+				measure(row);
+			first = Math.max(0, first - overscan);
+			size = Math.max(pool.length, last - first);
+			updateHeight();
+		}
+		if (size != pool.length)
+			resizePool(size);
+		for (int slot = 0; slot < size; slot++) {
+			int row = poolRows[slot];
+			if (row != -1 && (row < first || row >= last)) {
+				poolRows[slot] = poolTops[slot] = -1;
+				hide(pool[slot]);
+			}
+		}
+		for (int row = first; row < last; row++) {
+			int slot = row % size;
+			Element element = pool[slot];
+			int y = getRowTop(row);
+			boolean rendered = poolRows[slot] == row;
+			if (poolTops[slot] != y || !rendered && variableHeight) {
+				poolTops[slot] = y;
+				element.getStyle().setTop(y, Unit.PX);
+				if (variableHeight) {
+					element.getStyle().setHeight(getHeight(row), Unit.PX);
+					element.getStyle().setProperty("lineHeight", //$NON-NLS-1$
+							getHeight(row) + "px"); //$NON-NLS-1$
+				}
+			}
+			if (rendered)
+				continue;
+			poolRows[slot] = row;
+			element.setPropertyInt(ROW, row);
+			renderer.renderRow(row, element);
+			element.getStyle().setProperty("visibility", "visible"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+}
@@ -11,9 +11,6 @@
  *******************************************************************************/
 package org.eclipse.swt.widgets;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
 import org.eclipse.swt.events.DisposeListener;
@@ -97,9 +94,22 @@ public abstract class Widget {
 	protected boolean isMouseDown = false;
 	protected boolean isMoved = false;
 	protected long touchStart = 0l;
-	private List<MouseListener> mouseListeners = new ArrayList<MouseListener>();
-	private List<MouseMoveListener> mouseMoveListeners = new ArrayList<MouseMoveListener>();
-	private List<KeyListener> keyListeners = new ArrayList<KeyListener>();
+
+	/*
+	 * The listeners notified directly of the browser events. The arrays are
+	 * replaced, never modified, so that they can be iterated while listeners
+	 * are added and removed.
+	 */
+	private Object[] mouseListeners = NO_LISTENERS;
+	private Object[] mouseMoveListeners = NO_LISTENERS;
+	private Object[] keyListeners = NO_LISTENERS;
+	static final Object[] NO_LISTENERS = new Object[0];
+
+	/*
+	 * The event passed to the mouse move listeners, reused for every move.
+	 * Listeners must copy the event to keep it after returning.
+	 */
+	private MouseEvent mouseMoveEvent;
 
 	int style, state;
 	Display display;
@@ -438,7 +448,10 @@ public abstract class Widget {
 
 						@Override
 						public void onMouseMove(MouseMoveEvent event) {
-							MouseEvent me = new MouseEvent(e);
+							MouseEvent me = mouseMoveEvent;
+							if (me == null)
+								me = mouseMoveEvent = new MouseEvent(e);
+							me.stateMask = 0;
 							me.x = event.getX();
 							me.y = event.getY();
 							me.button = event.getNativeButton();
@@ -575,34 +588,27 @@ public abstract class Widget {
 	}
 
 	protected void dispatchKeyPressed(KeyEvent ke) {
-		List<KeyListener> copy = new ArrayList<KeyListener>(keyListeners);
-		for (KeyListener keyListener : copy) {
-			keyListener.keyPressed(ke);
-		}
+		Object[] listeners = keyListeners;
+		for (int i = 0; i < listeners.length; i++)
+			((KeyListener) listeners[i]).keyPressed(ke);
 	}
 
 	protected void dispatchMouseReleased(MouseEvent me) {
-		List<MouseListener> copy = new ArrayList<MouseListener>(mouseListeners);
-		for (MouseListener ml : copy) {
-			ml.mouseUp(me);
-		}
-
+		Object[] listeners = mouseListeners;
+		for (int i = 0; i < listeners.length; i++)
+			((MouseListener) listeners[i]).mouseUp(me);
 	}
 
 	protected void dispatchMousePressed(MouseEvent me) {
-		List<MouseListener> copy = new ArrayList<MouseListener>(mouseListeners);
-		for (MouseListener ml : copy) {
-			ml.mouseDown(me);
-		}
+		Object[] listeners = mouseListeners;
+		for (int i = 0; i < listeners.length; i++)
+			((MouseListener) listeners[i]).mouseDown(me);
 	}
 
 	protected void dispatchMouseMoved(MouseEvent me) {
-		List<MouseMoveListener> copy = new ArrayList<MouseMoveListener>(
-				mouseMoveListeners);
-		for (MouseMoveListener ml : copy) {
-			ml.mouseMove(me);
-		}
-
+		Object[] listeners = mouseMoveListeners;
+		for (int i = 0; i < listeners.length; i++)
+			((MouseMoveListener) listeners[i]).mouseMove(me);
 	}
 
 	protected void dispatchMouseExited(MouseEvent me) {
@@ -614,15 +620,49 @@ public abstract class Widget {
 	}
 
 	public void addKeyListener(KeyListener listener, int i) {
-		this.keyListeners.add(listener);
+		keyListeners = add(keyListeners, listener);
 	}
 
 	public void addMouseMoveListener(MouseMoveListener listener) {
-		this.mouseMoveListeners.add(listener);
+		mouseMoveListeners = add(mouseMoveListeners, listener);
 	}
 
 	public void addMouseListener(org.eclipse.swt.events.MouseListener handler) {
-		this.mouseListeners.add(handler);
+		mouseListeners = add(mouseListeners, handler);
+	}
+
+	public void removeKeyListener(KeyListener listener) {
+		keyListeners = remove(keyListeners, listener);
+	}
+
+	public void removeMouseMoveListener(MouseMoveListener listener) {
+		mouseMoveListeners = remove(mouseMoveListeners, listener);
+	}
+
+	public void removeMouseListener(MouseListener listener) {
+		mouseListeners = remove(mouseListeners, listener);
+	}
+
+	static Object[] add(Object[] listeners, Object listener) {
+		Object[] result = new Object[listeners.length + 1];
+		System.arraycopy(listeners, 0, result, 0, listeners.length);
+		result[listeners.length] = listener;
+		return result;
+	}
+
+	static Object[] remove(Object[] listeners, Object listener) {
+		for (int i = 0; i < listeners.length; i++) {
+			if (listeners[i] == listener) {
+				if (listeners.length == 1)
+					return NO_LISTENERS;
+				Object[] result = new Object[listeners.length - 1];
+				System.arraycopy(listeners, 0, result, 0, i);
+				System.arraycopy(listeners, i + 1, result, i, result.length
+						- i);
+				return result;
+			}
+		}
+		return listeners;
 	}
 
 	private static void addStateMasks(HumanInputEvent event, MouseEvent me) {
@@ -1464,6 +1504,22 @@ public abstract class Widget {
 		return false;
 	}
 
+	static void sort(int[] items) {
+		/* Shell Sort from K&R, pg 108 */
+		int length = items.length;
+		for (int gap = length / 2; gap > 0; gap /= 2) {
+			for (int i = gap; i < length; i++) {
+				for (int j = i - gap; j >= 0; j -= gap) {
+					if (items[j] <= items[j + gap]) {
+						int swap = items[j];
+						items[j] = items[j + gap];
+						items[j + gap] = swap;
+					}
+				}
+			}
+		}
+	}
+
 	/**
 	 * Returns a string containing a concise, human-readable description of the
 	 * receiver.
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2000, 2010, 2012 IBM Corporation, Gerhardt Informatics Kft. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *     Gerhardt Informatics Kft. - GEFGWT port
+ *******************************************************************************/
+package org.eclipse.draw2d;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+
+import org.eclipse.draw2d.geometry.Rectangle;
+
+/**
+ * A micro-benchmark of layout throughput. It lays out a diagram of containers
+ * holding nodes which, as in a typical editor, are observed by connection
+ * anchors and by figure and property listeners, so that each bounds change
+ * made by the layout notifies them. Every round moves all the containers and
+ * nodes and validates the diagram.
+ * <P>
+ * The benchmark only uses API that predates the per-type listener arrays of
+ * {@link EventListenerList}, so it can be run on the revisions before and
+ * after that change to compare them:
+ * 
+ * <pre>
+ * java org.eclipse.draw2d.LayoutBenchmark [containers] [nodes] [rounds]
+ * </pre>
+ */
+public class LayoutBenchmark {
+
+	private static final int WARMUP_ROUNDS = 50;
+
+	private int notifications;
+
+	private final Figure diagram = new Figure();
+
+	private final IFigure containers[];
+
+	private final IFigure nodes[][];
+
+	private final AnchorListener anchorListener = new AnchorListener() {
+		public void anchorMoved(ConnectionAnchor anchor) {
+			notifications++;
+		}
+	};
+
+	private final FigureListener figureListener = new FigureListener() {
+		public void figureMoved(IFigure source) {
+			notifications++;
+		}
+	};
+
+	private final PropertyChangeListener propertyListener;
+
+	LayoutBenchmark(int containerCount, int nodeCount) {
+		propertyListener = new PropertyChangeListener() {
+			public void propertyChange(PropertyChangeEvent evt) {
+				notifications++;
+			}
+		};
+		diagram.setLayoutManager(new XYLayout());
+		containers = new IFigure[containerCount];
+		nodes = new IFigure[containerCount][nodeCount];
+		for (int i = 0; i < containerCount; i++) {
+			IFigure container = new Figure();
+			container.setLayoutManager(new XYLayout());
+			container.addFigureListener(figureListener);
+			diagram.add(container, new Rectangle(0, 0, 400, 400));
+			containers[i] = container;
+			for (int j = 0; j < nodeCount; j++) {
+				IFigure node = new Figure();
+				node.addFigureListener(figureListener);
+				node.addPropertyChangeListener(propertyListener);
+				// A source and a target anchor, as for two connections
+				new ChopboxAnchor(node).addAnchorListener(anchorListener);
+				new ChopboxAnchor(node).addAnchorListener(anchorListener);
+				container.add(node, new Rectangle(0, 0, 40, 20));
+				nodes[i][j] = node;
+			}
+		}
+	}
+
+	/**
+	 * Moves every container and node and lays out the diagram again.
+	 * 
+	 * @param round
+	 *            the round, which determines the locations
+	 */
+	void layout(int round) {
+		int shift = round % 2;
+		for (int i = 0; i < containers.length; i++) {
+			diagram.setConstraint(containers[i], new Rectangle(i % 20 * 420
+					+ shift, i / 20 * 420 + shift, 400, 400));
+			for (int j = 0; j < nodes[i].length; j++)
+				containers[i].setConstraint(nodes[i][j], new Rectangle(j % 8
+						* 48 + shift, j / 8 * 28 + shift, 40, 20));
+		}
+		diagram.validate();
+	}
+
+	/**
+	 * Runs the benchmark.
+	 * 
+	 * @param args
+	 *            the number of containers, the number of nodes per container
+	 *            and the number of measured rounds
+	 */
+	public static void main(String[] args) {
+		int containerCount = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+		int nodeCount = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+		int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+
+		LayoutBenchmark benchmark = new LayoutBenchmark(containerCount,
+				nodeCount);
+		for (int round = 0; round < WARMUP_ROUNDS; round++)
+			benchmark.layout(round);
+
+		benchmark.notifications = 0;
+		long start = System.nanoTime();
+		for (int round = 0; round < rounds; round++)
+			benchmark.layout(round);
+		long elapsed = System.nanoTime() - start;
+
+		int figures = containerCount * (nodeCount + 1);
+		double seconds = elapsed / 1e9;
+		System.out.println(figures + " figures, " //$NON-NLS-1$
+				+ rounds + " rounds: " //$NON-NLS-1$
+				+ Math.round(rounds / seconds) + " layouts/s, " //$NON-NLS-1$
+				+ Math.round((double) figures * rounds / seconds)
+				+ " figures/s, " + benchmark.notifications //$NON-NLS-1$
+				+ " notifications"); //$NON-NLS-1$
+	}
+
+}